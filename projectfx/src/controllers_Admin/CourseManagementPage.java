@@ -1,8 +1,10 @@
 package controllers_Admin;
 
-import dao.DatabaseConnection;
+import javafx.application.Platform;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.value.ChangeListener;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
@@ -19,23 +21,43 @@ import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.scene.text.TextAlignment;
+import services.BackgroundLoader;
+import services.CardGrid;
+import services.CourseCatalog;
+import services.CourseWriter;
 
 import java.sql.*;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 /**
- * Course Management page for admin operations on courses with database integration
+ * Course Management page for admin operations on courses with database integration.
+ * Changes are saved by CourseWriter in the background and then patched into the
+ * affected courses, so the rest of the grid is left as it is.
  */
 public class CourseManagementPage {
     
     // UI components that need class-level access
     private TextField searchField;
-    private FlowPane courseGrid;
-    private ObservableList<CourseData> allCourses = FXCollections.observableArrayList();
-    private FilteredList<CourseData> filteredCourses;
+    private CardGrid<CourseData> courseGrid;
+    private final ObservableList<CourseData> allCourses = FXCollections.observableArrayList();
+    private final FilteredList<CourseData> filteredCourses = new FilteredList<>(allCourses, p -> true);
+    private final Set<CourseData> selectedCourses = new HashSet<>();
+    private Label selectionLabel;
+    private Button recolorSelectedBtn;
+    private Button deleteSelectedBtn;
+    
+    // Courses are created by the admin account until the page knows the logged-in user
+    private static final int CURRENT_USER_ID = 1;
     
     // Color constants for UI
     private static final String PRIMARY_COLOR = "#3498db";
@@ -53,12 +75,6 @@ public class CourseManagementPage {
         "#1abc9c", "#d35400", "#c0392b", "#16a085", "#8e44ad"
     );
     
-    // Sample categories if not specified in DB
-    private static final List<String> DEFAULT_CATEGORIES = Arrays.asList(
-        "Programming", "Data Science", "Business", "Design", "Marketing",
-        "Mathematics", "Science", "Languages", "Arts", "Engineering"
-    );
-    
     /**
      * Get the main view for course management
      */
@@ -157,7 +173,50 @@ public class CourseManagementPage {
             searchField.clear();
         });
         
-        searchControls.getChildren().addAll(searchField, clearBtn);
+        // Bulk actions work on the selected cards
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        
+        selectionLabel = new Label();
+        selectionLabel.setFont(Font.font("Arial", 13));
+        selectionLabel.setTextFill(Color.web(SUBTEXT_COLOR));
+        
+        Button selectAllBtn = new Button("Select Shown");
+        selectAllBtn.setPadding(new Insets(10, 15, 10, 15));
+        selectAllBtn.setStyle(
+            "-fx-background-color: #ecf0f1;" +
+            "-fx-text-fill: " + TEXT_COLOR + ";" +
+            "-fx-background-radius: 4;"
+        );
+        selectAllBtn.setOnAction(e -> {
+            boolean allSelected = !filteredCourses.isEmpty() && selectedCourses.containsAll(filteredCourses);
+            for (CourseData course : filteredCourses) {
+                course.setSelected(!allSelected);
+            }
+        });
+        
+        recolorSelectedBtn = new Button("Change Color");
+        recolorSelectedBtn.setPadding(new Insets(10, 15, 10, 15));
+        recolorSelectedBtn.setStyle(
+            "-fx-background-color: " + PRIMARY_COLOR + ";" +
+            "-fx-text-fill: white;" +
+            "-fx-background-radius: 4;"
+        );
+        recolorSelectedBtn.setOnAction(e -> showRecolorSelectedDialog());
+        
+        deleteSelectedBtn = new Button("Delete Selected");
+        deleteSelectedBtn.setPadding(new Insets(10, 15, 10, 15));
+        deleteSelectedBtn.setStyle(
+            "-fx-background-color: " + DANGER_COLOR + ";" +
+            "-fx-text-fill: white;" +
+            "-fx-background-radius: 4;"
+        );
+        deleteSelectedBtn.setOnAction(e -> showDeleteSelectedConfirmation());
+        
+        updateSelectionControls();
+        
+        searchControls.getChildren().addAll(searchField, clearBtn, spacer,
+                selectionLabel, selectAllBtn, recolorSelectedBtn, deleteSelectedBtn);
         
         searchCard.getChildren().add(searchControls);
         
@@ -186,182 +245,223 @@ public class CourseManagementPage {
         coursesLabel.setFont(Font.font("Arial", FontWeight.BOLD, 20));
         coursesLabel.setTextFill(Color.web(TEXT_COLOR));
         
-        // Create the flow pane for course cards
-        courseGrid = new FlowPane();
-        courseGrid.setHgap(20);
-        courseGrid.setVgap(20);
+        // Only the cards on screen exist; scrolling refills them with other courses
+        courseGrid = new CardGrid<>(320, 20, CourseCard::new);
         courseGrid.setPadding(new Insets(15, 0, 0, 0));
+        courseGrid.setPrefHeight(600); // Make it much taller
         
-        // Add a scroll pane for the course grid
-        ScrollPane scrollPane = new ScrollPane(courseGrid);
-        scrollPane.setFitToWidth(true);
-        scrollPane.setVbarPolicy(ScrollPane.ScrollBarPolicy.AS_NEEDED);
-        scrollPane.setStyle("-fx-background-color: transparent;");
-        scrollPane.setPannable(true);
-        scrollPane.setPrefHeight(600); // Make it much taller
+        Label noCoursesLabel = new Label("No courses found matching your criteria");
+        noCoursesLabel.setFont(Font.font("Arial", FontWeight.NORMAL, 18));
+        noCoursesLabel.setTextFill(Color.web(SUBTEXT_COLOR));
+        noCoursesLabel.setTextAlignment(TextAlignment.CENTER);
+        noCoursesLabel.setPadding(new Insets(50));
+        courseGrid.setPlaceholder(noCoursesLabel);
         
-        VBox.setVgrow(scrollPane, Priority.ALWAYS);
+        VBox.setVgrow(courseGrid, Priority.ALWAYS);
         
-        courseCardContainer.getChildren().addAll(coursesLabel, scrollPane);
+        courseCardContainer.getChildren().addAll(coursesLabel, courseGrid);
         
         return courseCardContainer;
     }
     
     /**
-     * Creates a card for an individual course
+     * A course card, built once and refilled for whichever course scrolls into its slot.
+     * Labels are bound to the course, so a saved edit shows up without refilling the card.
      */
-    private VBox createCourseCard(CourseData course) {
-        VBox card = new VBox(10);
-        card.setPadding(new Insets(15));
-        card.setBackground(new Background(new BackgroundFill(
-                Color.web(CARD_COLOR), new CornerRadii(8), Insets.EMPTY)));
-        card.setEffect(new DropShadow(4, 0, 3, Color.rgb(0, 0, 0, 0.15)));
-        card.setPrefWidth(320);
-        card.setMaxWidth(320);
-        
-        // Course color band at top
-        Rectangle colorBand = new Rectangle(290, 8);
-        colorBand.setFill(Color.web(course.getCourseColor()));
-        colorBand.setArcWidth(8);
-        colorBand.setArcHeight(8);
-        
-        // Course title
-        Label courseTitle = new Label(course.getCourseName());
-        courseTitle.setFont(Font.font("Arial", FontWeight.BOLD, 18));
-        courseTitle.setTextFill(Color.web(TEXT_COLOR));
-        courseTitle.setWrapText(true);
-        
-        // Course info
-        VBox infoBox = new VBox(5);
-        infoBox.setPadding(new Insets(10, 0, 10, 0));
-        
-        // Course instructor
-        HBox instructorBox = new HBox(10);
-        instructorBox.setAlignment(Pos.CENTER_LEFT);
-        
-        Circle instructorAvatar = new Circle(14);
-        instructorAvatar.setFill(Color.web(course.getCourseColor()).deriveColor(1, 1, 1, 0.7));
-        
-        Label instructorInitial = new Label(course.getInstructor().substring(0, 1).toUpperCase());
-        instructorInitial.setFont(Font.font("Arial", FontWeight.BOLD, 14));
-        instructorInitial.setTextFill(Color.WHITE);
-        
-        StackPane avatarStack = new StackPane(instructorAvatar, instructorInitial);
-        
-        Label instructorLabel = new Label("Instructor: " + course.getInstructor());
-        instructorLabel.setFont(Font.font("Arial", 14));
-        instructorLabel.setTextFill(Color.web(TEXT_COLOR));
-        
-        instructorBox.getChildren().addAll(avatarStack, instructorLabel);
-        
-        // Description excerpt
-        Label descriptionLabel = new Label(course.getDescription());
-        descriptionLabel.setFont(Font.font("Arial", 13));
-        descriptionLabel.setTextFill(Color.web(SUBTEXT_COLOR));
-        descriptionLabel.setWrapText(true);
-        descriptionLabel.setMaxHeight(80);
-        
-        infoBox.getChildren().addAll(instructorBox, descriptionLabel);
-        
-        // Action buttons
-        HBox buttonsBox = new HBox(10);
-        buttonsBox.setAlignment(Pos.CENTER);
-        
-        Button editBtn = new Button("Edit");
-        editBtn.setPrefWidth(90);
-        editBtn.setPadding(new Insets(8, 15, 8, 15));
-        editBtn.setStyle(
-            "-fx-background-color: " + PRIMARY_COLOR + ";" +
-            "-fx-text-fill: white;" +
-            "-fx-background-radius: 4;"
-        );
-        editBtn.setOnAction(e -> showEditCourseDialog(course));
-        
-        Button viewBtn = new Button("View");
-        viewBtn.setPrefWidth(90);
-        viewBtn.setPadding(new Insets(8, 15, 8, 15));
-        viewBtn.setStyle(
-            "-fx-background-color: #95a5a6;" +
-            "-fx-text-fill: white;" +
-            "-fx-background-radius: 4;"
-        );
-        viewBtn.setOnAction(e -> showCourseDetails(course));
-        
-        Button deleteBtn = new Button("Delete");
-        deleteBtn.setPrefWidth(90);
-        deleteBtn.setPadding(new Insets(8, 15, 8, 15));
-        deleteBtn.setStyle(
-            "-fx-background-color: " + DANGER_COLOR + ";" +
-            "-fx-text-fill: white;" +
-            "-fx-background-radius: 4;"
-        );
-        deleteBtn.setOnAction(e -> showDeleteConfirmation(course));
+    private class CourseCard implements CardGrid.Card<CourseData> {
+        private final VBox card = new VBox(10);
+        private final Rectangle colorBand = new Rectangle(260, 8);
+        private final CheckBox selectBox = new CheckBox();
+        private final Label courseTitle = new Label();
+        private final Circle instructorAvatar = new Circle(14);
+        private final Label instructorInitial = new Label();
+        private final Label instructorLabel = new Label();
+        private final Label descriptionLabel = new Label();
+        private final ChangeListener<String> colorListener = (obs, oldColor, newColor) -> showColor(newColor);
+        private CourseData course;
+        
+        CourseCard() {
+            card.setPadding(new Insets(15));
+            // The shadow comes from the .course-card stylesheet rule that CardGrid applies
+            card.setBackground(new Background(new BackgroundFill(
+                    Color.web(CARD_COLOR), new CornerRadii(8), Insets.EMPTY)));
+            card.setPrefWidth(320);
+            card.setMaxWidth(320);
+            
+            // Course color band at top, with the selection box beside it
+            colorBand.setArcWidth(8);
+            colorBand.setArcHeight(8);
+            
+            HBox topRow = new HBox(10, colorBand, selectBox);
+            topRow.setAlignment(Pos.CENTER_LEFT);
+            
+            // Course title
+            courseTitle.setFont(Font.font("Arial", FontWeight.BOLD, 18));
+            courseTitle.setTextFill(Color.web(TEXT_COLOR));
+            courseTitle.setWrapText(true);
+            
+            // Course info
+            VBox infoBox = new VBox(5);
+            infoBox.setPadding(new Insets(10, 0, 10, 0));
+            
+            // Course instructor
+            HBox instructorBox = new HBox(10);
+            instructorBox.setAlignment(Pos.CENTER_LEFT);
+            
+            instructorInitial.setFont(Font.font("Arial", FontWeight.BOLD, 14));
+            instructorInitial.setTextFill(Color.WHITE);
+            
+            StackPane avatarStack = new StackPane(instructorAvatar, instructorInitial);
+            
+            instructorLabel.setFont(Font.font("Arial", 14));
+            instructorLabel.setTextFill(Color.web(TEXT_COLOR));
+            
+            instructorBox.getChildren().addAll(avatarStack, instructorLabel);
+            
+            // Description excerpt
+            descriptionLabel.setFont(Font.font("Arial", 13));
+            descriptionLabel.setTextFill(Color.web(SUBTEXT_COLOR));
+            descriptionLabel.setWrapText(true);
+            descriptionLabel.setMaxHeight(80);
+            
+            infoBox.getChildren().addAll(instructorBox, descriptionLabel);
+            
+            // Action buttons
+            HBox buttonsBox = new HBox(10);
+            buttonsBox.setAlignment(Pos.CENTER);
+            
+            Button editBtn = new Button("Edit");
+            editBtn.setPrefWidth(90);
+            editBtn.setPadding(new Insets(8, 15, 8, 15));
+            editBtn.setStyle(
+                "-fx-background-color: " + PRIMARY_COLOR + ";" +
+                "-fx-text-fill: white;" +
+                "-fx-background-radius: 4;"
+            );
+            editBtn.setOnAction(e -> showEditCourseDialog(course));
+            
+            Button viewBtn = new Button("View");
+            viewBtn.setPrefWidth(90);
+            viewBtn.setPadding(new Insets(8, 15, 8, 15));
+            viewBtn.setStyle(
+                "-fx-background-color: #95a5a6;" +
+                "-fx-text-fill: white;" +
+                "-fx-background-radius: 4;"
+            );
+            viewBtn.setOnAction(e -> showCourseDetails(course));
+            
+            Button deleteBtn = new Button("Delete");
+            deleteBtn.setPrefWidth(90);
+            deleteBtn.setPadding(new Insets(8, 15, 8, 15));
+            deleteBtn.setStyle(
+                "-fx-background-color: " + DANGER_COLOR + ";" +
+                "-fx-text-fill: white;" +
+                "-fx-background-radius: 4;"
+            );
+            deleteBtn.setOnAction(e -> showDeleteConfirmation(course));
+            
+            buttonsBox.getChildren().addAll(editBtn, viewBtn, deleteBtn);
+            
+            card.getChildren().addAll(topRow, courseTitle, infoBox, buttonsBox);
+        }
         
-        buttonsBox.getChildren().addAll(editBtn, viewBtn, deleteBtn);
+        @Override
+        public Node getNode() {
+            return card;
+        }
         
-        card.getChildren().addAll(colorBand, courseTitle, infoBox, buttonsBox);
+        @Override
+        public void show(CourseData next) {
+            if (course == next) {
+                return;
+            }
+            if (course != null) {
+                selectBox.selectedProperty().unbindBidirectional(course.selectedProperty());
+                course.courseColorProperty().removeListener(colorListener);
+            }
+            course = next;
+            
+            selectBox.selectedProperty().bindBidirectional(course.selectedProperty());
+            courseTitle.textProperty().bind(course.courseNameProperty());
+            descriptionLabel.textProperty().bind(course.descriptionProperty());
+            course.courseColorProperty().addListener(colorListener);
+            showColor(course.getCourseColor());
+            
+            instructorInitial.setText(course.getInstructor().substring(0, 1).toUpperCase());
+            instructorLabel.setText("Instructor: " + course.getInstructor());
+        }
         
-        return card;
+        private void showColor(String color) {
+            colorBand.setFill(Color.web(color));
+            instructorAvatar.setFill(Color.web(color).deriveColor(1, 1, 1, 0.7));
+        }
     }
     
     /**
-     * Load courses from the database
+     * Load courses from the database in the background
      */
     private void loadCoursesFromDatabase() {
-        allCourses.clear();
-        
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            // We need to join with the Users table to get instructor names
-            String query = "SELECT c.courseID, c.courseName, c.description, c.courseColor, " +
-                           "u.username AS instructorName " +
-                           "FROM Courses c " +
-                           "LEFT JOIN Users u ON c.createdBy = u.userID";
+        BackgroundLoader.load(courseGrid, () -> queryCourses(null), courses -> {
+            allCourses.clear();
+            selectedCourses.clear();
+            for (CourseData course : courses) {
+                track(course);
+            }
+            allCourses.setAll(courses);
+            updateCourseGrid();
+            updateSelectionControls();
+        }, e -> showErrorDialog("Database Error", "Failed to load courses from database", e.getMessage()));
+    }
+    
+    /**
+     * All courses, or only the one with id courseId when it is not null.
+     * Served from CourseCatalog, which only queries after a change.
+     */
+    private List<CourseData> queryCourses(Integer courseId) throws SQLException {
+        List<CourseData> courses = new ArrayList<>();
+        
+        for (CourseCatalog.Course course : CourseCatalog.all()) {
+            if (courseId != null && course.getId() != courseId) {
+                continue;
+            }
             
-            try (Statement stmt = conn.createStatement();
-                 ResultSet rs = stmt.executeQuery(query)) {
-                
-                Random random = new Random();
-                
-                while (rs.next()) {
-                    // Simplify - just use a random category for display purposes
-                    String category = DEFAULT_CATEGORIES.get(random.nextInt(DEFAULT_CATEGORIES.size()));
-                    
-                    String courseColor = rs.getString("courseColor");
-                    if (courseColor == null || courseColor.isEmpty()) {
-                        // If no color is set, use a random color
-                        courseColor = CATEGORY_COLORS.get(random.nextInt(CATEGORY_COLORS.size()));
-                    }
-                    
-                    // Get the instructor's name, or use "Unknown" if null
-                    String instructorName = rs.getString("instructorName");
-                    if (instructorName == null || instructorName.isEmpty()) {
-                        instructorName = "Unknown Instructor";
-                    }
-                    
-                    CourseData course = new CourseData(
-                        rs.getInt("courseID"),
-                        rs.getString("courseName"),
-                        rs.getString("description") != null ? rs.getString("description") : "",
-                        instructorName,
-                        category,
-                        "Published", // Default status
-                        0, // We're not showing enrollments anymore
-                        courseColor
-                    );
-                    
-                    allCourses.add(course);
-                }
-                
-                // Set up filtered list
-                filteredCourses = new FilteredList<>(allCourses, p -> true);
-                
-                // Update the UI
-                updateCourseGrid();
+            // Get the instructor's name, or use "Unknown" if null
+            String instructorName = course.getInstructorName();
+            if (instructorName == null || instructorName.isEmpty()) {
+                instructorName = "Unknown Instructor";
             }
-        } catch (SQLException e) {
-            showErrorDialog("Database Error", "Failed to load courses from database", e.getMessage());
-            e.printStackTrace();
+            
+            courses.add(new CourseData(
+                course.getId(),
+                course.getName(),
+                course.getDescription(),
+                instructorName,
+                course.getCategory(),
+                "Published", // Default status
+                0, // We're not showing enrollments anymore
+                course.getColor()
+            ));
         }
+        return courses;
+    }
+    
+    // Keep selectedCourses in step with the course's check box
+    private void track(CourseData course) {
+        course.selectedProperty().addListener((obs, wasSelected, isSelected) -> {
+            if (isSelected) {
+                selectedCourses.add(course);
+            } else {
+                selectedCourses.remove(course);
+            }
+            updateSelectionControls();
+        });
+    }
+    
+    private void updateSelectionControls() {
+        int count = selectedCourses.size();
+        selectionLabel.setText(count == 0 ? "" : count + " selected");
+        recolorSelectedBtn.setDisable(count == 0);
+        deleteSelectedBtn.setDisable(count == 0);
     }
     
     /**
@@ -389,23 +489,7 @@ public class CourseManagementPage {
      * Update the course grid with filtered courses
      */
     private void updateCourseGrid() {
-        courseGrid.getChildren().clear();
-        
-        for (CourseData course : filteredCourses) {
-            VBox courseCard = createCourseCard(course);
-            courseGrid.getChildren().add(courseCard);
-        }
-        
-        if (filteredCourses.isEmpty()) {
-            Label noCoursesLabel = new Label("No courses found matching your criteria");
-            noCoursesLabel.setFont(Font.font("Arial", FontWeight.NORMAL, 18));
-            noCoursesLabel.setTextFill(Color.web(SUBTEXT_COLOR));
-            noCoursesLabel.setTextAlignment(TextAlignment.CENTER);
-            noCoursesLabel.setPrefWidth(600);
-            noCoursesLabel.setPadding(new Insets(50));
-            
-            courseGrid.getChildren().add(noCoursesLabel);
-        }
+        courseGrid.setCards(filteredCourses);
     }
     
     /**
@@ -496,11 +580,9 @@ public class CourseManagementPage {
                         throw new IllegalArgumentException("Course name is required");
                     }
                     
-                    // Add course to database
-                    if (addCourseToDatabase(name, description, color)) {
-                        loadCoursesFromDatabase(); // Refresh the data
-                        return new CourseData(0, name, description, "Current User", "", "", 0, color);
-                    }
+                    // Saved in the background; the card appears once the course is read back
+                    addCourseToDatabase(name, description, color);
+                    return new CourseData(0, name, description, "Current User", "", "", 0, color);
                     
                 } catch (Exception e) {
                     showErrorDialog("Input Error", "Invalid input", e.getMessage());
@@ -595,11 +677,10 @@ public class CourseManagementPage {
                         throw new IllegalArgumentException("Course name is required");
                     }
                     
-                    // Update course in database
-                    if (updateCourseInDatabase(course.getCourseId(), name, description, color)) {
-                        loadCoursesFromDatabase(); // Refresh the data
-                        return course;
-                    }
+                    // Saved in the background; the card is patched once the update commits
+                    updateCoursesInDatabase(List.of(
+                            new CourseWriter.Change(course.getCourseId(), name, description, color)));
+                    return course;
                     
                 } catch (Exception e) {
                     showErrorDialog("Input Error", "Invalid input", e.getMessage());
@@ -720,83 +801,165 @@ public class CourseManagementPage {
         
         alert.showAndWait().ifPresent(response -> {
             if (response == deleteButton) {
-                deleteCourseFromDatabase(course.getCourseId());
-                loadCoursesFromDatabase(); // Refresh the data
+                deleteCoursesFromDatabase(List.of(course));
             }
         });
     }
     
     /**
-     * Add a new course to the database
+     * Show dialog to give every selected course the same color
      */
-    private boolean addCourseToDatabase(String name, String description, String color) {
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            // We'll assume the current user ID is 1 (admin) for simplicity
-            // In a real app, you'd get the ID of the logged-in user
-            int currentUserId = 1;
-            
-            String query = "INSERT INTO Courses (courseName, description, createdBy, courseColor) VALUES (?, ?, ?, ?)";
-            
-            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-                pstmt.setString(1, name);
-                pstmt.setString(2, description);
-                pstmt.setInt(3, currentUserId);
-                pstmt.setString(4, color);
-                
-                int affectedRows = pstmt.executeUpdate();
+    private void showRecolorSelectedDialog() {
+        List<CourseData> courses = new ArrayList<>(selectedCourses);
+        
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Change Course Color");
+        dialog.setHeaderText("New color for " + courses.size() + " selected course(s)");
+        
+        ButtonType saveButtonType = new ButtonType("Save", ButtonBar.ButtonData.OK_DONE);
+        dialog.getDialogPane().getButtonTypes().addAll(saveButtonType, ButtonType.CANCEL);
+        
+        ColorPicker colorPicker = new ColorPicker(Color.web(CATEGORY_COLORS.get(0)));
+        colorPicker.setPrefWidth(150);
+        
+        VBox content = new VBox(colorPicker);
+        content.setPadding(new Insets(20));
+        dialog.getDialogPane().setContent(content);
+        
+        dialog.showAndWait().ifPresent(response -> {
+            if (response == saveButtonType) {
+                String color = String.format("#%02X%02X%02X",
+                        (int)(colorPicker.getValue().getRed() * 255),
+                        (int)(colorPicker.getValue().getGreen() * 255),
+                        (int)(colorPicker.getValue().getBlue() * 255));
                 
-                return affectedRows > 0;
+                recolorCoursesInDatabase(courses, color);
             }
-        } catch (SQLException e) {
-            showErrorDialog("Database Error", "Failed to add course", e.getMessage());
-            e.printStackTrace();
-            return false;
-        }
+        });
     }
     
     /**
-     * Update an existing course in the database
+     * Show confirmation dialog before deleting the selected courses
      */
-    private boolean updateCourseInDatabase(int courseId, String name, String description, String color) {
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            String query = "UPDATE Courses SET courseName = ?, description = ?, courseColor = ? WHERE courseID = ?";
-            
-            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-                pstmt.setString(1, name);
-                pstmt.setString(2, description);
-                pstmt.setString(3, color);
-                pstmt.setInt(4, courseId);
-                
-                int affectedRows = pstmt.executeUpdate();
-                
-                return affectedRows > 0;
+    private void showDeleteSelectedConfirmation() {
+        List<CourseData> courses = new ArrayList<>(selectedCourses);
+        
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.setTitle("Confirm Delete");
+        alert.setHeaderText("Are you sure you want to delete " + courses.size() + " course(s)?");
+        alert.setContentText("This action cannot be undone.");
+        
+        ButtonType deleteButton = new ButtonType("Delete", ButtonBar.ButtonData.OK_DONE);
+        ButtonType cancelButton = new ButtonType("Cancel", ButtonBar.ButtonData.CANCEL_CLOSE);
+        alert.getButtonTypes().setAll(deleteButton, cancelButton);
+        
+        alert.showAndWait().ifPresent(response -> {
+            if (response == deleteButton) {
+                deleteCoursesFromDatabase(courses);
+            }
+        });
+    }
+    
+    /**
+     * Add a new course to the database, then read it back and add its card
+     */
+    private void addCourseToDatabase(String name, String description, String color) {
+        whenSaved(CourseWriter.insert(name, description, CURRENT_USER_ID, color), "Failed to add course",
+            courseId -> BackgroundLoader.load(courseGrid, () -> queryCourses(courseId), courses -> {
+                for (CourseData course : courses) {
+                    track(course);
+                    allCourses.add(course);
+                }
+                updateCourseGrid();
+            }, e -> showErrorDialog("Database Error", "Failed to load the new course", e.getMessage())));
+    }
+    
+    /**
+     * Save changes to existing courses, then patch the matching CourseData in place
+     */
+    private void updateCoursesInDatabase(List<CourseWriter.Change> changes) {
+        whenSaved(CourseWriter.update(changes), "Failed to update course", saved -> {
+            Map<Integer, CourseWriter.Change> byId = new HashMap<>();
+            for (CourseWriter.Change change : changes) {
+                byId.put(change.getCourseId(), change);
+            }
+            for (CourseData course : allCourses) {
+                CourseWriter.Change change = byId.get(course.getCourseId());
+                if (change != null) {
+                    course.courseNameProperty().set(change.getName());
+                    course.descriptionProperty().set(change.getDescription());
+                    course.courseColorProperty().set(change.getColor());
+                }
             }
-        } catch (SQLException e) {
-            showErrorDialog("Database Error", "Failed to update course", e.getMessage());
-            e.printStackTrace();
-            return false;
+            // An edit can move a course in or out of the current search
+            if (!searchField.getText().isEmpty()) {
+                filterCourses();
+            }
+        });
+    }
+    
+    /**
+     * Save a new color for courses, then patch only their color in place
+     */
+    private void recolorCoursesInDatabase(List<CourseData> courses, String color) {
+        List<Integer> courseIds = new ArrayList<>(courses.size());
+        for (CourseData course : courses) {
+            courseIds.add(course.getCourseId());
         }
+        whenSaved(CourseWriter.recolor(courseIds, color), "Failed to update course color", saved -> {
+            for (CourseData course : courses) {
+                course.courseColorProperty().set(color);
+            }
+        });
     }
     
     /**
-     * Delete a course from the database
+     * Delete courses from the database, then drop their cards
      */
-    private boolean deleteCourseFromDatabase(int courseId) {
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            String query = "DELETE FROM Courses WHERE courseID = ?";
+    private void deleteCoursesFromDatabase(List<CourseData> courses) {
+        List<Integer> courseIds = new ArrayList<>(courses.size());
+        for (CourseData course : courses) {
+            courseIds.add(course.getCourseId());
+        }
+        whenSaved(CourseWriter.delete(courseIds), "Failed to delete course", refused -> {
+            Set<CourseData> removed = new HashSet<>();
+            StringBuilder kept = new StringBuilder();
+            for (CourseData course : courses) {
+                String reason = refused.get(course.getCourseId());
+                if (reason == null) {
+                    removed.add(course);
+                } else {
+                    kept.append(course.getCourseName()).append(": ").append(reason).append("\n");
+                }
+            }
+            allCourses.removeAll(removed);
+            for (CourseData course : removed) {
+                course.setSelected(false);
+            }
+            updateCourseGrid();
             
-            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-                pstmt.setInt(1, courseId);
-                
-                int affectedRows = pstmt.executeUpdate();
-                
-                return affectedRows > 0;
+            if (!refused.isEmpty()) {
+                Alert alert = new Alert(Alert.AlertType.WARNING);
+                alert.setTitle("Courses Not Deleted");
+                alert.setHeaderText(refused.size() + " of " + courses.size() + " course(s) could not be deleted");
+                alert.setContentText(kept.toString().trim());
+                alert.showAndWait();
             }
-        } catch (SQLException e) {
-            showErrorDialog("Database Error", "Failed to delete course", e.getMessage());
-            e.printStackTrace();
-            return false;
-        }
+        });
+    }
+    
+    // Hand a background write's result to onSaved on the FX thread, or show its error
+    private <T> void whenSaved(CompletableFuture<T> write, String failure, Consumer<T> onSaved) {
+        write.whenComplete((result, error) -> Platform.runLater(() -> {
+            if (error == null) {
+                onSaved.accept(result);
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            showErrorDialog("Database Error", failure, cause.getMessage());
+            cause.printStackTrace();
+        }));
     }
     
     /**
@@ -822,6 +985,7 @@ public class CourseManagementPage {
         private final SimpleStringProperty status;
         private final SimpleIntegerProperty enrollments;
         private final SimpleStringProperty courseColor;
+        private final SimpleBooleanProperty selected = new SimpleBooleanProperty(false);
         
         public CourseData(int courseId, String courseName, String description, String instructor,
                          String category, String status, int enrollments, String courseColor) {
@@ -844,6 +1008,8 @@ public class CourseManagementPage {
         public String getStatus() { return status.get(); }
         public int getEnrollments() { return enrollments.get(); }
         public String getCourseColor() { return courseColor.get(); }
+        public boolean isSelected() { return selected.get(); }
+        public void setSelected(boolean value) { selected.set(value); }
         
         // Property getters
         public SimpleStringProperty courseNameProperty() { return courseName; }
@@ -853,5 +1019,6 @@ public class CourseManagementPage {
         public SimpleStringProperty statusProperty() { return status; }
         public SimpleIntegerProperty enrollmentsProperty() { return enrollments; }
         public SimpleStringProperty courseColorProperty() { return courseColor; }
+        public SimpleBooleanProperty selectedProperty() { return selected; }
     }
 }
\ No newline at end of file
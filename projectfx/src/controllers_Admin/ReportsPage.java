@@ -16,9 +16,17 @@ import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 
+import services.BackgroundLoader;
+
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.BiConsumer;
 
 /**
  * Reports and Analytics page that displays various statistics from the database
@@ -54,12 +62,17 @@ public class ReportsPage {
         titleLabel.setTextFill(Color.web(TEXT_COLOR));
         titleLabel.setPadding(new Insets(0, 0, 20, 0));
         
-        // Main content cards
-        VBox userStatsCard = createUserStatsCard();
-        VBox courseStatsCard = createCourseStatsCard();
-        VBox quizStatsCard = createQuizStatsCard();
-        VBox assignmentStatsCard = createAssignmentStatsCard();
-        VBox instructorStatsCard = createInstructorStatsCard();
+        // Main content cards; each one loads its own data in the background
+        VBox userStatsCard = createCard("1. User Statistics", "user",
+                this::queryUserStats, this::renderUserStats);
+        VBox courseStatsCard = createCard("2. Course Analytics", "course",
+                this::queryCourseStats, this::renderCourseStats);
+        VBox quizStatsCard = createCard("3. Quiz Questions by Subject", "quiz",
+                this::queryQuizStats, this::renderQuizStats);
+        VBox assignmentStatsCard = createCard("5. Assignments & Deadlines", "assignment",
+                this::queryAssignmentStats, this::renderAssignmentStats);
+        VBox instructorStatsCard = createCard("4. Instructor Contributions", "instructor",
+                this::queryInstructorStats, this::renderInstructorStats);
         
         mainContainer.getChildren().addAll(
             titleLabel, 
@@ -75,9 +88,10 @@ public class ReportsPage {
     }
     
     /**
-     * Creates a card showing user statistics
+     * Creates a card that shows a skeleton until query finishes, then fills it with render
      */
-    private VBox createUserStatsCard() {
+    private <T> VBox createCard(String title, String dataName, Callable<T> query,
+                                BiConsumer<T, VBox> render) {
         VBox card = new VBox();
         card.setSpacing(15);
         card.setPadding(new Insets(20));
@@ -92,12 +106,32 @@ public class ReportsPage {
         card.setEffect(dropShadow);
         
         // Card title
-        Label cardTitle = new Label("1. User Statistics");
+        Label cardTitle = new Label(title);
         cardTitle.setFont(Font.font("Arial", FontWeight.BOLD, 20));
         cardTitle.setTextFill(Color.web(PRIMARY_COLOR));
         
         // Content
         VBox content = new VBox(10);
+        content.getChildren().add(BackgroundLoader.skeleton(5));
+        
+        BackgroundLoader.load(content, query, data -> {
+            content.getChildren().clear();
+            render.accept(data, content);
+        }, e -> {
+            Label errorLabel = new Label("Error loading " + dataName + " data: " + e.getMessage());
+            errorLabel.setTextFill(Color.web(DANGER_COLOR));
+            content.getChildren().setAll(errorLabel);
+        });
+        
+        card.getChildren().addAll(cardTitle, content);
+        return card;
+    }
+    
+    /**
+     * Loads total users and the breakdown by role
+     */
+    private UserStats queryUserStats() throws SQLException {
+        UserStats stats = new UserStats();
         
         try (Connection conn = DatabaseConnection.getConnection()) {
             // Total users query
@@ -106,17 +140,12 @@ public class ReportsPage {
             // Users by role query
             String roleCountQuery = "SELECT role, COUNT(*) as count FROM Users GROUP BY role";
             
-            int totalUsers = 0;
-            int adminCount = 0;
-            int instructorCount = 0;
-            int studentCount = 0;
-            
             // Execute total users query
             try (Statement stmt = conn.createStatement();
                  ResultSet rs = stmt.executeQuery(totalUsersQuery)) {
                 
                 if (rs.next()) {
-                    totalUsers = rs.getInt("total");
+                    stats.totalUsers = rs.getInt("total");
                 }
             }
             
@@ -129,77 +158,56 @@ public class ReportsPage {
                     int count = rs.getInt("count");
                     
                     if ("Admin".equalsIgnoreCase(role)) {
-                        adminCount = count;
+                        stats.adminCount = count;
                     } else if ("Instructor".equalsIgnoreCase(role)) {
-                        instructorCount = count;
+                        stats.instructorCount = count;
                     } else if ("Student".equalsIgnoreCase(role)) {
-                        studentCount = count;
+                        stats.studentCount = count;
                     }
                 }
             }
-            
-            // Create total users row
-            Label totalUsersLabel = new Label("Total Users: " + totalUsers);
-            totalUsersLabel.setFont(Font.font("Arial", FontWeight.BOLD, 16));
-            
-            // Create role breakdown
-            HBox roleBreakdown = new HBox(20);
-            roleBreakdown.setAlignment(Pos.CENTER);
-            
-            VBox adminBox = createCountBox("Admins", adminCount, DANGER_COLOR);
-            VBox instructorBox = createCountBox("Instructors", instructorCount, SECONDARY_COLOR);
-            VBox studentBox = createCountBox("Students", studentCount, WARNING_COLOR);
-            
-            roleBreakdown.getChildren().addAll(adminBox, instructorBox, studentBox);
-            
-            // Add pie chart for visual representation
-            ObservableList<PieChart.Data> pieChartData = FXCollections.observableArrayList(
-                new PieChart.Data("Admins", adminCount),
-                new PieChart.Data("Instructors", instructorCount),
-                new PieChart.Data("Students", studentCount)
-            );
-            
-            PieChart pieChart = new PieChart(pieChartData);
-            pieChart.setTitle("Users by Role");
-            pieChart.setLabelsVisible(true);
-            pieChart.setLegendVisible(true);
-            
-            content.getChildren().addAll(totalUsersLabel, roleBreakdown, pieChart);
-            
-        } catch (SQLException e) {
-            Label errorLabel = new Label("Error loading user data: " + e.getMessage());
-            errorLabel.setTextFill(Color.web(DANGER_COLOR));
-            content.getChildren().add(errorLabel);
         }
-        
-        card.getChildren().addAll(cardTitle, content);
-        return card;
+        return stats;
     }
     
     /**
-     * Creates a card showing course statistics
+     * Fills the user statistics card
      */
-    private VBox createCourseStatsCard() {
-        VBox card = new VBox();
-        card.setSpacing(15);
-        card.setPadding(new Insets(20));
-        card.setStyle("-fx-background-color: " + CARD_COLOR + "; -fx-background-radius: 8;");
-        
-        // Add drop shadow
-        DropShadow dropShadow = new DropShadow();
-        dropShadow.setRadius(5.0);
-        dropShadow.setOffsetX(0);
-        dropShadow.setOffsetY(2.0);
-        dropShadow.setColor(Color.rgb(0, 0, 0, 0.2));
-        card.setEffect(dropShadow);
+    private void renderUserStats(UserStats stats, VBox content) {
+        // Create total users row
+        Label totalUsersLabel = new Label("Total Users: " + stats.totalUsers);
+        totalUsersLabel.setFont(Font.font("Arial", FontWeight.BOLD, 16));
+        
+        // Create role breakdown
+        HBox roleBreakdown = new HBox(20);
+        roleBreakdown.setAlignment(Pos.CENTER);
+        
+        VBox adminBox = createCountBox("Admins", stats.adminCount, DANGER_COLOR);
+        VBox instructorBox = createCountBox("Instructors", stats.instructorCount, SECONDARY_COLOR);
+        VBox studentBox = createCountBox("Students", stats.studentCount, WARNING_COLOR);
+        
+        roleBreakdown.getChildren().addAll(adminBox, instructorBox, studentBox);
+        
+        // Add pie chart for visual representation
+        ObservableList<PieChart.Data> pieChartData = FXCollections.observableArrayList(
+            new PieChart.Data("Admins", stats.adminCount),
+            new PieChart.Data("Instructors", stats.instructorCount),
+            new PieChart.Data("Students", stats.studentCount)
+        );
         
-        // Card title
-        Label cardTitle = new Label("2. Course Analytics");
-        cardTitle.setFont(Font.font("Arial", FontWeight.BOLD, 20));
-        cardTitle.setTextFill(Color.web(PRIMARY_COLOR));
+        PieChart pieChart = new PieChart(pieChartData);
+        pieChart.setTitle("Users by Role");
+        pieChart.setLabelsVisible(true);
+        pieChart.setLegendVisible(true);
         
-        // Content
-        VBox content = new VBox(10);
+        content.getChildren().addAll(totalUsersLabel, roleBreakdown, pieChart);
+    }
+    
+    /**
+     * Loads course totals, courses per instructor and the top enrollments
+     */
+    private CourseStats queryCourseStats() throws SQLException {
+        CourseStats stats = new CourseStats();
         
         try (Connection conn = DatabaseConnection.getConnection()) {
             // Total courses
@@ -220,36 +228,15 @@ public class ReportsPage {
                                               "ORDER BY enrollment_count DESC " +
                                               "LIMIT 5";
             
-            int totalCourses = 0;
-            
             // Execute total courses query
             try (Statement stmt = conn.createStatement();
                  ResultSet rs = stmt.executeQuery(totalCoursesQuery)) {
                 
                 if (rs.next()) {
-                    totalCourses = rs.getInt("total");
+                    stats.totalCourses = rs.getInt("total");
                 }
             }
             
-            // Create total courses label
-            Label totalCoursesLabel = new Label("Total Courses: " + totalCourses);
-            totalCoursesLabel.setFont(Font.font("Arial", FontWeight.BOLD, 16));
-            
-            // Create courses per instructor table
-            TableView<CoursePerInstructorData> instructorTable = new TableView<>();
-            
-            TableColumn<CoursePerInstructorData, String> instructorColumn = new TableColumn<>("Instructor");
-            instructorColumn.setCellValueFactory(data -> data.getValue().instructorNameProperty());
-            instructorColumn.setPrefWidth(200);
-            
-            TableColumn<CoursePerInstructorData, Integer> courseCountColumn = new TableColumn<>("Courses Created");
-            courseCountColumn.setCellValueFactory(data -> data.getValue().courseCountProperty().asObject());
-            courseCountColumn.setPrefWidth(120);
-            
-            instructorTable.getColumns().addAll(instructorColumn, courseCountColumn);
-            
-            ObservableList<CoursePerInstructorData> instructorData = FXCollections.observableArrayList();
-            
             try (Statement stmt = conn.createStatement();
                  ResultSet rs = stmt.executeQuery(coursesPerInstructorQuery)) {
                 
@@ -257,25 +244,10 @@ public class ReportsPage {
                     String instructorName = rs.getString("username");
                     int courseCount = rs.getInt("course_count");
                     
-                    instructorData.add(new CoursePerInstructorData(instructorName, courseCount));
+                    stats.coursesPerInstructor.add(new CoursePerInstructorData(instructorName, courseCount));
                 }
             }
             
-            instructorTable.setItems(instructorData);
-            instructorTable.setPrefHeight(200);
-            
-            // Create enrollment bar chart
-            CategoryAxis xAxis = new CategoryAxis();
-            NumberAxis yAxis = new NumberAxis();
-            
-            BarChart<String, Number> enrollmentChart = new BarChart<>(xAxis, yAxis);
-            enrollmentChart.setTitle("Enrollment Count per Course");
-            xAxis.setLabel("Course");
-            yAxis.setLabel("Enrollment Count");
-            
-            XYChart.Series<String, Number> series = new XYChart.Series<>();
-            series.setName("Enrollments");
-            
             try (Statement stmt = conn.createStatement();
                  ResultSet rs = stmt.executeQuery(enrollmentsPerCourseQuery)) {
                 
@@ -283,52 +255,66 @@ public class ReportsPage {
                     String courseName = rs.getString("courseName");
                     int enrollmentCount = rs.getInt("enrollment_count");
                     
-                    series.getData().add(new XYChart.Data<>(courseName, enrollmentCount));
+                    stats.enrollmentsPerCourse.put(courseName, enrollmentCount);
                 }
             }
-            
-            enrollmentChart.getData().add(series);
-            
-            content.getChildren().addAll(totalCoursesLabel, 
-                                        new Label("Courses per Instructor:"), 
-                                        instructorTable,
-                                        new Label("Enrollment Count per Course:"),
-                                        enrollmentChart);
-            
-        } catch (SQLException e) {
-            Label errorLabel = new Label("Error loading course data: " + e.getMessage());
-            errorLabel.setTextFill(Color.web(DANGER_COLOR));
-            content.getChildren().add(errorLabel);
         }
-        
-        card.getChildren().addAll(cardTitle, content);
-        return card;
+        return stats;
     }
     
     /**
-     * Creates a card showing quiz statistics
+     * Fills the course analytics card
      */
-    private VBox createQuizStatsCard() {
-        VBox card = new VBox();
-        card.setSpacing(15);
-        card.setPadding(new Insets(20));
-        card.setStyle("-fx-background-color: " + CARD_COLOR + "; -fx-background-radius: 8;");
+    private void renderCourseStats(CourseStats stats, VBox content) {
+        // Create total courses label
+        Label totalCoursesLabel = new Label("Total Courses: " + stats.totalCourses);
+        totalCoursesLabel.setFont(Font.font("Arial", FontWeight.BOLD, 16));
         
-        // Add drop shadow
-        DropShadow dropShadow = new DropShadow();
-        dropShadow.setRadius(5.0);
-        dropShadow.setOffsetX(0);
-        dropShadow.setOffsetY(2.0);
-        dropShadow.setColor(Color.rgb(0, 0, 0, 0.2));
-        card.setEffect(dropShadow);
+        // Create courses per instructor table
+        TableView<CoursePerInstructorData> instructorTable = new TableView<>();
         
-        // Card title
-        Label cardTitle = new Label("3. Quiz Questions by Subject");
-        cardTitle.setFont(Font.font("Arial", FontWeight.BOLD, 20));
-        cardTitle.setTextFill(Color.web(PRIMARY_COLOR));
+        TableColumn<CoursePerInstructorData, String> instructorColumn = new TableColumn<>("Instructor");
+        instructorColumn.setCellValueFactory(data -> data.getValue().instructorNameProperty());
+        instructorColumn.setPrefWidth(200);
         
-        // Content
-        VBox content = new VBox(10);
+        TableColumn<CoursePerInstructorData, Integer> courseCountColumn = new TableColumn<>("Courses Created");
+        courseCountColumn.setCellValueFactory(data -> data.getValue().courseCountProperty().asObject());
+        courseCountColumn.setPrefWidth(120);
+        
+        instructorTable.getColumns().addAll(instructorColumn, courseCountColumn);
+        instructorTable.setItems(FXCollections.observableArrayList(stats.coursesPerInstructor));
+        instructorTable.setPrefHeight(200);
+        
+        // Create enrollment bar chart
+        CategoryAxis xAxis = new CategoryAxis();
+        NumberAxis yAxis = new NumberAxis();
+        
+        BarChart<String, Number> enrollmentChart = new BarChart<>(xAxis, yAxis);
+        enrollmentChart.setTitle("Enrollment Count per Course");
+        xAxis.setLabel("Course");
+        yAxis.setLabel("Enrollment Count");
+        
+        XYChart.Series<String, Number> series = new XYChart.Series<>();
+        series.setName("Enrollments");
+        
+        for (Map.Entry<String, Integer> entry : stats.enrollmentsPerCourse.entrySet()) {
+            series.getData().add(new XYChart.Data<>(entry.getKey(), entry.getValue()));
+        }
+        
+        enrollmentChart.getData().add(series);
+        
+        content.getChildren().addAll(totalCoursesLabel, 
+                                    new Label("Courses per Instructor:"), 
+                                    instructorTable,
+                                    new Label("Enrollment Count per Course:"),
+                                    enrollmentChart);
+    }
+    
+    /**
+     * Loads the number of quiz questions per subject
+     */
+    private Map<String, Integer> queryQuizStats() throws SQLException {
+        Map<String, Integer> questionsBySubject = new LinkedHashMap<>();
         
         try (Connection conn = DatabaseConnection.getConnection()) {
             // Quiz questions by subject
@@ -337,64 +323,43 @@ public class ReportsPage {
                                         "GROUP BY subject " +
                                         "ORDER BY question_count DESC";
             
-            // Create pie chart
-            ObservableList<PieChart.Data> pieChartData = FXCollections.observableArrayList();
-            
             try (Statement stmt = conn.createStatement();
                  ResultSet rs = stmt.executeQuery(quizBySubjectQuery)) {
                 
                 while (rs.next()) {
-                    String subject = rs.getString("subject");
-                    int count = rs.getInt("question_count");
-                    
-                    pieChartData.add(new PieChart.Data(subject + " (" + count + ")", count));
+                    questionsBySubject.put(rs.getString("subject"), rs.getInt("question_count"));
                 }
             }
-            
-            if (!pieChartData.isEmpty()) {
-                PieChart subjectPieChart = new PieChart(pieChartData);
-                subjectPieChart.setTitle("Quiz Questions per Subject");
-                subjectPieChart.setLabelsVisible(true);
-                
-                content.getChildren().add(subjectPieChart);
-            } else {
-                content.getChildren().add(new Label("No quiz questions found"));
-            }
-            
-        } catch (SQLException e) {
-            Label errorLabel = new Label("Error loading quiz data: " + e.getMessage());
-            errorLabel.setTextFill(Color.web(DANGER_COLOR));
-            content.getChildren().add(errorLabel);
         }
-        
-        card.getChildren().addAll(cardTitle, content);
-        return card;
+        return questionsBySubject;
     }
     
     /**
-     * Creates a card showing instructor statistics
+     * Fills the quiz questions card
      */
-    private VBox createInstructorStatsCard() {
-        VBox card = new VBox();
-        card.setSpacing(15);
-        card.setPadding(new Insets(20));
-        card.setStyle("-fx-background-color: " + CARD_COLOR + "; -fx-background-radius: 8;");
-        
-        // Add drop shadow
-        DropShadow dropShadow = new DropShadow();
-        dropShadow.setRadius(5.0);
-        dropShadow.setOffsetX(0);
-        dropShadow.setOffsetY(2.0);
-        dropShadow.setColor(Color.rgb(0, 0, 0, 0.2));
-        card.setEffect(dropShadow);
-        
-        // Card title
-        Label cardTitle = new Label("4. Instructor Contributions");
-        cardTitle.setFont(Font.font("Arial", FontWeight.BOLD, 20));
-        cardTitle.setTextFill(Color.web(PRIMARY_COLOR));
+    private void renderQuizStats(Map<String, Integer> questionsBySubject, VBox content) {
+        // Create pie chart
+        ObservableList<PieChart.Data> pieChartData = FXCollections.observableArrayList();
+        for (Map.Entry<String, Integer> entry : questionsBySubject.entrySet()) {
+            pieChartData.add(new PieChart.Data(entry.getKey() + " (" + entry.getValue() + ")", entry.getValue()));
+        }
         
-        // Content
-        VBox content = new VBox(10);
+        if (!pieChartData.isEmpty()) {
+            PieChart subjectPieChart = new PieChart(pieChartData);
+            subjectPieChart.setTitle("Quiz Questions per Subject");
+            subjectPieChart.setLabelsVisible(true);
+            
+            content.getChildren().add(subjectPieChart);
+        } else {
+            content.getChildren().add(new Label("No quiz questions found"));
+        }
+    }
+    
+    /**
+     * Loads the number of courses created by each instructor
+     */
+    private List<InstructorContributionData> queryInstructorStats() throws SQLException {
+        List<InstructorContributionData> instructorData = new ArrayList<>();
         
         try (Connection conn = DatabaseConnection.getConnection()) {
             // Instructor contributions query
@@ -405,21 +370,6 @@ public class ReportsPage {
                                                  "GROUP BY u.userID " +
                                                  "ORDER BY course_count DESC";
             
-            // Create table view
-            TableView<InstructorContributionData> instructorTable = new TableView<>();
-            
-            TableColumn<InstructorContributionData, String> instructorColumn = new TableColumn<>("Instructor");
-            instructorColumn.setCellValueFactory(data -> data.getValue().instructorNameProperty());
-            instructorColumn.setPrefWidth(250);
-            
-            TableColumn<InstructorContributionData, Integer> courseCountColumn = new TableColumn<>("Courses Created");
-            courseCountColumn.setCellValueFactory(data -> data.getValue().courseCountProperty().asObject());
-            courseCountColumn.setPrefWidth(150);
-            
-            instructorTable.getColumns().addAll(instructorColumn, courseCountColumn);
-            
-            ObservableList<InstructorContributionData> instructorData = FXCollections.observableArrayList();
-            
             try (Statement stmt = conn.createStatement();
                  ResultSet rs = stmt.executeQuery(instructorContributionsQuery)) {
                 
@@ -430,72 +380,63 @@ public class ReportsPage {
                     instructorData.add(new InstructorContributionData(instructorName, courseCount));
                 }
             }
-            
-            instructorTable.setItems(instructorData);
-            instructorTable.setPrefHeight(250);
-            
-            // Bar chart for visual representation
-            CategoryAxis xAxis = new CategoryAxis();
-            NumberAxis yAxis = new NumberAxis();
-            
-            BarChart<String, Number> contributionChart = new BarChart<>(xAxis, yAxis);
-            contributionChart.setTitle("Number of Courses Created by Each Instructor");
-            xAxis.setLabel("Instructor");
-            yAxis.setLabel("Courses Created");
-            
-            XYChart.Series<String, Number> series = new XYChart.Series<>();
-            series.setName("Courses Created");
-            
-            // Only add top 5 instructors to the chart for clarity
-            int count = 0;
-            for (InstructorContributionData data : instructorData) {
-                if (count < 5) {
-                    series.getData().add(new XYChart.Data<>(data.instructorNameProperty().get(), 
-                                                          data.courseCountProperty().get()));
-                    count++;
-                } else {
-                    break;
-                }
-            }
-            
-            contributionChart.getData().add(series);
-            
-            content.getChildren().addAll(instructorTable, contributionChart);
-            
-        } catch (SQLException e) {
-            Label errorLabel = new Label("Error loading instructor data: " + e.getMessage());
-            errorLabel.setTextFill(Color.web(DANGER_COLOR));
-            content.getChildren().add(errorLabel);
         }
-        
-        card.getChildren().addAll(cardTitle, content);
-        return card;
+        return instructorData;
     }
     
     /**
-     * Creates a card showing assignment statistics
+     * Fills the instructor contributions card
      */
-    private VBox createAssignmentStatsCard() {
-        VBox card = new VBox();
-        card.setSpacing(15);
-        card.setPadding(new Insets(20));
-        card.setStyle("-fx-background-color: " + CARD_COLOR + "; -fx-background-radius: 8;");
-        
-        // Add drop shadow
-        DropShadow dropShadow = new DropShadow();
-        dropShadow.setRadius(5.0);
-        dropShadow.setOffsetX(0);
-        dropShadow.setOffsetY(2.0);
-        dropShadow.setColor(Color.rgb(0, 0, 0, 0.2));
-        card.setEffect(dropShadow);
+    private void renderInstructorStats(List<InstructorContributionData> instructorData, VBox content) {
+        // Create table view
+        TableView<InstructorContributionData> instructorTable = new TableView<>();
+        
+        TableColumn<InstructorContributionData, String> instructorColumn = new TableColumn<>("Instructor");
+        instructorColumn.setCellValueFactory(data -> data.getValue().instructorNameProperty());
+        instructorColumn.setPrefWidth(250);
+        
+        TableColumn<InstructorContributionData, Integer> courseCountColumn = new TableColumn<>("Courses Created");
+        courseCountColumn.setCellValueFactory(data -> data.getValue().courseCountProperty().asObject());
+        courseCountColumn.setPrefWidth(150);
+        
+        instructorTable.getColumns().addAll(instructorColumn, courseCountColumn);
+        instructorTable.setItems(FXCollections.observableArrayList(instructorData));
+        instructorTable.setPrefHeight(250);
+        
+        // Bar chart for visual representation
+        CategoryAxis xAxis = new CategoryAxis();
+        NumberAxis yAxis = new NumberAxis();
+        
+        BarChart<String, Number> contributionChart = new BarChart<>(xAxis, yAxis);
+        contributionChart.setTitle("Number of Courses Created by Each Instructor");
+        xAxis.setLabel("Instructor");
+        yAxis.setLabel("Courses Created");
+        
+        XYChart.Series<String, Number> series = new XYChart.Series<>();
+        series.setName("Courses Created");
+        
+        // Only add top 5 instructors to the chart for clarity
+        int count = 0;
+        for (InstructorContributionData data : instructorData) {
+            if (count < 5) {
+                series.getData().add(new XYChart.Data<>(data.instructorNameProperty().get(), 
+                                                      data.courseCountProperty().get()));
+                count++;
+            } else {
+                break;
+            }
+        }
         
-        // Card title
-        Label cardTitle = new Label("5. Assignments & Deadlines");
-        cardTitle.setFont(Font.font("Arial", FontWeight.BOLD, 20));
-        cardTitle.setTextFill(Color.web(PRIMARY_COLOR));
+        contributionChart.getData().add(series);
         
-        // Content
-        VBox content = new VBox(10);
+        content.getChildren().addAll(instructorTable, contributionChart);
+    }
+    
+    /**
+     * Loads upcoming assignment deadlines and the completion status counts
+     */
+    private AssignmentStats queryAssignmentStats() throws SQLException {
+        AssignmentStats stats = new AssignmentStats();
         
         try (Connection conn = DatabaseConnection.getConnection()) {
             // Upcoming assignments query
@@ -511,56 +452,6 @@ public class ReportsPage {
                                           "FROM AssignmentProgress " +
                                           "GROUP BY status";
             
-            // Create upcoming assignments table
-            Label upcomingLabel = new Label("Upcoming Assignment Deadlines:");
-            upcomingLabel.setFont(Font.font("Arial", FontWeight.BOLD, 16));
-            
-            TableView<UpcomingAssignmentData> assignmentsTable = new TableView<>();
-            
-            TableColumn<UpcomingAssignmentData, String> titleColumn = new TableColumn<>("Assignment");
-            titleColumn.setCellValueFactory(data -> data.getValue().titleProperty());
-            titleColumn.setPrefWidth(200);
-            
-            TableColumn<UpcomingAssignmentData, String> courseColumn = new TableColumn<>("Course");
-            courseColumn.setCellValueFactory(data -> data.getValue().courseProperty());
-            courseColumn.setPrefWidth(150);
-            
-            TableColumn<UpcomingAssignmentData, String> dueDateColumn = new TableColumn<>("Due Date");
-            dueDateColumn.setCellValueFactory(data -> data.getValue().dueDateProperty());
-            dueDateColumn.setPrefWidth(100);
-            
-            TableColumn<UpcomingAssignmentData, String> pointsColumn = new TableColumn<>("Points");
-            pointsColumn.setCellValueFactory(data -> data.getValue().pointsProperty());
-            pointsColumn.setPrefWidth(70);
-            
-            TableColumn<UpcomingAssignmentData, String> priorityColumn = new TableColumn<>("Priority");
-            priorityColumn.setCellValueFactory(data -> data.getValue().priorityProperty());
-            priorityColumn.setPrefWidth(80);
-            priorityColumn.setCellFactory(column -> new TableCell<UpcomingAssignmentData, String>() {
-                @Override
-                protected void updateItem(String item, boolean empty) {
-                    super.updateItem(item, empty);
-                    if (empty || item == null) {
-                        setText(null);
-                        setStyle("");
-                    } else {
-                        setText(item);
-                        if (item.equalsIgnoreCase("High")) {
-                            setTextFill(Color.web(DANGER_COLOR));
-                            setStyle("-fx-font-weight: bold;");
-                        } else if (item.equalsIgnoreCase("Medium")) {
-                            setTextFill(Color.web(WARNING_COLOR));
-                        } else {
-                            setTextFill(Color.web(SECONDARY_COLOR));
-                        }
-                    }
-                }
-            });
-            
-            assignmentsTable.getColumns().addAll(titleColumn, courseColumn, dueDateColumn, pointsColumn, priorityColumn);
-            
-            ObservableList<UpcomingAssignmentData> assignmentData = FXCollections.observableArrayList();
-            
             try (Statement stmt = conn.createStatement();
                  ResultSet rs = stmt.executeQuery(upcomingAssignmentsQuery)) {
                 
@@ -573,45 +464,90 @@ public class ReportsPage {
                     String points = rs.getString("points");
                     String priority = rs.getString("priority");
                     
-                    assignmentData.add(new UpcomingAssignmentData(
+                    stats.upcoming.add(new UpcomingAssignmentData(
                         title, courseName, dueDate.format(formatter), points, priority));
                 }
             }
             
-            assignmentsTable.setItems(assignmentData);
-            assignmentsTable.setPrefHeight(250);
-            
-            // Assignment status pie chart
-            Label statusLabel = new Label("Assignment Completion Status:");
-            statusLabel.setFont(Font.font("Arial", FontWeight.BOLD, 16));
-            
-            ObservableList<PieChart.Data> pieChartData = FXCollections.observableArrayList();
-            
             try (Statement stmt = conn.createStatement();
                  ResultSet rs = stmt.executeQuery(assignmentStatusQuery)) {
                 
                 while (rs.next()) {
-                    String status = rs.getString("status");
-                    int count = rs.getInt("count");
-                    
-                    pieChartData.add(new PieChart.Data(status + " (" + count + ")", count));
+                    stats.statusCounts.put(rs.getString("status"), rs.getInt("count"));
                 }
             }
-            
-            PieChart statusChart = new PieChart(pieChartData);
-            statusChart.setTitle("Assignment Status Distribution");
-            statusChart.setLabelsVisible(true);
-            
-            content.getChildren().addAll(upcomingLabel, assignmentsTable, statusLabel, statusChart);
-            
-        } catch (SQLException e) {
-            Label errorLabel = new Label("Error loading assignment data: " + e.getMessage());
-            errorLabel.setTextFill(Color.web(DANGER_COLOR));
-            content.getChildren().add(errorLabel);
         }
+        return stats;
+    }
+    
+    /**
+     * Fills the assignments and deadlines card
+     */
+    private void renderAssignmentStats(AssignmentStats stats, VBox content) {
+        // Create upcoming assignments table
+        Label upcomingLabel = new Label("Upcoming Assignment Deadlines:");
+        upcomingLabel.setFont(Font.font("Arial", FontWeight.BOLD, 16));
+        
+        TableView<UpcomingAssignmentData> assignmentsTable = new TableView<>();
+        
+        TableColumn<UpcomingAssignmentData, String> titleColumn = new TableColumn<>("Assignment");
+        titleColumn.setCellValueFactory(data -> data.getValue().titleProperty());
+        titleColumn.setPrefWidth(200);
+        
+        TableColumn<UpcomingAssignmentData, String> courseColumn = new TableColumn<>("Course");
+        courseColumn.setCellValueFactory(data -> data.getValue().courseProperty());
+        courseColumn.setPrefWidth(150);
+        
+        TableColumn<UpcomingAssignmentData, String> dueDateColumn = new TableColumn<>("Due Date");
+        dueDateColumn.setCellValueFactory(data -> data.getValue().dueDateProperty());
+        dueDateColumn.setPrefWidth(100);
+        
+        TableColumn<UpcomingAssignmentData, String> pointsColumn = new TableColumn<>("Points");
+        pointsColumn.setCellValueFactory(data -> data.getValue().pointsProperty());
+        pointsColumn.setPrefWidth(70);
+        
+        TableColumn<UpcomingAssignmentData, String> priorityColumn = new TableColumn<>("Priority");
+        priorityColumn.setCellValueFactory(data -> data.getValue().priorityProperty());
+        priorityColumn.setPrefWidth(80);
+        priorityColumn.setCellFactory(column -> new TableCell<UpcomingAssignmentData, String>() {
+            @Override
+            protected void updateItem(String item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty || item == null) {
+                    setText(null);
+                    setStyle("");
+                } else {
+                    setText(item);
+                    if (item.equalsIgnoreCase("High")) {
+                        setTextFill(Color.web(DANGER_COLOR));
+                        setStyle("-fx-font-weight: bold;");
+                    } else if (item.equalsIgnoreCase("Medium")) {
+                        setTextFill(Color.web(WARNING_COLOR));
+                    } else {
+                        setTextFill(Color.web(SECONDARY_COLOR));
+                    }
+                }
+            }
+        });
         
-        card.getChildren().addAll(cardTitle, content);
-        return card;
+        assignmentsTable.getColumns().addAll(titleColumn, courseColumn, dueDateColumn, pointsColumn, priorityColumn);
+        assignmentsTable.setItems(FXCollections.observableArrayList(stats.upcoming));
+        assignmentsTable.setPrefHeight(250);
+        
+        // Assignment status pie chart
+        Label statusLabel = new Label("Assignment Completion Status:");
+        statusLabel.setFont(Font.font("Arial", FontWeight.BOLD, 16));
+        
+        ObservableList<PieChart.Data> pieChartData = FXCollections.observableArrayList();
+        for (Map.Entry<String, Integer> entry : stats.statusCounts.entrySet()) {
+            pieChartData.add(new PieChart.Data(entry.getKey() + " (" + entry.getValue() + ")", entry.getValue()));
+        }
+        
+        PieChart statusChart = new PieChart(pieChartData);
+        statusChart.setTitle("Assignment Status Distribution");
+        statusChart.setLabelsVisible(true);
+        
+        content.getChildren().addAll(upcomingLabel, assignmentsTable, statusLabel, statusChart);
     }
     
     /**
@@ -635,6 +571,33 @@ public class ReportsPage {
         return box;
     }
     
+    /**
+     * Query results for the user statistics card
+     */
+    private static class UserStats {
+        private int totalUsers;
+        private int adminCount;
+        private int instructorCount;
+        private int studentCount;
+    }
+    
+    /**
+     * Query results for the course analytics card
+     */
+    private static class CourseStats {
+        private int totalCourses;
+        private final List<CoursePerInstructorData> coursesPerInstructor = new ArrayList<>();
+        private final Map<String, Integer> enrollmentsPerCourse = new LinkedHashMap<>();
+    }
+    
+    /**
+     * Query results for the assignments card
+     */
+    private static class AssignmentStats {
+        private final List<UpcomingAssignmentData> upcoming = new ArrayList<>();
+        private final Map<String, Integer> statusCounts = new LinkedHashMap<>();
+    }
+    
     /**
      * Data class for courses per instructor
      */
@@ -1,10 +1,12 @@
 package controllers_Admin;
 
 import dao.DatabaseConnection;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
@@ -17,9 +19,21 @@ import javafx.scene.shape.Circle;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.stage.Modality;
-import org.mindrot.jbcrypt.BCrypt;
+import javafx.util.Duration;
+import services.BackgroundLoader;
+import services.CourseCatalog;
+import services.PasswordHasher;
+import services.UserSearchIndex;
 
 import java.sql.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
 
 /**
  * User Management page for admin operations on users
@@ -30,8 +44,19 @@ public class UserManagementPage {
     private TableView<UserData> usersTable;
     private TextField searchField;
     private ComboBox<String> roleFilter;
-    private ObservableList<UserData> masterData = FXCollections.observableArrayList();
-    private FilteredList<UserData> filteredData;
+    private Button prevBtn;
+    private Button nextBtn;
+    private Label pageInfo;
+
+    // Keyset pagination: a page is the next PAGE_SIZE users after a given userID
+    private static final int PAGE_SIZE = 25;
+    private static final Duration SEARCH_DEBOUNCE = Duration.millis(200);
+    private final ObservableList<UserData> pageData = FXCollections.observableArrayList();
+    private final Deque<Integer> pageCursors = new ArrayDeque<>(); // userID each visited page starts after
+    private UserPage currentPage;
+    private UserPage prefetchedPage;
+    private Task<UserPage> pageLoad;
+    private Map<String, Integer> roleCounts;
 
     // Color constants for UI
     private static final String PRIMARY_COLOR = "#3498db";
@@ -67,9 +92,16 @@ public class UserManagementPage {
         // Add everything to the main view
         view.getChildren().addAll(header, statsCards, searchCard, tableCard);
 
-        // Load data from database
+        // Load the first page and the stats counts from the database
+        pageCursors.push(0);
         loadUsersFromDatabase();
 
+        // Build the search index now so the first search does not wait for it
+        BackgroundLoader.load(view, () -> {
+            UserSearchIndex.ensureLoaded();
+            return null;
+        }, ignored -> { });
+
         return view;
     }
 
@@ -205,8 +237,11 @@ public class UserManagementPage {
         searchField.setPromptText("Search by username or email...");
         searchField.setPrefWidth(300);
         searchField.setPadding(new Insets(8));
+        // Search as you type, once typing pauses
+        PauseTransition searchDebounce = new PauseTransition(SEARCH_DEBOUNCE);
+        searchDebounce.setOnFinished(e -> filterData());
         searchField.textProperty().addListener((obs, oldValue, newValue) -> {
-            filterData();
+            searchDebounce.playFromStart();
         });
 
         roleFilter = new ComboBox<>();
@@ -380,9 +415,8 @@ public class UserManagementPage {
 
         table.getColumns().addAll(idCol, usernameCol, emailCol, roleCol, actionsCol);
 
-        // Initialize filtered list
-        filteredData = new FilteredList<>(masterData, p -> true);
-        table.setItems(filteredData);
+        // Holds only the current page; filtering is done by the database
+        table.setItems(pageData);
 
         return table;
     }
@@ -395,7 +429,7 @@ public class UserManagementPage {
         pagination.setPadding(new Insets(10, 0, 0, 0));
         pagination.setAlignment(Pos.CENTER);
 
-        Button prevBtn = new Button("◄ Previous");
+        prevBtn = new Button("◄ Previous");
         prevBtn.setStyle(
                 "-fx-background-color: transparent;" +
                 "-fx-text-fill: " + PRIMARY_COLOR + ";" +
@@ -403,12 +437,13 @@ public class UserManagementPage {
                 "-fx-border-radius: 4;"
         );
         prevBtn.setPadding(new Insets(5, 15, 5, 15));
+        prevBtn.setOnAction(e -> showPreviousPage());
 
-        Label pageInfo = new Label("Page 1 of 1");
+        pageInfo = new Label("Page 1");
         pageInfo.setFont(Font.font("Arial", 14));
         pageInfo.setTextFill(Color.web(TEXT_COLOR));
 
-        Button nextBtn = new Button("Next ►");
+        nextBtn = new Button("Next ►");
         nextBtn.setStyle(
                 "-fx-background-color: transparent;" +
                 "-fx-text-fill: " + PRIMARY_COLOR + ";" +
@@ -416,10 +451,11 @@ public class UserManagementPage {
                 "-fx-border-radius: 4;"
         );
         nextBtn.setPadding(new Insets(5, 15, 5, 15));
+        nextBtn.setOnAction(e -> showNextPage());
 
         pagination.getChildren().addAll(prevBtn, pageInfo, nextBtn);
 
-        // Disable buttons for now since pagination is not fully implemented
+        // Enabled once the first page has loaded
         prevBtn.setDisable(true);
         nextBtn.setDisable(true);
 
@@ -427,86 +463,210 @@ public class UserManagementPage {
     }
 
     /**
-     * Filter table data based on search text and role filter
+     * Filter table data based on search text and role filter.
+     * Filtering happens in the database, so this restarts paging from the first page.
      */
     private void filterData() {
-        String searchText = searchField.getText().toLowerCase();
-        String role = roleFilter.getValue();
+        pageCursors.clear();
+        pageCursors.push(0);
+        showPage(0);
+    }
 
-        filteredData.setPredicate(user -> {
-            // If text field is empty and role is "All Roles", show all users
-            if ((searchText == null || searchText.isEmpty()) && 
-                (role == null || role.equals("All Roles"))) {
-                return true;
-            }
+    /**
+     * Reload the current page and the stats counts, e.g. after a user was added or edited
+     */
+    private void loadUsersFromDatabase() {
+        prefetchedPage = null;
+        BackgroundLoader.load(usersTable, this::queryRoleCounts, counts -> {
+            roleCounts = counts;
+            updateStatsCounts();
+            updatePageInfo();
+        }, e -> showErrorDialog("Database Error", "Failed to load user counts", e.getMessage()));
+        showPage(pageCursors.peek());
+    }
 
-            // Filter by role if needed
-            if (role != null && !role.equals("All Roles") && 
-                !user.getRole().equalsIgnoreCase(role)) {
-                return false;
-            }
+    private void showNextPage() {
+        if (currentPage == null || !currentPage.hasNext) {
+            return;
+        }
+        pageCursors.push(currentPage.lastUserId());
+        showPage(pageCursors.peek());
+    }
 
-            // Filter by search text
-            if (searchText != null && !searchText.isEmpty()) {
-                return user.getUsername().toLowerCase().contains(searchText) ||
-                       user.getEmail().toLowerCase().contains(searchText);
-            }
+    private void showPreviousPage() {
+        if (pageCursors.size() <= 1) {
+            return;
+        }
+        pageCursors.pop();
+        showPage(pageCursors.peek());
+    }
+
+    /**
+     * Show the page of users that comes after afterUserId for the current filter.
+     * Uses the prefetched page when it matches, otherwise loads it in the background.
+     */
+    private void showPage(int afterUserId) {
+        UserFilter filter = currentFilter();
+        if (pageLoad != null) {
+            pageLoad.cancel();
+        }
+        prevBtn.setDisable(true);
+        nextBtn.setDisable(true);
+
+        UserPage prefetched = prefetchedPage;
+        prefetchedPage = null;
+        if (prefetched != null && prefetched.afterUserId == afterUserId && prefetched.filter.equals(filter)) {
+            applyPage(prefetched);
+            return;
+        }
 
-            return true;
+        pageData.clear();
+        usersTable.setPlaceholder(BackgroundLoader.skeleton(8));
+        pageLoad = BackgroundLoader.load(usersTable, () -> queryPage(filter, afterUserId), this::applyPage, e -> {
+            usersTable.setPlaceholder(BackgroundLoader.errorLabel(e));
+            showErrorDialog("Database Error", "Failed to load users from database", e.getMessage());
         });
+    }
 
-        updateStatsCounts();
+    private void applyPage(UserPage page) {
+        currentPage = page;
+        usersTable.setPlaceholder(new Label("No users found"));
+        pageData.setAll(page.users);
+        prevBtn.setDisable(pageCursors.size() <= 1);
+        nextBtn.setDisable(!page.hasNext);
+        updatePageInfo();
+
+        // Load the next page ahead of time so Next responds instantly
+        if (page.hasNext) {
+            int nextAfter = page.lastUserId();
+            BackgroundLoader.load(usersTable, () -> queryPage(page.filter, nextAfter), next -> {
+                if (currentPage == page) {
+                    prefetchedPage = next;
+                }
+            });
+        }
+    }
+
+    private void updatePageInfo() {
+        String text = "Page " + pageCursors.size();
+        int matching = countMatching(currentFilter());
+        if (matching >= 0) {
+            text += " of " + Math.max(1, (matching + PAGE_SIZE - 1) / PAGE_SIZE);
+        }
+        pageInfo.setText(text);
+    }
+
+    // Number of users matching the filter, or -1 when only a search query could tell
+    private int countMatching(UserFilter filter) {
+        if (roleCounts == null || !filter.searchText.isEmpty()) {
+            return -1;
+        }
+        if (filter.role == null) {
+            int total = 0;
+            for (int count : roleCounts.values()) {
+                total += count;
+            }
+            return total;
+        }
+        return roleCounts.getOrDefault(filter.role.toLowerCase(), 0);
+    }
+
+    private UserFilter currentFilter() {
+        String role = roleFilter.getValue();
+        return new UserFilter(
+                role == null || role.equals("All Roles") ? null : role,
+                searchField.getText() == null ? "" : searchField.getText().trim());
     }
 
     /**
-     * Load users from database using DatabaseConnection class
+     * Page through search results from the in-memory index instead of the database
      */
-    private void loadUsersFromDatabase() {
-        masterData.clear();
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            String query = "SELECT userID, username, email, role FROM Users";
-            try (Statement stmt = conn.createStatement();
-                 ResultSet rs = stmt.executeQuery(query)) {
+    private UserPage searchPage(UserFilter filter, int afterUserId) throws SQLException {
+        List<UserData> users = new ArrayList<>();
+        for (UserSearchIndex.Entry entry : UserSearchIndex.search(filter.searchText, filter.role, afterUserId, PAGE_SIZE + 1)) {
+            users.add(new UserData(String.valueOf(entry.getUserId()), entry.getUsername(),
+                    entry.getEmail(), entry.getRole()));
+        }
+
+        boolean hasNext = users.size() > PAGE_SIZE;
+        if (hasNext) {
+            users.remove(PAGE_SIZE);
+        }
+        return new UserPage(filter, afterUserId, users, hasNext);
+    }
+
+    /**
+     * Fetch one page of users after afterUserId. One extra row is read to tell
+     * whether another page follows. Seeking on userID keeps every page as cheap
+     * as the first one, however far the admin pages in.
+     */
+    private UserPage queryPage(UserFilter filter, int afterUserId) throws SQLException {
+        if (!filter.searchText.isEmpty()) {
+            return searchPage(filter, afterUserId);
+        }
+
+        StringBuilder query = new StringBuilder(
+                "SELECT userID, username, email, role FROM Users WHERE userID > ?");
+        if (filter.role != null) {
+            query.append(" AND role = ?");
+        }
+        query.append(" ORDER BY userID LIMIT ?");
+
+        List<UserData> users = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query.toString())) {
+            int index = 1;
+            pstmt.setInt(index++, afterUserId);
+            if (filter.role != null) {
+                pstmt.setString(index++, filter.role);
+            }
+            pstmt.setInt(index, PAGE_SIZE + 1);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    UserData user = new UserData(
+                    users.add(new UserData(
                             rs.getString("userID"),
                             rs.getString("username"),
                             rs.getString("email"),
                             rs.getString("role")
-                    );
-                    masterData.add(user);
+                    ));
                 }
             }
-            updateStatsCounts();
-        } catch (SQLException e) {
-            showErrorDialog("Database Error", "Failed to load users from database", e.getMessage());
-            e.printStackTrace();
         }
+
+        boolean hasNext = users.size() > PAGE_SIZE;
+        if (hasNext) {
+            users.remove(PAGE_SIZE);
+        }
+        return new UserPage(filter, afterUserId, users, hasNext);
     }
 
     /**
-     * Update the counts in the stats cards
+     * Count users per role, keyed by lower-case role name
      */
-    private void updateStatsCounts() {
-        int totalCount = 0;
-        int studentCount = 0;
-        int instructorCount = 0;
-        int adminCount = 0;
-
-        for (UserData user : masterData) {
-            totalCount++;
-            switch (user.getRole().toLowerCase()) {
-                case "student":
-                    studentCount++;
-                    break;
-                case "instructor":
-                    instructorCount++;
-                    break;
-                case "admin":
-                    adminCount++;
-                    break;
+    private Map<String, Integer> queryRoleCounts() throws SQLException {
+        Map<String, Integer> counts = new HashMap<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT role, COUNT(*) AS count FROM Users GROUP BY role")) {
+            while (rs.next()) {
+                String role = rs.getString("role");
+                if (role != null) {
+                    counts.merge(role.toLowerCase(), rs.getInt("count"), Integer::sum);
+                }
             }
         }
+        return counts;
+    }
+
+    /**
+     * Update the counts in the stats cards
+     */
+    private void updateStatsCounts() {
+        int studentCount = roleCounts.getOrDefault("student", 0);
+        int instructorCount = roleCounts.getOrDefault("instructor", 0);
+        int adminCount = roleCounts.getOrDefault("admin", 0);
+        int totalCount = countMatching(new UserFilter(null, ""));
 
         // Update the labels using the ID we assigned earlier
         Scene scene = usersTable.getScene();
@@ -607,11 +767,13 @@ public class UserManagementPage {
                         throw new IllegalArgumentException("All fields are required");
                     }
 
-                    // Add user to database
-                    if (addUserToDatabase(username, email, password, role)) {
-                        loadUsersFromDatabase(); // Refresh the data
-                        return new UserData("0", username, email, role);
-                    }
+                    // Add user to database once the password is hashed
+                    withHashedPassword(password, hashedPassword -> {
+                        if (addUserToDatabase(username, email, hashedPassword, role)) {
+                            loadUsersFromDatabase(); // Refresh the data
+                        }
+                    });
+                    return new UserData("0", username, email, role);
                 } catch (Exception e) {
                     showErrorDialog("Input Error", "Invalid input", e.getMessage());
                 }
@@ -700,11 +862,13 @@ public class UserManagementPage {
                         throw new IllegalArgumentException("All fields are required");
                     }
 
-                    // Add instructor to database
-                    if (addUserToDatabase(username, email, password, "Instructor")) {
-                        loadUsersFromDatabase(); // Refresh the data
-                        return new UserData("0", username, email, "Instructor");
-                    }
+                    // Add instructor to database once the password is hashed
+                    withHashedPassword(password, hashedPassword -> {
+                        if (addUserToDatabase(username, email, hashedPassword, "Instructor")) {
+                            loadUsersFromDatabase(); // Refresh the data
+                        }
+                    });
+                    return new UserData("0", username, email, "Instructor");
                 } catch (Exception e) {
                     showErrorDialog("Input Error", "Invalid input", e.getMessage());
                 }
@@ -871,10 +1035,10 @@ public class UserManagementPage {
                         throw new IllegalArgumentException("Passwords do not match");
                     }
 
-                    // Reset password in database
-                    if (resetPasswordInDatabase(user.getId(), newPassword)) {
-                        return newPassword;
-                    }
+                    // Reset password in database once the new one is hashed
+                    withHashedPassword(newPassword,
+                            hashedPassword -> resetPasswordInDatabase(user.getId(), hashedPassword));
+                    return newPassword;
                 } catch (Exception e) {
                     showErrorDialog("Input Error", "Invalid input", e.getMessage());
                 }
@@ -885,18 +1049,28 @@ public class UserManagementPage {
         dialog.showAndWait();
     }
 
+    /**
+     * Hash a password on the hashing workers, then continue on the FX thread
+     */
+    private void withHashedPassword(String password, Consumer<String> action) {
+        PasswordHasher.hash(password).whenComplete((hashedPassword, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                showErrorDialog("Error", "Failed to hash password", error.getMessage());
+            } else {
+                action.accept(hashedPassword);
+            }
+        }));
+    }
+
     /**
      * Add a new user to the database
      */
-    private boolean addUserToDatabase(String username, String email, String password, String role) {
+    private boolean addUserToDatabase(String username, String email, String hashedPassword, String role) {
         Connection conn = null;
         try {
             conn = DatabaseConnection.getConnection();
             conn.setAutoCommit(false); // Start transaction
 
-            // Hash the password using BCrypt
-            String hashedPassword = BCrypt.hashpw(password, BCrypt.gensalt());
-
             // Insert into Users table with correct column name 'passwordHash'
             String userQuery = "INSERT INTO Users (username, email, passwordHash, role) VALUES (?, ?, ?, ?)";
             try (PreparedStatement pstmt = conn.prepareStatement(userQuery, Statement.RETURN_GENERATED_KEYS)) {
@@ -923,6 +1097,7 @@ public class UserManagementPage {
                             insertAdmin(conn, userId);
                         }
                         conn.commit(); // Commit transaction
+                        UserSearchIndex.put(userId, username, email, role);
                         return true;
                     } else {
                         throw new SQLException("Creating user failed, no ID obtained.");
@@ -1046,6 +1221,9 @@ public class UserManagementPage {
                 }
 
                 conn.commit(); // Commit transaction
+                UserSearchIndex.put(Integer.parseInt(userId), username, email, role);
+                // Course cards show instructor names and student counts
+                CourseCatalog.invalidate();
                 return true;
             }
         } catch (SQLException e) {
@@ -1130,11 +1308,8 @@ public class UserManagementPage {
     /**
      * Reset a user's password in the database
      */
-    private boolean resetPasswordInDatabase(String userId, String newPassword) {
+    private boolean resetPasswordInDatabase(String userId, String hashedPassword) {
         try (Connection conn = DatabaseConnection.getConnection()) {
-            // Hash the new password using BCrypt
-            String hashedPassword = BCrypt.hashpw(newPassword, BCrypt.gensalt());
-            
             String query = "UPDATE Users SET passwordHash = ? WHERE userID = ?";
             try (PreparedStatement pstmt = conn.prepareStatement(query)) {
                 pstmt.setString(1, hashedPassword); // Using the hashed password
@@ -1163,6 +1338,52 @@ public class UserManagementPage {
         alert.showAndWait();
     }
 
+    /**
+     * Role and search text a page was loaded with; null role means all roles
+     */
+    private static final class UserFilter {
+        private final String role;
+        private final String searchText;
+
+        UserFilter(String role, String searchText) {
+            this.role = role;
+            this.searchText = searchText;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof UserFilter)) return false;
+            UserFilter other = (UserFilter) o;
+            return Objects.equals(role, other.role) && searchText.equals(other.searchText);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(role, searchText);
+        }
+    }
+
+    /**
+     * One page of users plus the cursor and filter it was loaded with
+     */
+    private static final class UserPage {
+        private final UserFilter filter;
+        private final int afterUserId;
+        private final List<UserData> users;
+        private final boolean hasNext;
+
+        UserPage(UserFilter filter, int afterUserId, List<UserData> users, boolean hasNext) {
+            this.filter = filter;
+            this.afterUserId = afterUserId;
+            this.users = users;
+            this.hasNext = hasNext;
+        }
+
+        int lastUserId() {
+            return users.isEmpty() ? afterUserId : Integer.parseInt(users.get(users.size() - 1).getId());
+        }
+    }
+
     /**
      * User data model class with JavaFX properties for TableView
      */
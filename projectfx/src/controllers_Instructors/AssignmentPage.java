@@ -1,13 +1,20 @@
 package controllers_Instructors;
 
+import java.math.BigDecimal;
 import java.sql.*;
 import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -23,6 +30,11 @@ import javafx.scene.text.FontWeight;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import dao.DatabaseConnection;
+import controllers_students.Login;
+import controllers_students.User;
+import services.AssignmentGrader;
+import services.BackgroundLoader;
+import services.SubmissionContent;
 
 public class AssignmentPage {
     public static class Assignment {
@@ -34,12 +46,26 @@ public class AssignmentPage {
         private final StringProperty points;
         private final StringProperty priority;
         private final ObjectProperty<Date> createdAt;
+        // Filled in when read with getAssignmentsPage
+        private final String courseName;
+        private final int studentCount;
+        private final int startedCount;
+        private final int completedCount;
         
         /**
          * Constructs a new Assignment with all fields
          */
         public Assignment(int assignmentId, int courseId, String title, String description, 
                          Date dueDate, String points, String priority, Date createdAt) {
+            this(assignmentId, courseId, title, description, dueDate, points, priority, createdAt, null, 0, 0, 0);
+        }
+        
+        /**
+         * Constructs an Assignment together with its course name and submission counts
+         */
+        public Assignment(int assignmentId, int courseId, String title, String description,
+                         Date dueDate, String points, String priority, Date createdAt,
+                         String courseName, int studentCount, int startedCount, int completedCount) {
             this.assignmentId = new SimpleIntegerProperty(assignmentId);
             this.courseId = new SimpleIntegerProperty(courseId);
             this.title = new SimpleStringProperty(title);
@@ -48,6 +74,10 @@ public class AssignmentPage {
             this.points = new SimpleStringProperty(points);
             this.priority = new SimpleStringProperty(priority);
             this.createdAt = new SimpleObjectProperty<>(createdAt);
+            this.courseName = courseName;
+            this.studentCount = studentCount;
+            this.startedCount = startedCount;
+            this.completedCount = completedCount;
         }
         
         // Getters and setters
@@ -82,27 +112,47 @@ public class AssignmentPage {
         public Date getCreatedAt() { return createdAt.get(); }
         public ObjectProperty<Date> createdAtProperty() { return createdAt; }
         public void setCreatedAt(Date createdAt) { this.createdAt.set(createdAt); }
+        
+        public String getCourseName() { return courseName; }
+        // Students enrolled in the course, and how many of them started or completed the assignment
+        public int getStudentCount() { return studentCount; }
+        public int getStartedCount() { return startedCount; }
+        public int getCompletedCount() { return completedCount; }
     }
     
     /**
      * Class representing a student assignment submission
      */
     public static class StudentSubmission {
+        private final int assignmentId;
         private final IntegerProperty studentId;
         private final StringProperty studentName;
         private final StringProperty status;
-        private final StringProperty content;
+        // Only a description of the text; getAssignmentSubmissionContent() fetches it
+        private final IntegerProperty contentSize;
+        private final String contentHash;
+        private final StringProperty contentSnippet;
+        private final ObjectProperty<BigDecimal> score;
+        private final String feedback;
         private final ObjectProperty<Date> lastUpdated;
         
-        public StudentSubmission(int studentId, String studentName, String status, 
-                                String content, Date lastUpdated) {
+        public StudentSubmission(int assignmentId, int studentId, String studentName, String status,
+                                int contentSize, String contentHash, String contentSnippet,
+                                BigDecimal score, String feedback, Date lastUpdated) {
+            this.assignmentId = assignmentId;
             this.studentId = new SimpleIntegerProperty(studentId);
             this.studentName = new SimpleStringProperty(studentName);
             this.status = new SimpleStringProperty(status);
-            this.content = new SimpleStringProperty(content);
+            this.contentSize = new SimpleIntegerProperty(contentSize);
+            this.contentHash = contentHash;
+            this.contentSnippet = new SimpleStringProperty(contentSnippet);
+            this.score = new SimpleObjectProperty<>(score);
+            this.feedback = feedback;
             this.lastUpdated = new SimpleObjectProperty<>(lastUpdated);
         }
         
+        public int getAssignmentId() { return assignmentId; }
+        
         public int getStudentId() { return studentId.get(); }
         public IntegerProperty studentIdProperty() { return studentId; }
         
@@ -112,8 +162,20 @@ public class AssignmentPage {
         public String getStatus() { return status.get(); }
         public StringProperty statusProperty() { return status; }
         
-        public String getContent() { return content.get(); }
-        public StringProperty contentProperty() { return content; }
+        public int getContentSize() { return contentSize.get(); }
+        public IntegerProperty contentSizeProperty() { return contentSize; }
+        
+        // Null when nothing was submitted
+        public String getContentHash() { return contentHash; }
+        
+        public String getContentSnippet() { return contentSnippet.get(); }
+        public StringProperty contentSnippetProperty() { return contentSnippet; }
+        
+        // Null until graded
+        public BigDecimal getScore() { return score.get(); }
+        public ObjectProperty<BigDecimal> scoreProperty() { return score; }
+        
+        public String getFeedback() { return feedback; }
         
         public Date getLastUpdated() { return lastUpdated.get(); }
         public ObjectProperty<Date> lastUpdatedProperty() { return lastUpdated; }
@@ -125,29 +187,66 @@ public class AssignmentPage {
      */
     public static class AssignmentDAO {
         /**
-         * Retrieve all assignments from the database
+         * Retrieve one page of assignments ordered by due date, with per-assignment counts.
+         * createdBy and courseId narrow the list when not null; after is the last row of the
+         * previous page, or null for the first page.
          */
-        public List<Assignment> getAllAssignments() {
+        public List<Assignment> getAssignmentsPage(Integer createdBy, Integer courseId, PageKey after,
+                                                   int limit) throws SQLException {
+            // The counts are subqueries per returned row, so a page costs the same however many rows match
+            StringBuilder query = new StringBuilder(
+                "SELECT a.assignmentID, a.courseID, a.title, a.description, a.dueDate, a.points, " +
+                "a.priority, a.createdAt, c.courseName, " +
+                "(SELECT COUNT(*) FROM Enrollments e WHERE e.courseID = a.courseID) AS studentCount, " +
+                "(SELECT COUNT(*) FROM AssignmentProgress ap WHERE ap.assignmentID = a.assignmentID " +
+                "AND ap.status <> 'Not started') AS startedCount, " +
+                "(SELECT COUNT(*) FROM AssignmentProgress ap WHERE ap.assignmentID = a.assignmentID " +
+                "AND ap.status = 'Completed') AS completedCount " +
+                "FROM Assignments a " +
+                "JOIN Courses c ON c.courseID = a.courseID " +
+                "WHERE 1 = 1");
+            List<Object> params = new ArrayList<>();
+            if (createdBy != null) {
+                query.append(" AND c.createdBy = ?");
+                params.add(createdBy);
+            }
+            if (courseId != null) {
+                query.append(" AND a.courseID = ?");
+                params.add(courseId);
+            }
+            if (after != null) {
+                query.append(" AND (a.dueDate > ? OR (a.dueDate = ? AND a.assignmentID > ?))");
+                params.add(after.getDueDate());
+                params.add(after.getDueDate());
+                params.add(after.getAssignmentId());
+            }
+            query.append(" ORDER BY a.dueDate, a.assignmentID LIMIT ?");
+            params.add(limit);
+            
             List<Assignment> assignments = new ArrayList<>();
-            String query = "SELECT * FROM Assignments ORDER BY dueDate";
             try (Connection conn = DatabaseConnection.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(query);
-                 ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    Assignment assignment = new Assignment(
-                        rs.getInt("assignmentID"),
-                        rs.getInt("courseID"),
-                        rs.getString("title"),
-                        rs.getString("description"),
-                        rs.getDate("dueDate"),
-                        rs.getString("points"),
-                        rs.getString("priority"),
-                        rs.getTimestamp("createdAt")
-                    );
-                    assignments.add(assignment);
+                 PreparedStatement stmt = conn.prepareStatement(query.toString())) {
+                for (int i = 0; i < params.size(); i++) {
+                    stmt.setObject(i + 1, params.get(i));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        assignments.add(new Assignment(
+                            rs.getInt("assignmentID"),
+                            rs.getInt("courseID"),
+                            rs.getString("title"),
+                            rs.getString("description"),
+                            rs.getDate("dueDate"),
+                            rs.getString("points"),
+                            rs.getString("priority"),
+                            rs.getTimestamp("createdAt"),
+                            rs.getString("courseName"),
+                            rs.getInt("studentCount"),
+                            rs.getInt("startedCount"),
+                            rs.getInt("completedCount")
+                        ));
+                    }
                 }
-            } catch (SQLException e) {
-                System.err.println("Error retrieving assignments: " + e.getMessage());
             }
             return assignments;
         }
@@ -200,20 +299,26 @@ public class AssignmentPage {
         }
         
         /**
-         * Get all courses for the dropdown
+         * Get the courses for the dropdowns, only those created by createdBy when it is not null
          */
-        public List<Course> getAllCourses() {
+        public List<Course> getCourses(Integer createdBy) {
             List<Course> courses = new ArrayList<>();
-            String query = "SELECT courseID, courseName FROM Courses";
+            String query = createdBy != null
+                ? "SELECT courseID, courseName FROM Courses WHERE createdBy = ? ORDER BY courseName"
+                : "SELECT courseID, courseName FROM Courses ORDER BY courseName";
             try (Connection conn = DatabaseConnection.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(query);
-                 ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    Course course = new Course(
-                        rs.getInt("courseID"),
-                        rs.getString("courseName")
-                    );
-                    courses.add(course);
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+                if (createdBy != null) {
+                    stmt.setInt(1, createdBy);
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Course course = new Course(
+                            rs.getInt("courseID"),
+                            rs.getString("courseName")
+                        );
+                        courses.add(course);
+                    }
                 }
             } catch (SQLException e) {
                 System.err.println("Error retrieving courses: " + e.getMessage());
@@ -241,13 +346,14 @@ public class AssignmentPage {
         }
         
         /**
-         * Get all student submissions for an assignment
+         * Get all student submissions for an assignment, described by size, hash and snippet
+         * rather than their full text
          */
         public List<StudentSubmission> getAssignmentSubmissions(int assignmentId) {
             List<StudentSubmission> submissions = new ArrayList<>();
             String query = 
                 "SELECT s.studentID, u.username as studentName, " +
-                "ap.status, ap.content, ap.lastUpdated " +
+                "ap.status, ap.contentSize, ap.contentHash, ap.contentSnippet, ap.score, ap.feedback, ap.lastUpdated " +
                 "FROM Students s " +
                 "JOIN Users u ON s.userID = u.userID " +
                 "JOIN Enrollments e ON s.studentID = e.studentID " +
@@ -267,10 +373,15 @@ public class AssignmentPage {
                         }
                         
                         StudentSubmission submission = new StudentSubmission(
+                            assignmentId,
                             rs.getInt("studentID"),
                             rs.getString("studentName"),
                             status,
-                            rs.getString("content"),
+                            rs.getInt("contentSize"),
+                            rs.getString("contentHash"),
+                            rs.getString("contentSnippet"),
+                            rs.getBigDecimal("score"),
+                            rs.getString("feedback"),
                             rs.getTimestamp("lastUpdated")
                         );
                         submissions.add(submission);
@@ -281,6 +392,22 @@ public class AssignmentPage {
             }
             return submissions;
         }
+        
+        /**
+         * Get the full text of one student's submission, or null if there is none
+         */
+        public String getAssignmentSubmissionContent(int assignmentId, int studentId) throws SQLException {
+            String query = "SELECT content, contentCompressed FROM AssignmentProgress " +
+                          "WHERE assignmentID = ? AND studentID = ?";
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+                stmt.setInt(1, assignmentId);
+                stmt.setInt(2, studentId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? SubmissionContent.read(rs) : null;
+                }
+            }
+        }
     }
     
     /**
@@ -309,12 +436,49 @@ public class AssignmentPage {
         }
     }
     
+    /**
+     * Position in the assignment list: the due date and id of the last row shown
+     */
+    public static class PageKey {
+        private final java.sql.Date dueDate;
+        private final int assignmentId;
+        
+        public PageKey(java.sql.Date dueDate, int assignmentId) {
+            this.dueDate = dueDate;
+            this.assignmentId = assignmentId;
+        }
+        
+        public java.sql.Date getDueDate() { return dueDate; }
+        public int getAssignmentId() { return assignmentId; }
+    }
+    
     // ==================== ASSIGNMENT PAGE IMPLEMENTATION ====================
+    private static final int PAGE_SIZE = Integer.getInteger("assignments.pageSize", 50);
+    private static final Course ALL_COURSES = new Course(0, "All courses");
+    private static final String KEEP_STATUS = "Keep status";
+    
     private final AssignmentDAO assignmentDAO;
-    private ObservableList<Assignment> allAssignments;
+    private final ObservableList<Assignment> allAssignments = FXCollections.observableArrayList();
+    // The logged-in instructor's user id, or null to show every course
+    private final Integer instructorUserId;
+    
+    // Paging state: pageStarts.get(n) is the key page n starts after (null for no lower bound)
+    private final List<PageKey> pageStarts = new ArrayList<>();
+    private int currentPage;
+    private int loadGeneration;
+    
+    private final ComboBox<Course> courseFilter = new ComboBox<>();
+    private final DatePicker dueFromPicker = new DatePicker();
+    private final Button previousPageBtn = new Button("Previous");
+    private final Button nextPageBtn = new Button("Next");
+    private final Label pageLabel = new Label();
+    private TableView<Assignment> assignmentTable;
     
     public AssignmentPage() {
         this.assignmentDAO = new AssignmentDAO();
+        User loggedInUser = Login.getLoggedInUser();
+        this.instructorUserId = loggedInUser != null && "Instructor".equals(loggedInUser.getRole())
+            ? loggedInUser.getUserID() : null;
     }
     
     public Node getView() {
@@ -335,23 +499,90 @@ public class AssignmentPage {
         
         buttonContainer.getChildren().add(createAssignmentBtn);
         
-        // Load all assignments
-        loadAssignments();
+        // Filters, applied by the database
+        HBox filterBar = new HBox(10);
+        filterBar.setAlignment(Pos.CENTER_LEFT);
+        filterBar.setPadding(new Insets(0, 20, 0, 20));
+        courseFilter.getItems().setAll(ALL_COURSES);
+        courseFilter.setValue(ALL_COURSES);
+        courseFilter.setOnAction(e -> reloadFromFirstPage());
+        dueFromPicker.setPromptText("Any date");
+        dueFromPicker.setOnAction(e -> reloadFromFirstPage());
+        filterBar.getChildren().addAll(new Label("Course:"), courseFilter, new Label("Due from:"), dueFromPicker);
         
         // Create the assignment table
-        TableView<Assignment> table = createAssignmentTable();
-        VBox.setVgrow(table, Priority.ALWAYS);
-        
-        view.getChildren().addAll(title, buttonContainer, table);
+        assignmentTable = createAssignmentTable();
+        VBox.setVgrow(assignmentTable, Priority.ALWAYS);
+        
+        // Paging controls
+        HBox pagingBar = new HBox(10);
+        pagingBar.setAlignment(Pos.CENTER_RIGHT);
+        pagingBar.setPadding(new Insets(0, 20, 0, 0));
+        previousPageBtn.setOnAction(e -> showPage(currentPage - 1));
+        nextPageBtn.setOnAction(e -> showPage(currentPage + 1));
+        pagingBar.getChildren().addAll(pageLabel, previousPageBtn, nextPageBtn);
+        
+        view.getChildren().addAll(title, buttonContainer, filterBar, assignmentTable, pagingBar);
+        
+        BackgroundLoader.load(courseFilter, () -> assignmentDAO.getCourses(instructorUserId),
+            courses -> courseFilter.getItems().addAll(courses));
+        reloadFromFirstPage();
         return view;
     }
     
     /**
-     * Load all assignments from database
+     * Start the list again from the first page, after a filter changed
      */
-    private void loadAssignments() {
-        List<Assignment> assignments = assignmentDAO.getAllAssignments();
-        allAssignments = FXCollections.observableArrayList(assignments);
+    private void reloadFromFirstPage() {
+        LocalDate dueFrom = dueFromPicker.getValue();
+        pageStarts.clear();
+        // Id 0 comes before every assignment due that day
+        pageStarts.add(dueFrom != null ? new PageKey(java.sql.Date.valueOf(dueFrom), 0) : null);
+        showPage(0);
+    }
+    
+    /**
+     * Load one page of assignments in the background
+     */
+    private void showPage(int page) {
+        currentPage = page;
+        int generation = ++loadGeneration;
+        PageKey after = pageStarts.get(page);
+        Course course = courseFilter.getValue();
+        Integer courseId = course != null && course != ALL_COURSES ? course.getCourseId() : null;
+        
+        previousPageBtn.setDisable(true);
+        nextPageBtn.setDisable(true);
+        pageLabel.setText("Loading...");
+        
+        // One row more than a page tells whether there is a next page
+        BackgroundLoader.load(assignmentTable,
+            () -> assignmentDAO.getAssignmentsPage(instructorUserId, courseId, after, PAGE_SIZE + 1),
+            rows -> {
+                // A later filter change or page turn has replaced this load
+                if (generation != loadGeneration) {
+                    return;
+                }
+                boolean hasNext = rows.size() > PAGE_SIZE;
+                List<Assignment> shown = hasNext ? rows.subList(0, PAGE_SIZE) : rows;
+                allAssignments.setAll(shown);
+                
+                pageStarts.subList(page + 1, pageStarts.size()).clear();
+                if (hasNext) {
+                    Assignment last = shown.get(shown.size() - 1);
+                    pageStarts.add(new PageKey(new java.sql.Date(last.getDueDate().getTime()), last.getAssignmentId()));
+                }
+                previousPageBtn.setDisable(page == 0);
+                nextPageBtn.setDisable(!hasNext);
+                pageLabel.setText("Page " + (page + 1));
+            },
+            error -> {
+                if (generation == loadGeneration) {
+                    pageLabel.setText("");
+                    previousPageBtn.setDisable(page == 0);
+                    showAlert("Database Error", "Failed to load assignments: " + error.getMessage());
+                }
+            });
     }
     
     /**
@@ -370,7 +601,7 @@ public class AssignmentPage {
         grid.setPadding(new Insets(20, 20, 20, 20));
         
         // Get courses for dropdown
-        List<Course> courses = assignmentDAO.getAllCourses();
+        List<Course> courses = assignmentDAO.getCourses(instructorUserId);
         ComboBox<Course> courseComboBox = new ComboBox<>(FXCollections.observableArrayList(courses));
         
         // Form fields
@@ -469,9 +700,9 @@ public class AssignmentPage {
             // Save to database
             int assignmentId = assignmentDAO.createAssignment(newAssignment);
             if (assignmentId > 0) {
-                newAssignment.setAssignmentId(assignmentId);
-                allAssignments.add(newAssignment);
                 dialogStage.close();
+                // Reload so the new assignment shows in due date order with its counts
+                showPage(currentPage);
             } else {
                 showAlert("Database Error", "Failed to create assignment.");
             }
@@ -515,10 +746,10 @@ public class AssignmentPage {
         titleColumn.setPrefWidth(250);
         titleColumn.setStyle(headerStyle);
         
-        TableColumn<Assignment, Integer> courseIdColumn = new TableColumn<>("Course ID");
-        courseIdColumn.setCellValueFactory(new PropertyValueFactory<>("courseId"));
-        courseIdColumn.setPrefWidth(80);
-        courseIdColumn.setStyle(headerStyle);
+        TableColumn<Assignment, String> courseColumn = new TableColumn<>("Course");
+        courseColumn.setCellValueFactory(new PropertyValueFactory<>("courseName"));
+        courseColumn.setPrefWidth(150);
+        courseColumn.setStyle(headerStyle);
         
         TableColumn<Assignment, Date> dueDateColumn = new TableColumn<>("Due Date");
         dueDateColumn.setCellValueFactory(new PropertyValueFactory<>("dueDate"));
@@ -579,6 +810,15 @@ public class AssignmentPage {
         statusColumn.setPrefWidth(80);
         statusColumn.setStyle(headerStyle);
         
+        TableColumn<Assignment, String> submissionsColumn = new TableColumn<>("Submissions");
+        submissionsColumn.setCellValueFactory(cellData -> {
+            Assignment assignment = cellData.getValue();
+            return new SimpleStringProperty(assignment.getCompletedCount() + " / " + assignment.getStudentCount() +
+                " done, " + (assignment.getStartedCount() - assignment.getCompletedCount()) + " in progress");
+        });
+        submissionsColumn.setPrefWidth(170);
+        submissionsColumn.setStyle(headerStyle);
+        
         TableColumn<Assignment, Void> actionsColumn = new TableColumn<>("Actions");
         actionsColumn.setCellFactory(col -> new TableCell<Assignment, Void>() {
             private final Button viewBtn = new Button("View");
@@ -649,7 +889,8 @@ public class AssignmentPage {
         actionsColumn.setStyle(headerStyle);
         
         table.getColumns().addAll(
-            titleColumn, courseIdColumn, dueDateColumn, priorityColumn, pointsColumn, statusColumn, actionsColumn
+            titleColumn, courseColumn, dueDateColumn, priorityColumn, pointsColumn, statusColumn,
+            submissionsColumn, actionsColumn
         );
         
         // Set the data
@@ -716,8 +957,9 @@ public class AssignmentPage {
         // Get student submissions
         List<StudentSubmission> submissions = assignmentDAO.getAssignmentSubmissions(assignment.getAssignmentId());
         TableView<StudentSubmission> submissionsTable = createSubmissionsTable(submissions);
+        submissionsTable.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
         
-        centerBox.getChildren().addAll(submissionsLabel, submissionsTable);
+        centerBox.getChildren().addAll(submissionsLabel, createBulkGradingBar(assignment, submissionsTable), submissionsTable);
         root.setCenter(centerBox);
         
         // Bottom - Close button
@@ -737,6 +979,144 @@ public class AssignmentPage {
         stage.showAndWait();
     }
     
+    /**
+     * Create the controls that grade every selected submission at once
+     */
+    private VBox createBulkGradingBar(Assignment assignment, TableView<StudentSubmission> table) {
+        Button selectAllBtn = new Button("Select All");
+        selectAllBtn.setOnAction(e -> table.getSelectionModel().selectAll());
+        
+        ComboBox<String> statusBox = new ComboBox<>(FXCollections.observableArrayList(
+            KEEP_STATUS, "Completed", "In progress", "Not started"));
+        statusBox.setValue(KEEP_STATUS);
+        
+        TextField scoreField = new TextField();
+        scoreField.setPromptText("Score");
+        scoreField.setPrefWidth(80);
+        
+        TextField feedbackField = new TextField();
+        feedbackField.setPromptText("Feedback (optional)");
+        HBox.setHgrow(feedbackField, Priority.ALWAYS);
+        
+        Button gradeBtn = new Button("Grade Selected");
+        gradeBtn.setStyle("-fx-background-color: #27ae60; -fx-text-fill: white;");
+        BooleanProperty grading = new SimpleBooleanProperty(false);
+        gradeBtn.disableProperty().bind(Bindings.isEmpty(table.getSelectionModel().getSelectedItems()).or(grading));
+        
+        ProgressBar progressBar = new ProgressBar(0);
+        progressBar.setPrefWidth(200);
+        progressBar.setVisible(false);
+        Label resultLabel = new Label();
+        
+        gradeBtn.setOnAction(e -> {
+            BigDecimal score;
+            try {
+                score = parseScore(scoreField.getText());
+            } catch (NumberFormatException ex) {
+                showAlert("Validation Error", "Score must be a number.");
+                return;
+            }
+            String status = KEEP_STATUS.equals(statusBox.getValue()) ? null : statusBox.getValue();
+            String feedback = feedbackField.getText().trim().isEmpty() ? null : feedbackField.getText().trim();
+            if (status == null && score == null && feedback == null) {
+                showAlert("Validation Error", "Choose a status, score or feedback to apply.");
+                return;
+            }
+            
+            List<AssignmentGrader.Grade> grades = new ArrayList<>();
+            for (StudentSubmission submission : table.getSelectionModel().getSelectedItems()) {
+                grades.add(new AssignmentGrader.Grade(submission.getStudentId(), status, score, feedback));
+            }
+            int total = grades.size();
+            
+            grading.set(true);
+            progressBar.setProgress(0);
+            progressBar.setVisible(true);
+            resultLabel.setText("Grading " + total + " submission(s)...");
+            AssignmentGrader.grade(assignment.getAssignmentId(), grades,
+                    done -> Platform.runLater(() -> progressBar.setProgress((double) done / total)))
+                .whenComplete((report, error) -> Platform.runLater(() -> {
+                    grading.set(false);
+                    progressBar.setVisible(false);
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                        resultLabel.setText("");
+                        showAlert("Database Error", "Failed to grade submissions: " + cause.getMessage());
+                        return;
+                    }
+                    resultLabel.setText("Graded " + report.getApplied() + " of " + report.getRequested() + " submission(s)");
+                    if (!report.getFailures().isEmpty()) {
+                        showGradingFailures(report, table.getItems());
+                    }
+                    reloadSubmissions(table, assignment.getAssignmentId());
+                }));
+        });
+        
+        HBox controls = new HBox(10);
+        controls.setAlignment(Pos.CENTER_LEFT);
+        controls.getChildren().addAll(selectAllBtn, new Label("Status:"), statusBox, scoreField, feedbackField, gradeBtn);
+        
+        HBox progressBox = new HBox(10);
+        progressBox.setAlignment(Pos.CENTER_LEFT);
+        progressBox.getChildren().addAll(progressBar, resultLabel);
+        
+        return new VBox(8, controls, progressBox);
+    }
+    
+    /**
+     * Show the grades a bulk grading run could not apply, by student name
+     */
+    private void showGradingFailures(AssignmentGrader.Report report, List<StudentSubmission> submissions) {
+        Map<Integer, String> names = new HashMap<>();
+        for (StudentSubmission submission : submissions) {
+            names.put(submission.getStudentId(), submission.getStudentName());
+        }
+        StringBuilder details = new StringBuilder();
+        for (AssignmentGrader.Failure failure : report.getFailures()) {
+            details.append(names.getOrDefault(failure.getStudentId(), "Student " + failure.getStudentId()))
+                   .append(": ").append(failure.getReason()).append("\n");
+        }
+        
+        TextArea detailsArea = new TextArea(details.toString());
+        detailsArea.setEditable(false);
+        detailsArea.setWrapText(true);
+        
+        Alert alert = new Alert(Alert.AlertType.WARNING);
+        alert.setTitle("Grading Incomplete");
+        alert.setHeaderText(report.getFailures().size() + " of " + report.getRequested() + " grade(s) were not applied");
+        alert.getDialogPane().setContent(detailsArea);
+        alert.showAndWait();
+    }
+    
+    /**
+     * Read the submissions of an assignment again, after grading
+     */
+    private void reloadSubmissions(TableView<StudentSubmission> table, int assignmentId) {
+        BackgroundLoader.load(table, () -> assignmentDAO.getAssignmentSubmissions(assignmentId),
+            submissions -> table.getItems().setAll(submissions));
+    }
+    
+    /**
+     * A score typed by the instructor, or null when left blank
+     */
+    private static BigDecimal parseScore(String text) {
+        String trimmed = text != null ? text.trim() : "";
+        return trimmed.isEmpty() ? null : new BigDecimal(trimmed);
+    }
+    
+    /**
+     * Count how many submissions share each content hash
+     */
+    private static void countSameText(Map<String, Integer> sameText, List<StudentSubmission> submissions) {
+        sameText.clear();
+        for (StudentSubmission submission : submissions) {
+            if (submission.getContentHash() != null) {
+                sameText.merge(submission.getContentHash(), 1, Integer::sum);
+            }
+        }
+    }
+    
     /**
      * Create a table for student submissions
      */
@@ -798,6 +1178,59 @@ public class AssignmentPage {
             }
         });
         
+        // Snippet column; the full text is only fetched when a submission is opened
+        TableColumn<StudentSubmission, String> snippetColumn = new TableColumn<>("Submission");
+        snippetColumn.setCellValueFactory(new PropertyValueFactory<>("contentSnippet"));
+        snippetColumn.setPrefWidth(250);
+        snippetColumn.setStyle(headerStyle);
+        
+        // Size column, noting submissions whose text is identical to another student's
+        // Counted again whenever the rows are reloaded, since drafts change their hash as students type
+        Map<String, Integer> sameText = new HashMap<>();
+        countSameText(sameText, data);
+        data.addListener((ListChangeListener<StudentSubmission>) change -> {
+            countSameText(sameText, data);
+            table.refresh();
+        });
+        TableColumn<StudentSubmission, Number> sizeColumn = new TableColumn<>("Size");
+        sizeColumn.setCellValueFactory(new PropertyValueFactory<>("contentSize"));
+        sizeColumn.setPrefWidth(120);
+        sizeColumn.setStyle(headerStyle);
+        sizeColumn.setCellFactory(col -> new TableCell<StudentSubmission, Number>() {
+            @Override
+            protected void updateItem(Number size, boolean empty) {
+                super.updateItem(size, empty);
+                StudentSubmission submission = empty ? null : getTableView().getItems().get(getIndex());
+                if (submission == null || submission.getContentHash() == null) {
+                    setText(null);
+                    setTooltip(null);
+                    return;
+                }
+                setText(String.format("%,d chars", size.intValue()));
+                int others = sameText.getOrDefault(submission.getContentHash(), 1) - 1;
+                if (others > 0) {
+                    setTextFill(Color.ORANGE);
+                    setTooltip(new Tooltip("Same text as " + others + " other submission(s)"));
+                } else {
+                    setTextFill(Color.BLACK);
+                    setTooltip(null);
+                }
+            }
+        });
+        
+        // Score column
+        TableColumn<StudentSubmission, BigDecimal> scoreColumn = new TableColumn<>("Score");
+        scoreColumn.setCellValueFactory(new PropertyValueFactory<>("score"));
+        scoreColumn.setPrefWidth(70);
+        scoreColumn.setStyle(headerStyle);
+        scoreColumn.setCellFactory(col -> new TableCell<StudentSubmission, BigDecimal>() {
+            @Override
+            protected void updateItem(BigDecimal score, boolean empty) {
+                super.updateItem(score, empty);
+                setText(empty || score == null ? null : score.stripTrailingZeros().toPlainString());
+            }
+        });
+        
         // Actions column with view button
         TableColumn<StudentSubmission, Void> actionsColumn = new TableColumn<>("Actions");
         actionsColumn.setPrefWidth(100);
@@ -809,7 +1242,8 @@ public class AssignmentPage {
                 viewBtn.setStyle("-fx-font-size: 11px; -fx-padding: 2px 8px;");
                 viewBtn.setOnAction(event -> {
                     StudentSubmission submission = getTableView().getItems().get(getIndex());
-                    viewStudentSubmission(submission);
+                    viewStudentSubmission(submission,
+                        () -> reloadSubmissions(getTableView(), submission.getAssignmentId()));
                 });
             }
             
@@ -830,7 +1264,8 @@ public class AssignmentPage {
         });
         
         // Set up table
-        table.getColumns().addAll(nameColumn, statusColumn, dateColumn, actionsColumn);
+        table.getColumns().addAll(nameColumn, statusColumn, dateColumn, snippetColumn, sizeColumn, scoreColumn,
+            actionsColumn);
         
         // Add a placeholder message when no submissions are available
         Label placeholderLabel = new Label("No student submissions found");
@@ -844,9 +1279,9 @@ public class AssignmentPage {
     }
     
     /**
-     * View an individual student's submission
+     * View an individual student's submission; onGraded runs after its grade is saved
      */
-    private void viewStudentSubmission(StudentSubmission submission) {
+    private void viewStudentSubmission(StudentSubmission submission, Runnable onGraded) {
         // Create a dialog to show the submission
         Dialog<Void> dialog = new Dialog<>();
         dialog.setTitle("Student Submission");
@@ -892,15 +1327,18 @@ public class AssignmentPage {
         Label contentHeader = new Label("Submission Content:");
         contentHeader.setFont(Font.font("Arial", FontWeight.BOLD, 16));
         
-        // Create a bordered text area for the submission content
-        TextArea contentArea = new TextArea(submission.getContent() != null && !submission.getContent().isEmpty() ? 
-                                           submission.getContent() : "No content submitted.");
+        // Create a bordered text area for the submission content, filled once it is fetched
+        TextArea contentArea = new TextArea("Loading submission...");
         contentArea.setWrapText(true);
         contentArea.setEditable(false);
         contentArea.setPrefHeight(300);
         contentArea.setStyle("-fx-control-inner-background: #f9f9f9; -fx-border-color: #ddd;");
+        BackgroundLoader.load(contentArea,
+                () -> assignmentDAO.getAssignmentSubmissionContent(submission.getAssignmentId(), submission.getStudentId()),
+                text -> contentArea.setText(text != null && !text.isEmpty() ? text : "No content submitted."),
+                error -> contentArea.setText("Could not load the submission: " + error.getMessage()));
         
-        // Grading section - could be expanded in a real app
+        // Grading section, saved through the same bulk path as a batch of one
         Label gradingHeader = new Label("Instructor Feedback:");
         gradingHeader.setFont(Font.font("Arial", FontWeight.BOLD, 16));
         
@@ -908,6 +1346,9 @@ public class AssignmentPage {
         feedbackArea.setPromptText("Enter feedback for the student here...");
         feedbackArea.setWrapText(true);
         feedbackArea.setPrefHeight(100);
+        if (submission.getFeedback() != null) {
+            feedbackArea.setText(submission.getFeedback());
+        }
         
         HBox gradeBox = new HBox(10);
         gradeBox.setAlignment(Pos.CENTER_LEFT);
@@ -917,16 +1358,44 @@ public class AssignmentPage {
         
         TextField gradeField = new TextField();
         gradeField.setPrefWidth(100);
+        if (submission.getScore() != null) {
+            gradeField.setText(submission.getScore().stripTrailingZeros().toPlainString());
+        }
          
         Button saveGradeBtn = new Button("Save Feedback");
         saveGradeBtn.setStyle("-fx-background-color: #27ae60; -fx-text-fill: white;");
         saveGradeBtn.setOnAction(e -> {
-            // In a real implementation, this would save the feedback to the database
-            Alert alert = new Alert(Alert.AlertType.INFORMATION);
-            alert.setTitle("Feedback Saved");
-            alert.setHeaderText(null);
-            alert.setContentText("The feedback has been saved successfully.");
-            alert.showAndWait();
+            BigDecimal score;
+            try {
+                score = parseScore(gradeField.getText());
+            } catch (NumberFormatException ex) {
+                showAlert("Validation Error", "Grade must be a number.");
+                return;
+            }
+            String feedback = feedbackArea.getText().trim().isEmpty() ? null : feedbackArea.getText().trim();
+            
+            saveGradeBtn.setDisable(true);
+            AssignmentGrader.Grade grade = new AssignmentGrader.Grade(submission.getStudentId(), null, score, feedback);
+            AssignmentGrader.grade(submission.getAssignmentId(), List.of(grade), done -> { })
+                .whenComplete((report, error) -> Platform.runLater(() -> {
+                    saveGradeBtn.setDisable(false);
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                        showAlert("Database Error", "Failed to save the feedback: " + cause.getMessage());
+                        return;
+                    }
+                    if (!report.getFailures().isEmpty()) {
+                        showAlert("Validation Error", "Failed to save the feedback: " + report.getFailures().get(0).getReason());
+                        return;
+                    }
+                    Alert alert = new Alert(Alert.AlertType.INFORMATION);
+                    alert.setTitle("Feedback Saved");
+                    alert.setHeaderText(null);
+                    alert.setContentText("The feedback has been saved successfully.");
+                    alert.showAndWait();
+                    onGraded.run();
+                }));
         });
         
         gradeBox.getChildren().addAll(gradeLabel, gradeField, saveGradeBtn);
@@ -10,6 +10,8 @@ import javafx.scene.control.Alert.AlertType;
 import javafx.stage.Stage;
 import controllers_students.Login;
 import controllers_students.User;
+import services.CourseCatalog;
+import services.UserSearchIndex;
 
 import java.sql.*;
 
@@ -374,6 +376,9 @@ public class InstructorProfilePage {
                     // Update local variables
                     username = newUsername;
                     email = newEmail;
+                    UserSearchIndex.rename(userID, newUsername, newEmail);
+                    // Course cards show the instructor's name
+                    CourseCatalog.invalidate();
                     
                     // Update the name label in the UI
                     nameLabel.setText(username);
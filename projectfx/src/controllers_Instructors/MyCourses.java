@@ -1,6 +1,8 @@
 package controllers_Instructors;
 
 import dao.DatabaseConnection;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -11,13 +13,21 @@ import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
+import javafx.util.Duration;
 import controllers_students.Login;
 import controllers_students.User;
+import services.CardGrid;
+import services.CourseCatalog;
+import services.CourseCatalog.Course;
+import services.CourseSearchIndex;
+import services.CourseWriter;
+import services.EnrollmentProgress;
+import services.LessonContentCache;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.CompletionException;
 
 /**
  * My Courses page for managing instructor's courses
@@ -28,8 +38,11 @@ public class MyCourses {
     private int currentUserId = 0;
     private String currentUsername = "";
     private boolean isLoggedIn = false;
-    private List<CourseData> courses = new ArrayList<>();
-    private FlowPane courseGrid;
+    private static final Duration SEARCH_DEBOUNCE = Duration.millis(200);
+    private List<Course> courses = new ArrayList<>(); // Courses on display, after the search
+    private CourseSearchIndex searchIndex = new CourseSearchIndex(courses);
+    private CardGrid<Course> courseGrid;
+    private TextField searchField;
 
     /**
      * Constructor with instructor ID
@@ -156,59 +169,18 @@ public class MyCourses {
      * Load courses from database
      */
     private void loadCoursesFromDatabase() {
-        courses.clear();
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            if (conn == null) {
-                System.out.println("Database connection is null");
-                return;
-            }
-            // Basic query to get courses
-            String query = "SELECT c.courseID, c.courseName, c.description, c.courseColor, " +
-                    "COUNT(DISTINCT e.studentID) as studentCount " +
-                    "FROM Courses c " +
-                    "LEFT JOIN Enrollments e ON c.courseID = e.courseID " +
-                    "GROUP BY c.courseID";
-            // Try to use instructor ID if available
-            if (currentUserId > 0) {
-                query = "SELECT c.courseID, c.courseName, c.description, c.courseColor, " +
-                        "COUNT(DISTINCT e.studentID) as studentCount " +
-                        "FROM Courses c " +
-                        "LEFT JOIN Enrollments e ON c.courseID = e.courseID " +
-                        "WHERE c.createdBy = ? " +
-                        "GROUP BY c.courseID";
-            }
-            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-                // Set instructor ID if using parameterized query
-                if (currentUserId > 0) {
-                    pstmt.setInt(1, currentUserId);
-                }
-                try (ResultSet rs = pstmt.executeQuery()) {
-                    while (rs.next()) {
-                        int courseId = rs.getInt("courseID");
-                        String courseName = rs.getString("courseName");
-                        String description = rs.getString("description");
-                        String courseColor = rs.getString("courseColor");
-                        int studentCount = rs.getInt("studentCount");
-                        // Generate a random rating between 4.0 and 5.0 for courses with students
-                        double rating = 0.0;
-                        if (studentCount > 0) {
-                            rating = 4.0 + (new Random().nextDouble() * 1.0);
-                        }
-                        // Ensure color is set
-                        if (courseColor == null || courseColor.isEmpty()) {
-                            courseColor = getRandomColor();
-                        }
-                        // Add to courses list
-                        courses.add(new CourseData(
-                                courseId, courseName, description, courseColor, "Active", // Assume active status
-                                getCategoryFromName(courseName),
-                                studentCount, rating
-                        ));
-                    }
+        courses = new ArrayList<>();
+        try {
+            // Served from CourseCatalog, which only queries after a change
+            for (Course course : CourseCatalog.all()) {
+                // Only the instructor's own courses when we know who they are
+                if (currentUserId <= 0 || course.getCreatedBy() == currentUserId) {
+                    courses.add(course);
                 }
-                System.out.println("Loaded " + courses.size() + " courses from database for " +
-                        (isLoggedIn ? "logged-in instructor" : "default instructor"));
             }
+            searchIndex = new CourseSearchIndex(courses);
+            System.out.println("Loaded " + courses.size() + " courses from database for " +
+                    (isLoggedIn ? "logged-in instructor" : "default instructor"));
         } catch (SQLException e) {
             System.out.println("Error loading courses: " + e.getMessage());
             e.printStackTrace();
@@ -239,7 +211,6 @@ public class MyCourses {
         HBox actionContainer = createActionContainer();
         // Course cards
         courseGrid = createCourseGrid();
-        courseGrid.setStyle("-fx-background-color: transparent;");
         VBox.setVgrow(courseGrid, Priority.ALWAYS);
         view.getChildren().addAll(title, actionContainer, courseGrid);
         return view;
@@ -252,7 +223,7 @@ public class MyCourses {
         HBox actionContainer = new HBox(10);
         actionContainer.setPadding(new Insets(0, 0, 10, 0));
         actionContainer.setAlignment(Pos.CENTER_LEFT);
-        TextField searchField = new TextField();
+        searchField = new TextField();
         searchField.setPromptText("Search courses...");
         searchField.setPrefWidth(300);
         searchField.setStyle("-fx-background-color: white; -fx-text-fill: black;");
@@ -267,32 +238,22 @@ public class MyCourses {
         );
         // Add the create course dialog functionality
         addCourseBtn.setOnAction(e -> showCreateCourseDialog());
-        // Add search functionality
+        // Add search functionality; waits for a pause in typing
+        PauseTransition searchDebounce = new PauseTransition(SEARCH_DEBOUNCE);
+        searchDebounce.setOnFinished(e -> searchCourses(searchField.getText()));
         searchField.textProperty().addListener((observable, oldValue, newValue) -> {
-            searchCourses(newValue);
+            searchDebounce.playFromStart();
         });
         actionContainer.getChildren().addAll(searchField, spacer, addCourseBtn);
         return actionContainer;
     }
 
     /**
-     * Search courses by name
+     * Search courses by the words in their name and description
      */
     private void searchCourses(String searchTerm) {
-        if (searchTerm == null || searchTerm.trim().isEmpty()) {
-            // If search is empty, show all courses
-            loadCoursesFromDatabase();
-        } else {
-            // Filter courses by search term
-            List<CourseData> filteredCourses = new ArrayList<>();
-            for (CourseData course : courses) {
-                if (course.getName().toLowerCase().contains(searchTerm.toLowerCase())) {
-                    filteredCourses.add(course);
-                }
-            }
-            // Update displayed courses
-            courses = filteredCourses;
-        }
+        // Answered from the index over the loaded courses, without a database query
+        courses = searchIndex.search(searchTerm);
         // Update the UI
         updateCourseGrid();
     }
@@ -311,7 +272,7 @@ public class MyCourses {
             return;
         }
         // Create the custom dialog
-        Dialog<CourseData> dialog = new Dialog<>();
+        Dialog<ButtonType> dialog = new Dialog<>();
         dialog.setTitle("Create New Course");
         dialog.setHeaderText("Enter course details");
         // Set the button types
@@ -339,82 +300,56 @@ public class MyCourses {
         dialog.getDialogPane().setContent(grid);
         // Request focus on the name field by default
         nameField.requestFocus();
-        // Convert the result to a Course when the create button is clicked
-        dialog.setResultConverter(dialogButton -> {
-            if (dialogButton == createButtonType) {
-                // Basic validation
-                if (nameField.getText().trim().isEmpty()) {
-                    Alert alert = new Alert(Alert.AlertType.ERROR);
-                    alert.setTitle("Error");
-                    alert.setHeaderText("Course name is required");
-                    alert.setContentText("Please enter a name for your course.");
-                    alert.showAndWait();
-                    return null;
-                }
-                // Convert color to hex string
-                String colorHex = String.format("#%02X%02X%02X",
-                        (int) (colorPicker.getValue().getRed() * 255),
-                        (int) (colorPicker.getValue().getGreen() * 255),
-                        (int) (colorPicker.getValue().getBlue() * 255));
-                // Create and return a new CourseData object
-                return new CourseData(
-                        0, // Temporary ID, will be replaced by database
-                        nameField.getText().trim(),
-                        descriptionArea.getText().trim(),
-                        colorHex,
-                        "Active",
-                        getCategoryFromName(nameField.getText().trim()),
-                        0, // No students yet
-                        0.0 // No rating yet
-                );
+        // Show the dialog and save the course when the create button is clicked
+        dialog.showAndWait().ifPresent(response -> {
+            if (response != createButtonType) {
+                return;
             }
-            return null;
-        });
-        // Show the dialog and process the result
-        dialog.showAndWait().ifPresent(courseData -> {
-            if (createCourseInDatabase(courseData)) {
-                // Reload courses and update view
-                loadCoursesFromDatabase();
-                updateCourseGrid();
+            // Basic validation
+            if (nameField.getText().trim().isEmpty()) {
+                Alert alert = new Alert(Alert.AlertType.ERROR);
+                alert.setTitle("Error");
+                alert.setHeaderText("Course name is required");
+                alert.setContentText("Please enter a name for your course.");
+                alert.showAndWait();
+                return;
             }
+            // Convert color to hex string
+            String colorHex = String.format("#%02X%02X%02X",
+                    (int) (colorPicker.getValue().getRed() * 255),
+                    (int) (colorPicker.getValue().getGreen() * 255),
+                    (int) (colorPicker.getValue().getBlue() * 255));
+            createCourseInDatabase(nameField.getText().trim(), descriptionArea.getText().trim(), colorHex);
         });
     }
 
     /**
-     * Create a new course in the database
+     * Create a new course in the background, then reload the course list
      */
-    private boolean createCourseInDatabase(CourseData courseData) {
+    private void createCourseInDatabase(String name, String description, String colorHex) {
         if (currentUserId <= 0) {
             System.out.println("No instructor user ID available to create course");
-            return false;
+            return;
         }
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            if (conn == null) return false;
-            String query = "INSERT INTO Courses (courseName, description, createdBy, courseColor) VALUES (?, ?, ?, ?)";
-            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-                pstmt.setString(1, courseData.getName());
-                pstmt.setString(2, courseData.getDescription());
-                pstmt.setInt(3, currentUserId);
-                pstmt.setString(4, courseData.getColor());
-                int affectedRows = pstmt.executeUpdate();
-                if (affectedRows > 0) {
-                    System.out.println("Course created successfully: " + courseData.getName());
-                    return true;
-                } else {
-                    System.out.println("Failed to create course: No rows affected");
-                    return false;
+        CourseWriter.insert(name, description, currentUserId, colorHex).whenComplete((courseId, error) ->
+            Platform.runLater(() -> {
+                if (error == null) {
+                    System.out.println("Course created successfully: " + name);
+                    // Reload courses and update view; existing cards are left as they are
+                    loadCoursesFromDatabase();
+                    searchCourses(searchField.getText());
+                    return;
                 }
-            }
-        } catch (SQLException e) {
-            System.out.println("Error creating course: " + e.getMessage());
-            e.printStackTrace();
-            Alert alert = new Alert(Alert.AlertType.ERROR);
-            alert.setTitle("Database Error");
-            alert.setHeaderText("Failed to create course");
-            alert.setContentText("Database error: " + e.getMessage());
-            alert.showAndWait();
-            return false;
-        }
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                System.out.println("Error creating course: " + cause.getMessage());
+                cause.printStackTrace();
+                Alert alert = new Alert(Alert.AlertType.ERROR);
+                alert.setTitle("Database Error");
+                alert.setHeaderText("Failed to create course");
+                alert.setContentText("Database error: " + cause.getMessage());
+                alert.showAndWait();
+            }));
     }
 
     /**
@@ -422,185 +357,176 @@ public class MyCourses {
      */
     private void updateCourseGrid() {
         if (courseGrid != null) {
-            courseGrid.getChildren().clear();
-            if (courses.isEmpty()) {
-                Label noCourses = new Label("No courses found. Click 'Create New Course' to get started.");
-                noCourses.setStyle(
-                        "-fx-background-color: white; " +
-                                "-fx-padding: 30; " +
-                                "-fx-background-radius: 8; " +
-                                "-fx-text-fill: #7f8c8d; " +
-                                "-fx-font-size: 16px;"
-                );
-                courseGrid.getChildren().add(noCourses);
-            } else {
-                for (CourseData course : courses) {
-                    courseGrid.getChildren().add(createCourseCard(
-                            course.getId(),
-                            course.getName(),
-                            course.getDescription(),
-                            course.getCategory(),
-                            course.getStatus(),
-                            course.getStudentCount(),
-                            course.getRating(),
-                            course.getColor()
-                    ));
-                }
-            }
+            courseGrid.setCards(courses);
         }
     }
 
     /**
      * Create course grid from database data
      */
-    private FlowPane createCourseGrid() {
-        FlowPane grid = new FlowPane();
-        grid.setHgap(20);
-        grid.setVgap(20);
+    private CardGrid<Course> createCourseGrid() {
+        // Only the cards on screen exist; scrolling refills them with other courses
+        CardGrid<Course> grid = new CardGrid<>(300, 20, CourseCard::new);
         grid.setPadding(new Insets(10));
-        // Create a course card for each course in the database
-        if (courses.isEmpty()) {
-            // Display a message if no courses found
-            Label noCourses = new Label("No courses found. Click 'Create New Course' to get started.");
-            noCourses.setStyle(
-                    "-fx-background-color: white; " +
-                            "-fx-padding: 30; " +
-                            "-fx-background-radius: 8; " +
-                            "-fx-text-fill: #7f8c8d; " +
-                            "-fx-font-size: 16px;"
-            );
-            grid.getChildren().add(noCourses);
-        } else {
-            // Add cards for each course
-            for (CourseData course : courses) {
-                grid.getChildren().add(createCourseCard(
-                        course.getId(),
-                        course.getName(),
-                        course.getDescription(),
-                        course.getCategory(),
-                        course.getStatus(),
-                        course.getStudentCount(),
-                        course.getRating(),
-                        course.getColor()
-                ));
-            }
-        }
+        grid.setPrefHeight(600);
+        // Display a message if no courses found
+        Label noCourses = new Label("No courses found. Click 'Create New Course' to get started.");
+        noCourses.setStyle(
+                "-fx-background-color: white; " +
+                        "-fx-padding: 30; " +
+                        "-fx-background-radius: 8; " +
+                        "-fx-text-fill: #7f8c8d; " +
+                        "-fx-font-size: 16px;"
+        );
+        grid.setPlaceholder(noCourses);
+        grid.setCards(courses);
         return grid;
     }
 
     /**
-     * Create a card for an individual course
+     * A course card, built once and refilled for whichever course scrolls into its slot
      */
-    private VBox createCourseCard(int courseId, String title, String description, String category,
-                                  String status, int students, double rating, String colorHex) {
-        VBox card = new VBox(0);
-        card.setPadding(new Insets(0, 0, 0, 0));
-        card.setStyle(
-                "-fx-background-color: white; " +
-                        "-fx-background-radius: 8; " +
-                        "-fx-effect: dropshadow(gaussian, rgba(0, 0, 0, 0.1), 5, 0, 0, 2);"
-        );
-        card.setPrefWidth(300);
-
-        // Parse color or use default
-        Color cardColor;
-        try {
-            cardColor = Color.web(colorHex);
-        } catch (Exception e) {
-            cardColor = Color.valueOf("#3498db");
-        }
-
-        // Course image placeholder
-        Rectangle imagePlaceholder = new Rectangle(300, 120);
-        imagePlaceholder.setArcWidth(8);
-        imagePlaceholder.setArcHeight(8);
-        imagePlaceholder.setFill(cardColor);
-
-        // Status badge
-        Label statusLabel = new Label(status);
-        statusLabel.setPadding(new Insets(3, 8, 3, 8));
-        statusLabel.setStyle(
-                "-fx-background-color: white; " +
-                        "-fx-text-fill: " + colorHex + "; " +
-                        "-fx-background-radius: 4; " +
-                        "-fx-font-weight: bold;"
-        );
-
-        // Course ID label for reference
-        Label idLabel = new Label("ID: " + courseId);
-        idLabel.setPadding(new Insets(3, 8, 3, 8));
-        idLabel.setStyle(
-                "-fx-background-color: rgba(255,255,255,0.7); " +
-                        "-fx-text-fill: #333333; " +
-                        "-fx-background-radius: 4; " +
-                        "-fx-font-size: 10px;"
-        );
+    private class CourseCard implements CardGrid.Card<Course> {
+        private final VBox card = new VBox(0);
+        private final Rectangle imagePlaceholder = new Rectangle(300, 120);
+        private final Label statusLabel = new Label();
+        private final Label idLabel = new Label();
+        private final Label courseTitle = new Label();
+        private final Label descLabel = new Label();
+        private final Label categoryLabel = new Label();
+        private final Label studentsLabel = new Label();
+        private final Label ratingLabel = new Label();
+        private final Label starsLabel = new Label("★★★★★");
+        private final Label noRatingLabel = new Label("No ratings yet");
+        private Course course;
+
+        CourseCard() {
+            card.setPadding(new Insets(0, 0, 0, 0));
+            // The shadow comes from the .course-card stylesheet rule that CardGrid applies
+            card.setStyle(
+                    "-fx-background-color: white; " +
+                            "-fx-background-radius: 8;"
+            );
+            card.setPrefWidth(300);
+
+            // Course image placeholder
+            imagePlaceholder.setArcWidth(8);
+            imagePlaceholder.setArcHeight(8);
+
+            // Status badge
+            statusLabel.setPadding(new Insets(3, 8, 3, 8));
+
+            // Course ID label for reference
+            idLabel.setPadding(new Insets(3, 8, 3, 8));
+            idLabel.setStyle(
+                    "-fx-background-color: rgba(255,255,255,0.7); " +
+                            "-fx-text-fill: #333333; " +
+                            "-fx-background-radius: 4; " +
+                            "-fx-font-size: 10px;"
+            );
 
-        StackPane imageContainer = new StackPane();
-        imageContainer.getChildren().addAll(imagePlaceholder, statusLabel, idLabel);
-        StackPane.setAlignment(statusLabel, Pos.TOP_RIGHT);
-        StackPane.setMargin(statusLabel, new Insets(10, 10, 0, 0));
-        StackPane.setAlignment(idLabel, Pos.BOTTOM_LEFT);
-        StackPane.setMargin(idLabel, new Insets(0, 0, 10, 10));
+            StackPane imageContainer = new StackPane();
+            imageContainer.getChildren().addAll(imagePlaceholder, statusLabel, idLabel);
+            StackPane.setAlignment(statusLabel, Pos.TOP_RIGHT);
+            StackPane.setMargin(statusLabel, new Insets(10, 10, 0, 0));
+            StackPane.setAlignment(idLabel, Pos.BOTTOM_LEFT);
+            StackPane.setMargin(idLabel, new Insets(0, 0, 10, 10));
 
-        // Course details
-        VBox details = new VBox(10);
-        details.setPadding(new Insets(15));
+            // Course details
+            VBox details = new VBox(10);
+            details.setPadding(new Insets(15));
 
-        Label courseTitle = new Label(title);
-        courseTitle.setStyle("-fx-font-size: 16px; -fx-font-weight: bold; -fx-text-fill: black;");
-        courseTitle.setWrapText(true);
+            courseTitle.setStyle("-fx-font-size: 16px; -fx-font-weight: bold; -fx-text-fill: black;");
+            courseTitle.setWrapText(true);
 
-        // Description label
-        Label descLabel = new Label(description != null && !description.isEmpty() ?
-                description : "No description available");
-        descLabel.setStyle("-fx-text-fill: #7f8c8d; -fx-font-size: 12px;");
-        descLabel.setWrapText(true);
-        descLabel.setMaxHeight(40); // Limit height
+            // Description label
+            descLabel.setStyle("-fx-text-fill: #7f8c8d; -fx-font-size: 12px;");
+            descLabel.setWrapText(true);
+            descLabel.setMaxHeight(40); // Limit height
 
-        Label categoryLabel = new Label("Category: " + category);
-        categoryLabel.setStyle("-fx-text-fill: #7f8c8d;");
+            categoryLabel.setStyle("-fx-text-fill: #7f8c8d;");
 
-        HBox statsRow = new HBox(15);
-        statsRow.setAlignment(Pos.CENTER_LEFT);
-        Label studentsLabel = new Label(students + " Students");
-        studentsLabel.setStyle("-fx-text-fill: #7f8c8d;");
+            HBox statsRow = new HBox(15);
+            statsRow.setAlignment(Pos.CENTER_LEFT);
+            studentsLabel.setStyle("-fx-text-fill: #7f8c8d;");
 
-        // Create rating display
-        HBox ratingBox = new HBox(5);
-        ratingBox.setAlignment(Pos.CENTER_LEFT);
-        if (students > 0) {
-            Label ratingLabel = new Label(String.format("%.1f", rating));
+            // Rating display; show() picks the rating or the "no ratings" label
+            HBox ratingBox = new HBox(5);
+            ratingBox.setAlignment(Pos.CENTER_LEFT);
             ratingLabel.setStyle("-fx-text-fill: #f39c12; -fx-font-weight: bold;");
-            Label starsLabel = new Label("★★★★★");
             starsLabel.setStyle("-fx-text-fill: #f39c12;");
-            ratingBox.getChildren().addAll(ratingLabel, starsLabel);
-        } else {
-            Label noRatingLabel = new Label("No ratings yet");
             noRatingLabel.setStyle("-fx-text-fill: #95a5a6; -fx-font-style: italic;");
-            ratingBox.getChildren().add(noRatingLabel);
+            for (Label label : new Label[] {ratingLabel, starsLabel, noRatingLabel}) {
+                label.managedProperty().bind(label.visibleProperty());
+            }
+            ratingBox.getChildren().addAll(ratingLabel, starsLabel, noRatingLabel);
+            statsRow.getChildren().addAll(studentsLabel, ratingBox);
+
+            // Single Manage Course button instead of multiple buttons
+            Button manageBtn = new Button("Manage Lessons");
+            manageBtn.setStyle(
+                    "-fx-background-color: #3498db; " +
+                    "-fx-text-fill: white; " +
+                    "-fx-background-radius: 4; " +
+                    "-fx-font-size: 14px; " +
+                    "-fx-padding: 8 15;"
+            );
+            manageBtn.setPrefWidth(200);
+            manageBtn.setOnAction(e -> manageLessons(course.getId(), course.getName()));
+
+            HBox buttonBox = new HBox(manageBtn);
+            buttonBox.setAlignment(Pos.CENTER);
+            buttonBox.setPadding(new Insets(10, 0, 0, 0));
+
+            details.getChildren().addAll(courseTitle, descLabel, categoryLabel, statsRow, buttonBox);
+            card.getChildren().addAll(imageContainer, details);
         }
-        statsRow.getChildren().addAll(studentsLabel, ratingBox);
 
-        // Single Manage Course button instead of multiple buttons
-        Button manageBtn = new Button("Manage Lessons");
-        manageBtn.setStyle(
-                "-fx-background-color: #3498db; " +
-                "-fx-text-fill: white; " +
-                "-fx-background-radius: 4; " +
-                "-fx-font-size: 14px; " +
-                "-fx-padding: 8 15;"
-        );
-        manageBtn.setPrefWidth(200);
-        manageBtn.setOnAction(e -> manageLessons(courseId, title));
-        
-        HBox buttonBox = new HBox(manageBtn);
-        buttonBox.setAlignment(Pos.CENTER);
-        buttonBox.setPadding(new Insets(10, 0, 0, 0));
+        @Override
+        public Node getNode() {
+            return card;
+        }
 
-        details.getChildren().addAll(courseTitle, descLabel, categoryLabel, statsRow, buttonBox);
-        card.getChildren().addAll(imageContainer, details);
-        return card;
+        @Override
+        public void show(Course next) {
+            if (course == next) {
+                return;
+            }
+            course = next;
+            String colorHex = course.getColor();
+
+            // Parse color or use default
+            Color cardColor;
+            try {
+                cardColor = Color.web(colorHex);
+            } catch (Exception e) {
+                cardColor = Color.valueOf("#3498db");
+            }
+            imagePlaceholder.setFill(cardColor);
+
+            statusLabel.setText("Active"); // Assume active status
+            statusLabel.setStyle(
+                    "-fx-background-color: white; " +
+                            "-fx-text-fill: " + colorHex + "; " +
+                            "-fx-background-radius: 4; " +
+                            "-fx-font-weight: bold;"
+            );
+            idLabel.setText("ID: " + course.getId());
+
+            String description = course.getDescription();
+            courseTitle.setText(course.getName());
+            descLabel.setText(description != null && !description.isEmpty() ?
+                    description : "No description available");
+            categoryLabel.setText("Category: " + course.getCategory());
+            studentsLabel.setText(course.getStudentCount() + " Students");
+
+            // Placeholder rating between 4.0 and 5.0 for courses with students, fixed per course
+            boolean rated = course.getStudentCount() > 0;
+            ratingLabel.setText(String.format("%.1f", 4.0 + Math.floorMod(course.getId() * 7, 11) / 10.0));
+            ratingLabel.setVisible(rated);
+            starsLabel.setVisible(rated);
+            noRatingLabel.setVisible(!rated);
+        }
     }
 
     /**
@@ -976,6 +902,8 @@ public class MyCourses {
             
             String query = "INSERT INTO Lessons (courseID, title, category, content) VALUES (?, ?, ?, ?)";
             
+            // The lesson and the enrolled students' lesson totals change together
+            conn.setAutoCommit(false);
             try (PreparedStatement pstmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
                 pstmt.setInt(1, courseId);
                 pstmt.setString(2, lesson.getTitle());
@@ -987,10 +915,19 @@ public class MyCourses {
                 if (rowsAffected > 0) {
                     try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
                         if (generatedKeys.next()) {
-                            return generatedKeys.getInt(1);
+                            int lessonId = generatedKeys.getInt(1);
+                            EnrollmentProgress.lessonsAdded(conn, courseId, 1);
+                            conn.commit();
+                            return lessonId;
                         }
                     }
                 }
+                conn.rollback();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
         } catch (SQLException e) {
             System.out.println("Error saving lesson: " + e.getMessage());
@@ -1013,7 +950,8 @@ public class MyCourses {
         try (Connection conn = DatabaseConnection.getConnection()) {
             if (conn == null) return false;
             
-            String query = "UPDATE Lessons SET title = ?, category = ?, content = ? WHERE lessonID = ?";
+            String query = "UPDATE Lessons SET title = ?, category = ?, content = ?, " +
+                "contentVersion = contentVersion + 1 WHERE lessonID = ?";
             
             try (PreparedStatement pstmt = conn.prepareStatement(query)) {
                 pstmt.setString(1, lesson.getTitle());
@@ -1022,6 +960,8 @@ public class MyCourses {
                 pstmt.setInt(4, lesson.getId());
                 
                 int rowsAffected = pstmt.executeUpdate();
+                // Students viewing from other machines see the new version on their next course open
+                LessonContentCache.invalidate(lesson.getId());
                 return rowsAffected > 0;
             }
         } catch (SQLException e) {
@@ -1049,83 +989,6 @@ public class MyCourses {
         alert.showAndWait();
     }
 
-    /**
-     * Try to determine a category based on course name
-     */
-    private String getCategoryFromName(String courseName) {
-        courseName = courseName.toLowerCase();
-        if (courseName.contains("python") || courseName.contains("java") ||
-                courseName.contains("programming") || courseName.contains("code")) {
-            return "Programming";
-        } else if (courseName.contains("data") || courseName.contains("analytics") ||
-                courseName.contains("statistics") || courseName.contains("machine")) {
-            return "Data Science";
-        } else if (courseName.contains("web") || courseName.contains("html") ||
-                courseName.contains("css") || courseName.contains("javascript")) {
-            return "Web";
-        } else if (courseName.contains("math") || courseName.contains("calculus") ||
-                courseName.contains("algebra")) {
-            return "Mathematics";
-        } else if (courseName.contains("history") || courseName.contains("world") ||
-                courseName.contains("ancient")) {
-            return "History";
-        } else if (courseName.contains("science") || courseName.contains("physics") ||
-                courseName.contains("chemistry") || courseName.contains("biology")) {
-            return "Science";
-        } else if (courseName.contains("literature") || courseName.contains("writing") ||
-                courseName.contains("english")) {
-            return "Literature";
-        }
-        return "General";
-    }
-
-    /**
-     * Generate a random color
-     */
-    private String getRandomColor() {
-        String[] colors = {
-                "#3498db", "#2ecc71", "#e74c3c", "#f39c12",
-                "#9b59b6", "#1abc9c", "#34495e", "#e67e22"
-        };
-        int randomIndex = (int) (Math.random() * colors.length);
-        return colors[randomIndex];
-    }
-
-    /**
-     * Course data model class
-     */
-    private static class CourseData {
-        private final int id;
-        private final String name;
-        private final String description;
-        private final String color;
-        private final String status;
-        private final String category;
-        private final int studentCount;
-        private final double rating;
-
-        public CourseData(int id, String name, String description, String color,
-                         String status, String category, int studentCount, double rating) {
-            this.id = id;
-            this.name = name;
-            this.description = description;
-            this.color = color;
-            this.status = status;
-            this.category = category;
-            this.studentCount = studentCount;
-            this.rating = rating;
-        }
-
-        public int getId() { return id; }
-        public String getName() { return name; }
-        public String getDescription() { return description; }
-        public String getColor() { return color; }
-        public String getStatus() { return status; }
-        public String getCategory() { return category; }
-        public int getStudentCount() { return studentCount; }
-        public double getRating() { return rating; }
-    }
-    
     /**
      * Lesson data model class
      */
@@ -22,6 +22,7 @@ import javafx.scene.text.TextAlignment;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.effect.DropShadow;
 import dao.DatabaseConnection;
+import services.QuizCatalog;
 
 /**
  * QuizzesPage provides instructors with a comprehensive interface for:
@@ -305,21 +306,16 @@ public class QuizzesPage {
     private TableView<QuizResult> resultsTable;
     private ComboBox<String> subjectFilterComboBox;
     private ObservableList<QuizQuestion> allQuestions;
+    private Map<Integer, QuizQuestion> questionsById;
+    // Full result history; read the first time a view needs individual results
     private ObservableList<QuizResult> allResults;
     private ObservableList<QuizStatistics> subjectStatistics;
     private Label totalQuestionsLabel;
     private Label totalResultsLabel;
 
-    // Database access
-    private Connection dbConnection;
-
     // Create and configure the main view
     public Node getView() {
         try {
-            // Establish database connection
-            dbConnection = DatabaseConnection.getConnection();
-            System.out.println("Database connection established for QuizzesPage");
-
             // Load initial data
             loadAllQuizData();
 
@@ -610,16 +606,17 @@ public class QuizzesPage {
         HBox summaryBox = new HBox(20);
         summaryBox.setAlignment(Pos.CENTER_LEFT);
 
-        totalResultsLabel = createSummaryLabel("Total Results: " + allResults.size(), "#0e9f6e");
+        ObservableList<QuizResult> results = getAllResults();
+        totalResultsLabel = createSummaryLabel("Total Results: " + results.size(), "#0e9f6e");
 
         // Add correct/incorrect ratio
         int correctCount = 0;
-        for (QuizResult result : allResults) {
+        for (QuizResult result : results) {
             if (result.isCorrect()) {
                 correctCount++;
             }
         }
-        int totalCount = allResults.size();
+        int totalCount = results.size();
         double correctPercent = totalCount > 0 ? (double)correctCount / totalCount * 100 : 0;
 
         Label correctRatioLabel = createSummaryLabel(
@@ -643,7 +640,7 @@ public class QuizzesPage {
         if (subjectFilterComboBox.getValue() != null) {
             filterResultsBySubject(subjectFilterComboBox.getValue());
         } else {
-            resultsTable.setItems(allResults);
+            resultsTable.setItems(results);
         }
 
         // Add all to content
@@ -861,14 +858,24 @@ public class QuizzesPage {
 
     // Load all quiz questions and results from the database
     private void loadAllQuizData() throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                throw new SQLException("Cannot connect to database");
+            }
+            loadAllQuizData(conn);
+        }
+    }
+
+    private void loadAllQuizData(Connection conn) throws SQLException {
         // Load unique subjects for filtering
         Set<String> subjects = new HashSet<>();
         subjects.add("All Subjects");
         
         // Load quiz questions
         allQuestions = FXCollections.observableArrayList();
+        questionsById = new HashMap<>();
         String questionQuery = "SELECT * FROM quiz_questions ORDER BY subject, id";
-        try (PreparedStatement stmt = dbConnection.prepareStatement(questionQuery);
+        try (PreparedStatement stmt = conn.prepareStatement(questionQuery);
              ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
                 QuizQuestion question = new QuizQuestion(
@@ -882,12 +889,68 @@ public class QuizzesPage {
                     rs.getString("correct_option")
                 );
                 allQuestions.add(question);
+                questionsById.put(question.getId(), question);
                 subjects.add(rs.getString("subject"));
             }
         }
         
-        // Load quiz results
-        allResults = FXCollections.observableArrayList();
+        // Subject totals are kept up to date as answers are saved, so no result history is read here
+        subjectStatistics = FXCollections.observableArrayList();
+        String statsQuery =
+            "SELECT qq.subject, COUNT(*) AS totalQuestions, " +
+            "COALESCE(MAX(s.attempts), 0) AS attempts, COALESCE(MAX(s.correct), 0) AS correct " +
+            "FROM quiz_questions qq " +
+            "LEFT JOIN QuizSubjectStats s ON s.subject = qq.subject " +
+            "GROUP BY qq.subject " +
+            "ORDER BY qq.subject";
+        try (PreparedStatement stmt = conn.prepareStatement(statsQuery);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                int totalAttempts = rs.getInt("attempts");
+                int totalCorrect = rs.getInt("correct");
+                double averageScore = totalAttempts > 0 ?
+                    (double) totalCorrect / totalAttempts * 100.0 : 0.0;
+
+                subjectStatistics.add(new QuizStatistics(
+                    rs.getString("subject"), rs.getInt("totalQuestions"),
+                    totalAttempts, totalCorrect, averageScore
+                ));
+            }
+        }
+
+        // Results are reloaded on their next use
+        allResults = null;
+        
+        // Update subject filter dropdown
+        if (subjectFilterComboBox != null) {
+            subjectFilterComboBox.getItems().setAll(subjects);
+            if (!subjectFilterComboBox.getItems().contains(subjectFilterComboBox.getValue())) {
+                subjectFilterComboBox.setValue("All Subjects");
+            }
+        }
+    }
+
+    // The full result history, loaded on first use
+    private ObservableList<QuizResult> getAllResults() {
+        if (allResults != null) {
+            return allResults;
+        }
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                throw new SQLException("Cannot connect to database");
+            }
+            allResults = loadQuizResults(conn);
+            return allResults;
+        } catch (SQLException e) {
+            System.err.println("Error loading quiz results: " + e.getMessage());
+            e.printStackTrace();
+            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load quiz results: " + e.getMessage());
+            return FXCollections.observableArrayList();
+        }
+    }
+
+    private ObservableList<QuizResult> loadQuizResults(Connection conn) throws SQLException {
+        ObservableList<QuizResult> results = FXCollections.observableArrayList();
         String resultQuery =
             "SELECT qr.resultID, qr.questionID, qr.studentID, u.username AS studentName, " +
             "qr.selectedOption, qr.isCorrect, qr.submissionDate, qq.question " +
@@ -896,13 +959,13 @@ public class QuizzesPage {
             "JOIN Students s ON qr.studentID = s.studentID " +
             "JOIN Users u ON s.userID = u.userID " +
             "ORDER BY qr.submissionDate DESC";
-        try (PreparedStatement stmt = dbConnection.prepareStatement(resultQuery);
+        try (PreparedStatement stmt = conn.prepareStatement(resultQuery);
              ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
                 Timestamp submissionTime = rs.getTimestamp("submissionDate");
                 String formattedDate = submissionTime != null ?
                     new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(submissionTime) : "N/A";
-                
+            
                 QuizResult result = new QuizResult(
                     rs.getInt("resultID"),
                     rs.getInt("questionID"),
@@ -913,52 +976,10 @@ public class QuizzesPage {
                     formattedDate,
                     rs.getString("question")
                 );
-                allResults.add(result);
-            }
-        }
-        
-        // Load statistics by subject
-        subjectStatistics = FXCollections.observableArrayList();
-        for (String subject : subjects) {
-            if (!"All Subjects".equals(subject)) {
-                int totalQuestions = 0;
-                int totalAttempts = 0;
-                int totalCorrect = 0;
-                
-                // Count questions for this subject
-                for (QuizQuestion q : allQuestions) {
-                    if (subject.equals(q.getSubject())) {
-                        totalQuestions++;
-                    }
-                }
-                
-                // Count attempts and correct answers
-                for (QuizResult r : allResults) {
-                    QuizQuestion question = findQuestionById(r.getQuestionId());
-                    if (question != null && subject.equals(question.getSubject())) {
-                        totalAttempts++;
-                        if (r.isCorrect()) {
-                            totalCorrect++;
-                        }
-                    }
-                }
-                
-                double averageScore = totalAttempts > 0 ? 
-                    (double) totalCorrect / totalAttempts * 100.0 : 0.0;
-                
-                subjectStatistics.add(new QuizStatistics(
-                    subject, totalQuestions, totalAttempts, totalCorrect, averageScore
-                ));
-            }
-        }
-        
-        // Update subject filter dropdown
-        if (subjectFilterComboBox != null) {
-            subjectFilterComboBox.getItems().setAll(subjects);
-            if (!subjectFilterComboBox.getItems().contains(subjectFilterComboBox.getValue())) {
-                subjectFilterComboBox.setValue("All Subjects");
+                results.add(result);
             }
         }
+        return results;
     }
 
     // Create a table for quiz questions with improved styling
@@ -1256,7 +1277,7 @@ public class QuizzesPage {
         table.getColumns().addAll(questionColumn, studentColumn, selectedColumn, correctColumn, dateColumn);
         
         // Set data
-        table.setItems(allResults);
+        table.setItems(getAllResults());
         
         return table;
     }
@@ -1419,9 +1440,9 @@ public class QuizzesPage {
         if (resultsTable == null) return; // Add null check
         
         if ("All Subjects".equals(subject)) {
-            resultsTable.setItems(allResults);
+            resultsTable.setItems(getAllResults());
         } else {
-            ObservableList<QuizResult> filtered = allResults.filtered(
+            ObservableList<QuizResult> filtered = getAllResults().filtered(
                 r -> {
                     QuizQuestion question = findQuestionById(r.getQuestionId());
                     return question != null && subject.equals(question.getSubject());
@@ -1437,12 +1458,7 @@ public class QuizzesPage {
 
     // Find a question by ID
     private QuizQuestion findQuestionById(int id) {
-        for (QuizQuestion q : allQuestions) {
-            if (q.getId() == id) {
-                return q;
-            }
-        }
-        return null;
+        return questionsById.get(id);
     }
 
     // Save quiz questions to database
@@ -1451,15 +1467,23 @@ public class QuizzesPage {
             return false;
         }
         
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) {
+            showAlert(Alert.AlertType.ERROR,
+                "Database Error",
+                "Cannot connect to database. Please try again later.");
+            return false;
+        }
+
         try {
             // Prepare statement for inserting questions
             String insertQuery =
                 "INSERT INTO quiz_questions (subject, question, option_a, option_b, option_c, option_d, correct_option) " +
                 "VALUES (?, ?, ?, ?, ?, ?, ?)";
             
-            try (PreparedStatement stmt = dbConnection.prepareStatement(insertQuery)) {
+            try (PreparedStatement stmt = conn.prepareStatement(insertQuery)) {
                 // Start transaction
-                dbConnection.setAutoCommit(false);
+                conn.setAutoCommit(false);
                 
                 for (QuizQuestion q : questions) {
                     stmt.setString(1, q.getSubject());
@@ -1488,8 +1512,9 @@ public class QuizzesPage {
                 int[] results = stmt.executeBatch();
                 
                 // Commit if all successful
-                dbConnection.commit();
-                dbConnection.setAutoCommit(true);
+                conn.commit();
+                conn.setAutoCommit(true);
+                QuizCatalog.invalidate();
                 
                 // Return true if all inserts succeeded
                 for (int result : results) {
@@ -1502,8 +1527,8 @@ public class QuizzesPage {
         } catch (SQLException e) {
             try {
                 // Rollback on error
-                dbConnection.rollback();
-                dbConnection.setAutoCommit(true);
+                conn.rollback();
+                conn.setAutoCommit(true);
             } catch (SQLException rollbackEx) {
                 System.err.println("Error rolling back transaction: " + rollbackEx.getMessage());
             }
@@ -1512,6 +1537,12 @@ public class QuizzesPage {
                 "Database Error",
                 "Error saving quiz questions: " + e.getMessage());
             return false;
+        } finally {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
         }
     }
 
@@ -1530,7 +1561,7 @@ public class QuizzesPage {
         
         // Create filtered list of results for this question
         ObservableList<QuizResult> questionResults = FXCollections.observableArrayList();
-        for (QuizResult result : allResults) {
+        for (QuizResult result : getAllResults()) {
             if (result.getQuestionId() == question.getId()) {
                 questionResults.add(result);
             }
@@ -1,7 +1,10 @@
 package controllers_Instructors;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.Callable;
+import javafx.animation.PauseTransition;
 import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -9,7 +12,10 @@ import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.beans.property.*;
+import javafx.util.Duration;
 import dao.DatabaseConnection;
+import services.BackgroundLoader;
+import services.UserSearchIndex;
 
 /**
  * Students page for viewing and managing course students
@@ -75,33 +81,32 @@ public class StudentsPage {
      * Data Access Object for student operations
      */
     public static class StudentDAO {
+        // Most students a search returns
+        private static final int SEARCH_LIMIT = 200;
+        
+        // Students with their course progress and latest activity, all in one round trip
+        private static final String STUDENTS_QUERY =
+                "SELECT s.studentID, s.userID, u.username, u.email, c.courseName, " +
+                "IFNULL(e.completionPercentage, 0) as completionPercentage, " +
+                "la.lastActivity " +
+                "FROM Students s " +
+                "JOIN Users u ON s.userID = u.userID " +
+                "LEFT JOIN Enrollments e ON s.studentID = e.studentID " +
+                "LEFT JOIN Courses c ON e.courseID = c.courseID " +
+                "LEFT JOIN (SELECT studentID, MAX(activityDate) as lastActivity " +
+                "           FROM Activities GROUP BY studentID) la ON la.studentID = s.studentID ";
+        
         /**
          * Get all students from the database
          */
         public List<StudentData> getAllStudents() {
             List<StudentData> students = new ArrayList<>();
-            String query = "SELECT s.studentID, s.userID, u.username, u.email, c.courseName, " +
-                          "IFNULL(e.completionPercentage, 0) as completionPercentage " +
-                          "FROM Students s " +
-                          "JOIN Users u ON s.userID = u.userID " +
-                          "LEFT JOIN Enrollments e ON s.studentID = e.studentID " +
-                          "LEFT JOIN Courses c ON e.courseID = c.courseID " +
-                          "ORDER BY u.username";
+            String query = STUDENTS_QUERY + "ORDER BY u.username";
             try (Connection conn = DatabaseConnection.getConnection();
                  PreparedStatement stmt = conn.prepareStatement(query);
                  ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    int studentId = rs.getInt("studentID");
-                    int userId = rs.getInt("userID");
-                    String name = rs.getString("username");
-                    String email = rs.getString("email");
-                    String course = rs.getString("courseName");
-                    double progress = rs.getDouble("completionPercentage") / 100.0; // Convert to 0-1 scale
-                    StudentData student = new StudentData(
-                        studentId, userId, name, email, course, progress);
-                    // Try to get last activity for this student
-                    student.setLastActive(getLastActivity(studentId, conn));
-                    students.add(student);
+                    students.add(mapStudent(rs));
                 }
             } catch (SQLException e) {
                 System.err.println("Error retrieving students: " + e.getMessage());
@@ -110,52 +115,33 @@ public class StudentsPage {
         }
         
         /**
-         * Get last activity date for a student
-         */
-        private String getLastActivity(int studentId, Connection conn) {
-            String query = "SELECT MAX(activityDate) as lastActivity FROM Activities WHERE studentID = ?";
-            try (PreparedStatement stmt = conn.prepareStatement(query)) {
-                stmt.setInt(1, studentId);
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next() && rs.getTimestamp("lastActivity") != null) {
-                        return formatLastActive(rs.getTimestamp("lastActivity"));
-                    }
-                }
-            } catch (SQLException e) {
-                System.err.println("Error retrieving last activity: " + e.getMessage());
-            }
-            return "No activity";
-        }
-        
-        /**
-         * Search students by name or email
+         * Search students by name or email. Matching users come from the in-memory
+         * search index, so only the top SEARCH_LIMIT matches are looked up here.
          */
         public List<StudentData> searchStudents(String searchTerm) {
             List<StudentData> students = new ArrayList<>();
-            String query = "SELECT s.studentID, s.userID, u.username, u.email, c.courseName, " +
-                          "IFNULL(e.completionPercentage, 0) as completionPercentage " +
-                          "FROM Students s " +
-                          "JOIN Users u ON s.userID = u.userID " +
-                          "LEFT JOIN Enrollments e ON s.studentID = e.studentID " +
-                          "LEFT JOIN Courses c ON e.courseID = c.courseID " +
-                          "WHERE u.username LIKE ? OR u.email LIKE ? " +
-                          "ORDER BY u.username";
-            try (Connection conn = DatabaseConnection.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(query)) {
-                stmt.setString(1, "%" + searchTerm + "%");
-                stmt.setString(2, "%" + searchTerm + "%");
-                try (ResultSet rs = stmt.executeQuery()) {
-                    while (rs.next()) {
-                        int studentId = rs.getInt("studentID");
-                        int userId = rs.getInt("userID");
-                        String name = rs.getString("username");
-                        String email = rs.getString("email");
-                        String course = rs.getString("courseName");
-                        double progress = rs.getDouble("completionPercentage") / 100.0;
-                        StudentData student = new StudentData(
-                            studentId, userId, name, email, course, progress);
-                        student.setLastActive(getLastActivity(studentId, conn));
-                        students.add(student);
+            try {
+                List<UserSearchIndex.Entry> matches = UserSearchIndex.search(searchTerm, "Student", 0, SEARCH_LIMIT);
+                if (matches.isEmpty()) {
+                    return students;
+                }
+                
+                StringJoiner placeholders = new StringJoiner(", ", "(", ")");
+                for (int i = 0; i < matches.size(); i++) {
+                    placeholders.add("?");
+                }
+                String query = STUDENTS_QUERY +
+                              "WHERE u.userID IN " + placeholders + " " +
+                              "ORDER BY u.username";
+                try (Connection conn = DatabaseConnection.getConnection();
+                     PreparedStatement stmt = conn.prepareStatement(query)) {
+                    for (int i = 0; i < matches.size(); i++) {
+                        stmt.setInt(i + 1, matches.get(i).getUserId());
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            students.add(mapStudent(rs));
+                        }
                     }
                 }
             } catch (SQLException e) {
@@ -164,6 +150,23 @@ public class StudentsPage {
             return students;
         }
         
+        /**
+         * Build a StudentData from a row of STUDENTS_QUERY
+         */
+        private StudentData mapStudent(ResultSet rs) throws SQLException {
+            int studentId = rs.getInt("studentID");
+            int userId = rs.getInt("userID");
+            String name = rs.getString("username");
+            String email = rs.getString("email");
+            String course = rs.getString("courseName");
+            double progress = rs.getDouble("completionPercentage") / 100.0; // Convert to 0-1 scale
+            StudentData student = new StudentData(
+                studentId, userId, name, email, course, progress);
+            Timestamp lastActivity = rs.getTimestamp("lastActivity");
+            student.setLastActive(lastActivity != null ? formatLastActive(lastActivity) : "No activity");
+            return student;
+        }
+        
         /**
          * Get summary statistics for students
          */
@@ -260,6 +263,7 @@ public class StudentsPage {
     private StudentDAO studentDAO = new StudentDAO();
     private ObservableList<StudentData> students;
     private TableView<StudentData> studentsTable;
+    private Task<List<StudentData>> studentsLoad;
     
     public Node getView() {
         VBox view = new VBox(20);
@@ -281,36 +285,61 @@ public class StudentsPage {
         
         searchContainer.getChildren().addAll(searchField, searchBtn);
         
-        // Load students from database
-        students = FXCollections.observableArrayList(studentDAO.getAllStudents());
-        
-        // Students table
+        // Students table, filled in the background
+        students = FXCollections.observableArrayList();
         studentsTable = createStudentsTable();
         studentsTable.setItems(students);
         VBox.setVgrow(studentsTable, Priority.ALWAYS);
+        loadStudents(studentDAO::getAllStudents);
         
         // Search button action
-        searchBtn.setOnAction(e -> {
-            String searchTerm = searchField.getText().trim();
-            if (searchTerm.isEmpty()) {
-                // If search is empty, show all students
-                students.clear();
-                students.addAll(studentDAO.getAllStudents());
-            } else {
-                // Search by name or email
-                students.clear();
-                students.addAll(studentDAO.searchStudents(searchTerm));
-            }
-        });
+        searchBtn.setOnAction(e -> runSearch(searchField.getText().trim()));
         
-        // Get statistics
-        Map<String, Object> stats = studentDAO.getStudentStats();
+        // Search as you type, once typing pauses
+        PauseTransition searchDebounce = new PauseTransition(Duration.millis(200));
+        searchDebounce.setOnFinished(e -> runSearch(searchField.getText().trim()));
+        searchField.textProperty().addListener((obs, oldValue, newValue) -> searchDebounce.playFromStart());
         
         // Summary statistics
         HBox summaryStats = new HBox(20);
         summaryStats.setPadding(new Insets(15));
         summaryStats.setAlignment(Pos.CENTER);
+        summaryStats.getChildren().add(BackgroundLoader.skeleton(3));
+        HBox.setHgrow(summaryStats.getChildren().get(0), Priority.ALWAYS);
+        BackgroundLoader.load(summaryStats, studentDAO::getStudentStats,
+                stats -> showSummaryStats(summaryStats, stats));
         
+        view.getChildren().addAll(title, searchContainer, studentsTable, summaryStats);
+        return view;
+    }
+    
+    private void runSearch(String searchTerm) {
+        if (searchTerm.isEmpty()) {
+            // If search is empty, show all students
+            loadStudents(studentDAO::getAllStudents);
+        } else {
+            // Search by name or email
+            loadStudents(() -> studentDAO.searchStudents(searchTerm));
+        }
+    }
+    
+    /**
+     * Replace the table contents with the result of query, run in the background.
+     * A newer search cancels the one still running.
+     */
+    private void loadStudents(Callable<List<StudentData>> query) {
+        if (studentsLoad != null) {
+            studentsLoad.cancel();
+        }
+        students.clear();
+        studentsTable.setPlaceholder(BackgroundLoader.skeleton(8));
+        studentsLoad = BackgroundLoader.load(studentsTable, query, result -> {
+            studentsTable.setPlaceholder(new Label("No students found"));
+            students.setAll(result);
+        }, e -> studentsTable.setPlaceholder(BackgroundLoader.errorLabel(e)));
+    }
+    
+    private void showSummaryStats(HBox summaryStats, Map<String, Object> stats) {
         VBox totalStudents = createStatBox("Total Students", 
                                           String.valueOf(stats.get("totalStudents")), "");
         
@@ -327,10 +356,7 @@ public class StudentsPage {
         String avgGrade = (String) stats.get("avgGrade");
         VBox avgGradeBox = createStatBox("Average Grade", avgGrade, "");
         
-        summaryStats.getChildren().addAll(totalStudents, activeStudents, avgProgressBox, avgGradeBox);
-        
-        view.getChildren().addAll(title, searchContainer, studentsTable, summaryStats);
-        return view;
+        summaryStats.getChildren().setAll(totalStudents, activeStudents, avgProgressBox, avgGradeBox);
     }
     
     private TableView<StudentData> createStudentsTable() {
@@ -0,0 +1,174 @@
+package controllers_Instructors;
+
+import dao.DatabaseConnection;
+import services.UserSearchIndex;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Checks that the instructor Students page loads in the same number of round trips
+ * whatever the roster size.
+ * - Adds synthetic students (with one activity each) to reach each roster size in turn, then
+ *   runs the page's loads: StudentDAO.getAllStudents(), getStudentStats() and searchStudents()
+ * - Round trips are counted as statements created on pooled connections, and timed
+ * - Fails with exit code 1 if a larger roster needs more statements than the smallest one
+ * - The synthetic students are deleted again at the end
+ *
+ * Run against a development database:
+ *   java controllers_Instructors.StudentsPageBenchmark [rosterSize ...]   (default 100 1000)
+ */
+public class StudentsPageBenchmark {
+    // No LIKE wildcards in it, so cleanup matches only this run's users
+    private static final String NAME_PREFIX = "benchmark-" + System.currentTimeMillis() + "-";
+
+    public static void main(String[] args) throws Exception {
+        int[] rosterSizes = args.length > 0 ? new int[args.length] : new int[] {100, 1000};
+        for (int i = 0; i < args.length; i++) {
+            rosterSizes[i] = Integer.parseInt(args[i]);
+        }
+
+        StudentsPage.StudentDAO dao = new StudentsPage.StudentDAO();
+        List<Integer> userIds = new ArrayList<>();
+        long[] baseline = null;
+        boolean constant = true;
+        try {
+            // Load the search index and warm the pool, so neither is counted below
+            UserSearchIndex.ensureLoaded();
+            dao.getAllStudents();
+
+            for (int rosterSize : rosterSizes) {
+                addStudents(userIds, rosterSize - userIds.size());
+                long[] statements = {
+                    measure("getAllStudents", rosterSize, dao::getAllStudents),
+                    measure("getStudentStats", rosterSize, dao::getStudentStats),
+                    measure("searchStudents", rosterSize, () -> dao.searchStudents(NAME_PREFIX))
+                };
+                if (baseline == null) {
+                    baseline = statements;
+                } else {
+                    for (int i = 0; i < statements.length; i++) {
+                        constant &= statements[i] <= baseline[i];
+                    }
+                }
+            }
+        } finally {
+            removeStudents(userIds);
+            DatabaseConnection.shutdown();
+        }
+
+        System.out.println(constant
+                ? "OK: round trips do not grow with the roster size"
+                : "FAIL: a larger roster needed more round trips");
+        if (!constant) {
+            System.exit(1);
+        }
+    }
+
+    // Statements one call creates; also prints them with the call's time and result size
+    private static long measure(String name, int rosterSize, Callable<?> load) throws Exception {
+        long before = DatabaseConnection.getStatementCount();
+        long start = System.nanoTime();
+        Object result = load.call();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        long statements = DatabaseConnection.getStatementCount() - before;
+
+        String rows = result instanceof List ? ((List<?>) result).size() + " rows" : "stats";
+        System.out.printf("%-16s synthetic roster %6d: %d statement(s), %5d ms, %s%n",
+                name, rosterSize, statements, millis, rows);
+        return statements;
+    }
+
+    private static void addStudents(List<Integer> userIds, int count) throws SQLException {
+        if (count <= 0) {
+            return;
+        }
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                throw new SQLException("No database connection");
+            }
+            conn.setAutoCommit(false);
+            try {
+                List<Integer> added = new ArrayList<>(count);
+                String insertUser = "INSERT INTO Users (username, email, passwordHash, role) VALUES (?, ?, ?, 'Student')";
+                try (PreparedStatement pstmt = conn.prepareStatement(insertUser, Statement.RETURN_GENERATED_KEYS)) {
+                    for (int i = 0; i < count; i++) {
+                        String username = NAME_PREFIX + (userIds.size() + i);
+                        pstmt.setString(1, username);
+                        pstmt.setString(2, username + "@benchmark.invalid");
+                        pstmt.setString(3, "-");
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                    try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                        while (keys.next()) {
+                            added.add(keys.getInt(1));
+                        }
+                    }
+                }
+
+                String insertStudent = "INSERT INTO Students (userID) VALUES (?)";
+                try (PreparedStatement pstmt = conn.prepareStatement(insertStudent)) {
+                    for (int userId : added) {
+                        pstmt.setInt(1, userId);
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                }
+
+                String insertActivity = "INSERT INTO Activities (studentID, activityType, description) " +
+                        "SELECT studentID, 'Benchmark', 'Synthetic activity' FROM Students WHERE userID = ?";
+                try (PreparedStatement pstmt = conn.prepareStatement(insertActivity)) {
+                    for (int userId : added) {
+                        pstmt.setInt(1, userId);
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                }
+                conn.commit();
+
+                for (int userId : added) {
+                    String username = NAME_PREFIX + userIds.size();
+                    UserSearchIndex.put(userId, username, username + "@benchmark.invalid", "Student");
+                    userIds.add(userId);
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    // Activities do not cascade, so they go first; deleting the user removes the student
+    private static void removeStudents(List<Integer> userIds) throws SQLException {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                throw new SQLException("No database connection");
+            }
+            String deleteActivities = "DELETE a FROM Activities a JOIN Students s ON s.studentID = a.studentID " +
+                    "JOIN Users u ON u.userID = s.userID WHERE u.username LIKE ?";
+            String deleteUsers = "DELETE FROM Users WHERE username LIKE ?";
+            for (String query : new String[] {deleteActivities, deleteUsers}) {
+                try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                    pstmt.setString(1, NAME_PREFIX + "%");
+                    pstmt.executeUpdate();
+                }
+            }
+        }
+        for (int userId : userIds) {
+            UserSearchIndex.remove(userId);
+        }
+        System.out.println("Removed " + userIds.size() + " synthetic student(s)");
+    }
+}
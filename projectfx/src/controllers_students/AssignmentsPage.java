@@ -22,20 +22,28 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
 import javafx.scene.control.Alert.AlertType;
 import dao.DatabaseConnection;
+import services.AssignmentBoard;
+import services.AssignmentDraftWriter;
 
 /**
  * Displays student assignments with a modern user interface
  * connected to a database for real data
  */
 public class AssignmentsPage {
-    private final Map<String, SubjectData> subjectDataMap = new HashMap<>();
+    private static final DateTimeFormatter AUTOSAVE_TIME_FORMAT = DateTimeFormatter.ofPattern("h:mm:ss a");
+    
+    // Kept in period order, which the subject selector shows
+    private final Map<String, SubjectData> subjectDataMap = new LinkedHashMap<>();
     private final StringProperty currentSubject = new SimpleStringProperty();
     private final VBox dynamicContent = new VBox(20);
     
@@ -83,7 +91,7 @@ public class AssignmentsPage {
     }
     
     /**
-     * Loads subjects and assignments from the database
+     * Loads subjects and assignments from the student's cached assignment board
      */
     private void loadSubjectsAndAssignments() {
         subjectDataMap.clear();
@@ -92,97 +100,39 @@ public class AssignmentsPage {
             return;
         }
         
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            // First get all subjects (courses) the student is enrolled in
-            String subjectQuery = 
-                "SELECT c.courseID, c.courseName, c.courseColor, " +
-                "CONCAT('Period ', e.periodNumber) as period " +
-                "FROM Courses c " +
-                "JOIN Enrollments e ON c.courseID = e.courseID " +
-                "WHERE e.studentID = ? " +
-                "ORDER BY e.periodNumber";
+        try {
+            // One query for every enrolled course, or only the progress changed since the last load
+            for (AssignmentBoard.Subject subject : AssignmentBoard.forStudent(studentId)) {
+                String color = subject.getColor();
                 
-            try (PreparedStatement pstmt = conn.prepareStatement(subjectQuery)) {
-                pstmt.setInt(1, studentId);
-                try (ResultSet rs = pstmt.executeQuery()) {
-                    boolean hasSubjects = false;
-                    while (rs.next()) {
-                        hasSubjects = true;
-                        int courseId = rs.getInt("courseID");
-                        String courseName = rs.getString("courseName");
-                        String period = rs.getString("period");
-                        String color = rs.getString("courseColor");
-                        
-                        // If color is null, assign a default color
-                        if (color == null || color.isEmpty()) {
-                            color = getDefaultColor(courseName);
-                        }
-                        
-                        // Load assignments for this course
-                        ObservableList<Assignment> assignments = loadAssignmentsForCourse(courseId);
-                        
-                        // Add to the subject map
-                        subjectDataMap.put(courseName, new SubjectData(courseName, period, color, assignments));
-                    }
-                    
-                    // Set initial subject if we have any
-                    if (hasSubjects && !subjectDataMap.isEmpty()) {
-                        currentSubject.set(subjectDataMap.keySet().iterator().next());
-                    }
+                // If color is null, assign a default color
+                if (color == null || color.isEmpty()) {
+                    color = getDefaultColor(subject.getName());
                 }
-            }
-        } catch (SQLException e) {
-            showError("Database Error", "Error loading subjects: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-    
-    /**
-     * Loads assignments for a specific course
-     */
-    private ObservableList<Assignment> loadAssignmentsForCourse(int courseId) {
-        ObservableList<Assignment> assignments = FXCollections.observableArrayList();
-        
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            String query = 
-                "SELECT a.assignmentID, a.title, a.dueDate, ap.status, ap.content, " +
-                "a.points, a.priority, a.description " +
-                "FROM Assignments a " +
-                "LEFT JOIN AssignmentProgress ap ON a.assignmentID = ap.assignmentID AND ap.studentID = ? " +
-                "WHERE a.courseID = ? " +
-                "ORDER BY a.dueDate";
                 
-            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-                pstmt.setInt(1, studentId);
-                pstmt.setInt(2, courseId);
-                try (ResultSet rs = pstmt.executeQuery()) {
-                    while (rs.next()) {
-                        int assignmentId = rs.getInt("assignmentID");
-                        String title = rs.getString("title");
-                        LocalDate dueDate = rs.getDate("dueDate").toLocalDate();
-                        
-                        // Get status - if null, set as "Not started"
-                        String status = rs.getString("status");
-                        if (status == null || status.isEmpty()) {
-                            status = "Not started";
-                        }
-                        
-                        String content = rs.getString("content"); // Get submitted content if available
-                        String points = rs.getString("points");
-                        String priority = rs.getString("priority");
-                        String description = rs.getString("description");
-                        
-                        Assignment assignment = new Assignment(assignmentId, title, dueDate, status, points, priority, description, content);
-                        assignments.add(assignment);
+                ObservableList<Assignment> assignments = FXCollections.observableArrayList();
+                for (AssignmentBoard.Item item : subject.getItems()) {
+                    // Get status - if null, set as "Not started"
+                    String status = item.getStatus();
+                    if (status == null || status.isEmpty()) {
+                        status = "Not started";
                     }
+                    assignments.add(new Assignment(item.getAssignmentId(), item.getTitle(), item.getDueDate(),
+                            status, item.getPoints(), item.getPriority(), item.getDescription(), item.getContent(),
+                            item.getLastUpdated()));
                 }
+                
+                subjectDataMap.put(subject.getName(), new SubjectData(subject.getName(), subject.getPeriod(), color, assignments));
+            }
+            
+            // Set initial subject if we have any, keeping the one shown across reloads
+            if (!subjectDataMap.isEmpty() && !subjectDataMap.containsKey(currentSubject.get())) {
+                currentSubject.set(subjectDataMap.keySet().iterator().next());
             }
         } catch (SQLException e) {
-            showError("Database Error", "Error loading assignments: " + e.getMessage());
+            showError("Database Error", "Error loading subjects: " + e.getMessage());
             e.printStackTrace();
         }
-        
-        return assignments;
     }
     
     /**
@@ -805,17 +755,34 @@ public class AssignmentsPage {
         submissionArea.setWrapText(true);
         submissionArea.setPrefHeight(150);
         
+        Label autosaveLabel = new Label();
+        autosaveLabel.setFont(Font.font("Arial", 11));
+        autosaveLabel.setTextFill(Color.web("#7f8c8d"));
+        autosaveLabel.setWrapText(true);
+        
+        // Drafts are autosaved in the background until the assignment is submitted
+        boolean completed = assignment.getStatus().equalsIgnoreCase("Completed");
+        AssignmentDraftWriter.Session draft = completed ? null : AssignmentDraftWriter.open(
+                studentId, assignment.getId(), assignment.getContent(), assignment.getLastUpdated(),
+                state -> Platform.runLater(() -> showAutosaveState(autosaveLabel, state)));
+        
         // Pre-fill with existing content if available
-        if (assignment.getContent() != null && !assignment.getContent().isEmpty()) {
-            submissionArea.setText(assignment.getContent());
+        String savedContent = draft != null ? draft.getSavedContent() : assignment.getContent();
+        if (savedContent != null && !savedContent.isEmpty()) {
+            submissionArea.setText(savedContent);
+        }
+        if (draft != null && draft.getUnsavedDraft() != null) {
+            submissionArea.setText(draft.getUnsavedDraft());
+            autosaveLabel.setText("Restored a draft that had not been saved yet");
         }
         
         // Set readonly if already completed
-        if (assignment.getStatus().equalsIgnoreCase("Completed")) {
+        if (completed) {
             submissionArea.setEditable(false);
             submissionArea.setStyle("-fx-control-inner-background: #f9f9f9;");
         } else {
             submissionArea.setPromptText("Enter your submission here...");
+            submissionArea.textProperty().addListener((obs, oldText, newText) -> draft.edit(newText));
         }
         
         // Add all components to content box
@@ -824,7 +791,8 @@ public class AssignmentsPage {
             descriptionHeader,
             descriptionArea,
             submissionHeader,
-            submissionArea
+            submissionArea,
+            autosaveLabel
         );
         
         // Create buttons for actions
@@ -855,49 +823,50 @@ public class AssignmentsPage {
         // Handle the result
         Optional<String> result = dialog.showAndWait();
         
-        result.ifPresent(content -> {
+        if (result.isPresent()) {
             // Save the content and update status
-            saveAssignmentContent(assignment.getId(), content);
-            
-            // Refresh the view
-            loadSubjectsAndAssignments();
-            updateContent(currentSubject.get());
-        });
+            saveAssignmentContent(assignment.getId(), result.get());
+        } else if (draft != null) {
+            // Save the last edits now, then show the draft's status in the table
+            draft.close().whenComplete((ignored, error) -> Platform.runLater(() -> {
+                loadSubjectsAndAssignments();
+                updateContent(currentSubject.get());
+            }));
+        }
+    }
+    
+    /**
+     * Shows what became of the latest draft autosave
+     */
+    private void showAutosaveState(Label autosaveLabel, AssignmentDraftWriter.State state) {
+        switch (state) {
+            case SAVED:
+                autosaveLabel.setText("Draft saved at " + LocalTime.now().format(AUTOSAVE_TIME_FORMAT));
+                autosaveLabel.setTextFill(Color.web("#7f8c8d"));
+                break;
+            case CONFLICT:
+                autosaveLabel.setText("This assignment was changed elsewhere. Your draft is kept on this " +
+                        "computer and will be restored when you reopen the assignment.");
+                autosaveLabel.setTextFill(Color.web("#e74c3c"));
+                break;
+            case FAILED:
+                autosaveLabel.setText("Could not save the draft; it is kept on this computer and will be retried.");
+                autosaveLabel.setTextFill(Color.web("#f39c12"));
+                break;
+        }
     }
     
     /**
-     * Saves assignment content and updates status to Completed
+     * Saves assignment content in the background and updates status to Completed
      */
     private void saveAssignmentContent(int assignmentId, String content) {
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            // Check if a record already exists
-            String checkQuery = "SELECT * FROM AssignmentProgress WHERE assignmentID = ? AND studentID = ?";
-            try (PreparedStatement pstmt = conn.prepareStatement(checkQuery)) {
-                pstmt.setInt(1, assignmentId);
-                pstmt.setInt(2, studentId);
-                ResultSet rs = pstmt.executeQuery();
-                
-                if (rs.next()) {
-                    // Update existing record
-                    String updateQuery = "UPDATE AssignmentProgress SET content = ?, status = 'Completed', lastUpdated = CURRENT_TIMESTAMP " +
-                                         "WHERE assignmentID = ? AND studentID = ?";
-                    try (PreparedStatement updateStmt = conn.prepareStatement(updateQuery)) {
-                        updateStmt.setString(1, content);
-                        updateStmt.setInt(2, assignmentId);
-                        updateStmt.setInt(3, studentId);
-                        updateStmt.executeUpdate();
-                    }
-                } else {
-                    // Insert new record
-                    String insertQuery = "INSERT INTO AssignmentProgress (assignmentID, studentID, content, status, lastUpdated) " +
-                                         "VALUES (?, ?, ?, 'Completed', CURRENT_TIMESTAMP)";
-                    try (PreparedStatement insertStmt = conn.prepareStatement(insertQuery)) {
-                        insertStmt.setInt(1, assignmentId);
-                        insertStmt.setInt(2, studentId);
-                        insertStmt.setString(3, content);
-                        insertStmt.executeUpdate();
-                    }
-                }
+        AssignmentDraftWriter.submit(studentId, assignmentId, content).whenComplete((ignored, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                showError("Database Error", "Error saving assignment: " + cause.getMessage() +
+                        "\nYour answer is kept on this computer and will be restored when you reopen the assignment.");
+                cause.printStackTrace();
+                return;
             }
             
             // Show success message
@@ -907,10 +876,10 @@ public class AssignmentsPage {
             alert.setContentText("Your assignment has been submitted successfully and marked as completed.");
             alert.showAndWait();
             
-        } catch (SQLException e) {
-            showError("Database Error", "Error saving assignment: " + e.getMessage());
-            e.printStackTrace();
-        }
+            // Refresh the view
+            loadSubjectsAndAssignments();
+            updateContent(currentSubject.get());
+        }));
     }
     
     /**
@@ -967,10 +936,11 @@ public class AssignmentsPage {
         private final StringProperty priority;
         private final String description;
         private final String content;
+        private final Timestamp lastUpdated;
         private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM d, yyyy");
         
         public Assignment(int id, String assignmentName, LocalDate dueDate, String status, String points, 
-                         String priority, String description, String content) {
+                         String priority, String description, String content, Timestamp lastUpdated) {
             this.id = id;
             this.assignmentName = new SimpleStringProperty(assignmentName);
             this.dueDate = dueDate;
@@ -980,6 +950,7 @@ public class AssignmentsPage {
             this.priority = new SimpleStringProperty(priority);
             this.description = description != null ? description : "No description available.";
             this.content = content;
+            this.lastUpdated = lastUpdated;
         }
         
         private String formatDueDate(LocalDate date) {
@@ -1008,6 +979,7 @@ public class AssignmentsPage {
         public String getPriority() { return priority.get(); }
         public String getDescription() { return description; }
         public String getContent() { return content; }
+        public Timestamp getLastUpdated() { return lastUpdated; }
         public void setStatus(String newStatus) {
             status.set(newStatus);
         }
@@ -1,6 +1,7 @@
 package controllers_students;
 import javafx.animation.FadeTransition;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
@@ -18,12 +19,22 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
 import javafx.util.Duration;
+import java.io.IOException;
+import java.io.Reader;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import java.util.regex.Pattern;
+import javafx.concurrent.Task;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import dao.DatabaseConnection;
+import services.BackgroundLoader;
+import services.EnrollmentProgress;
+import services.LessonContentCache;
+import services.LessonViewer;
 
 public class CoursesPage extends Application {
     // Constants for color scheme
@@ -35,9 +46,22 @@ public class CoursesPage extends Application {
     private static final String TEXT_COLOR = "#2c3e50";
     private static final String SUBTEXT_COLOR = "#7f8c8d";
 
+    private static final String NO_LESSONS_MESSAGE =
+        "This course doesn't have any lessons yet. Check back later for updates!";
+    private static final int PREVIEW_CHARS = 100;
+    // Markdown markers are stripped before cutting, so read a little more than is shown
+    private static final int PREVIEW_SOURCE_CHARS = 300;
+    private static final Pattern HEADING_MARKER = Pattern.compile("#\\s+");
+    private static final Pattern BOLD_MARKER = Pattern.compile("\\*\\*");
+    private static final String LESSON_DIVIDER = "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━";
+    // Longer lines are split across rows, so one row never has to lay out a huge paragraph
+    private static final int MAX_LINE_CHARS = 2000;
+    // Bigger lessons are streamed every time rather than kept in the lesson cache
+    private static final long MAX_CACHED_LESSON_CHARS = 512 * 1024;
+
     // UI components
     private Label lessonTitleLabel;
-    private TextArea lessonContentArea;
+    private LessonViewer lessonContentArea;
     private Button lessonActionButton;
     private Button previousButton;
     private Button nextButton;
@@ -51,22 +75,19 @@ public class CoursesPage extends Application {
 
     // Course data from database
     private List<Course> enrolledCourses = new ArrayList<>();
+    private boolean coursesLoaded = false; // False while a background load is running
     private int currentCourseId = 0;
     private int currentLessonId = 0;
+    private Task<CourseOutline> overviewLoad; // Outline of the course being shown, if still loading
+    private LessonNavigation navigation; // Lessons of the open course; null until its outline has loaded
+    private Task<LessonContentCache.Lesson> lessonLoad; // Lesson being streamed in, if any
+    private int lessonGeneration; // Bumped per lesson shown, so late batches of an older lesson are dropped
 
     public CoursesPage() {
         this.currentUser = Login.getLoggedInUser();
         if (currentUser != null) {
             this.currentUserId = currentUser.getUserID();
-            try {
-                this.studentId = getStudentId(currentUserId);
-                System.out.println("Student ID: " + studentId); // Debug output
-            } catch (SQLException e) {
-                showError("Database Error", "Error retrieving student ID: " + e.getMessage());
-                e.printStackTrace();
-            }
         }
-        loadEnrolledCourses();
     }
 
     public CoursesPage(int userId) {
@@ -76,14 +97,6 @@ public class CoursesPage extends Application {
             this.currentUser = loggedInUser;
             this.currentUserId = loggedInUser.getUserID();
         }
-        try {
-            this.studentId = getStudentId(currentUserId);
-            System.out.println("Student ID: " + studentId); // Debug output
-        } catch (SQLException e) {
-            showError("Database Error", "Error retrieving student ID: " + e.getMessage());
-            e.printStackTrace();
-        }
-        loadEnrolledCourses();
     }
 
     public static void main(String[] args) {
@@ -103,182 +116,156 @@ public class CoursesPage extends Application {
         return createMainView();
     }
 
-    private void loadEnrolledCourses() {
-        enrolledCourses.clear();
-        if (studentId <= 0) {
-            System.out.println("No student ID available, cannot load courses");
-            return;
-        }
-        
+    /**
+     * Load enrolled courses in the background, then run onLoaded on the FX thread
+     */
+    private void loadEnrolledCourses(Runnable onLoaded) {
+        BackgroundLoader.load(mainContent, this::queryEnrolledCourses, courses -> {
+            enrolledCourses = courses;
+            coursesLoaded = true;
+            onLoaded.run();
+        }, e -> {
+            showError("Database Error", "Error loading enrolled courses: " + e.getMessage());
+            enrolledCourses = new ArrayList<>();
+            coursesLoaded = true;
+            onLoaded.run();
+        });
+    }
+
+    // One connection and one query for the whole list; lesson overviews are loaded when a course is opened
+    private List<Course> queryEnrolledCourses() throws SQLException {
+        List<Course> courses = new ArrayList<>();
         try (Connection conn = DatabaseConnection.getConnection()) {
-            System.out.println("Database connection successful for loading enrolled courses");
-            // Updated query to correctly calculate progress
+            if (conn == null) {
+                throw new SQLException("Cannot connect to database");
+            }
+            if (studentId <= 0) {
+                studentId = getStudentId(currentUserId, conn);
+                System.out.println("Student ID: " + studentId); // Debug output
+            }
+            if (studentId <= 0) {
+                System.out.println("No student ID available, cannot load courses");
+                return courses;
+            }
+
+            // EnrollmentProgress keeps the lesson counters and percentage on each enrollment
             String query = "SELECT c.courseID, c.courseName, c.description, " +
-                "IFNULL(ROUND((SELECT COUNT(*) FROM LessonProgress lp " +
-                "JOIN Lessons l ON lp.lessonID = l.lessonID " +
-                "WHERE l.courseID = c.courseID AND lp.studentID = ? " +
-                "AND lp.completionStatus = 'Completed') * 100.0 / " +
-                "(SELECT COUNT(*) FROM Lessons WHERE courseID = c.courseID), 0), 0) as progressPercentage " +
-                "FROM Courses c " +
-                "JOIN Enrollments e ON c.courseID = e.courseID " +
+                "e.totalLessons, e.completionPercentage " +
+                "FROM Enrollments e " +
+                "JOIN Courses c ON c.courseID = e.courseID " +
                 "WHERE e.studentID = ?";
-            
+
             try (PreparedStatement pstmt = conn.prepareStatement(query)) {
                 pstmt.setInt(1, studentId);
-                pstmt.setInt(2, studentId);
-                
+
                 try (ResultSet rs = pstmt.executeQuery()) {
                     while (rs.next()) {
-                        int courseId = rs.getInt("courseID");
                         String courseName = rs.getString("courseName");
                         String description = rs.getString("description");
-                        double progress = rs.getDouble("progressPercentage") / 100.0;
-                        String content = getCourseContent(courseId);
-                        
-                        Course course = new Course(
-                            courseId,
+                        int totalLessons = rs.getInt("totalLessons");
+                        // Whole percent, as shown on the cards
+                        double progress = Math.round(rs.getDouble("completionPercentage")) / 100.0;
+
+                        courses.add(new Course(
+                            rs.getInt("courseID"),
                             courseName,
                             progress,
-                            content,
+                            totalLessons,
                             description != null ? description : "No description available"
-                        );
-                        
-                        enrolledCourses.add(course);
+                        ));
                         System.out.println("Loaded course: " + courseName + " with progress: " + progress);
                     }
                 }
             }
-        } catch (SQLException e) {
-            System.out.println("Database connection failed: " + e.getMessage());
-            e.printStackTrace();
-            showError("Database Error", "Error loading enrolled courses: " + e.getMessage());
         }
+        return courses;
     }
 
-    private String getCourseContent(int courseId) {
+    /**
+     * Lesson list with short previews for one course, plus the lesson navigation index,
+     * from a single query. Only the first characters of each lesson are read, since the
+     * preview never shows more.
+     */
+    private CourseOutline loadCourseOutline(int courseId, int totalLessons) throws SQLException {
+        if (totalLessons == 0) {
+            return new CourseOutline(NO_LESSONS_MESSAGE, new LessonNavigation(new int[0], new int[0], new BitSet()));
+        }
+
+        int[] lessonIds = new int[totalLessons];
+        int[] versions = new int[totalLessons];
+        BitSet completed = new BitSet(totalLessons);
+        int lessonCount = 0;
         StringBuilder content = new StringBuilder();
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            // First, check if the content column exists
-            boolean contentColumnExists = checkIfContentColumnExists(conn);
-            
-            // Get the total number of lessons for this course
-            int totalLessons = 0;
-            String countQuery = "SELECT COUNT(*) as total FROM Lessons WHERE courseID = ?";
-            try (PreparedStatement countStmt = conn.prepareStatement(countQuery)) {
-                countStmt.setInt(1, courseId);
-                try (ResultSet countRs = countStmt.executeQuery()) {
-                    if (countRs.next()) {
-                        totalLessons = countRs.getInt("total");
+        content.append("Course Overview\n\n");
+        content.append("This course contains " + totalLessons + " lessons:\n\n");
+
+        String query = "SELECT l.lessonID, l.contentVersion, l.title, l.category, " +
+               "LEFT(l.content, " + PREVIEW_SOURCE_CHARS + ") AS contentStart, " +
+               "lp.completionStatus, lp.completionDate " +
+               "FROM Lessons l " +
+               "LEFT JOIN LessonProgress lp ON l.lessonID = lp.lessonID AND lp.studentID = ? " +
+               "WHERE l.courseID = ? " +
+               "ORDER BY l.lessonID";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setInt(1, studentId);
+            pstmt.setInt(2, courseId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                int lessonNumber = 1;
+                while (rs.next()) {
+                    String title = rs.getString("title");
+                    String category = rs.getString("category");
+                    String status = rs.getString("completionStatus");
+                    Date completionDate = rs.getDate("completionDate");
+
+                    // Lessons may have been added since the count was read
+                    if (lessonCount == lessonIds.length) {
+                        lessonIds = Arrays.copyOf(lessonIds, lessonCount * 2);
+                        versions = Arrays.copyOf(versions, lessonCount * 2);
                     }
-                }
-            }
-            
-            if (totalLessons == 0) {
-                return "This course doesn't have any lessons yet. Check back later for updates!";
-            }
-            
-            // Add a course overview heading
-            content.append("Course Overview\n\n");
-            content.append("This course contains " + totalLessons + " lessons:\n\n");
-            
-            String query;
-            if (contentColumnExists) {
-                query = "SELECT l.lessonID, l.title, l.category, " +
-                       "l.content, lp.completionStatus, lp.completionDate " +
-                       "FROM Lessons l " +
-                       "LEFT JOIN LessonProgress lp ON l.lessonID = lp.lessonID AND lp.studentID = ? " +
-                       "WHERE l.courseID = ? " +
-                       "ORDER BY l.lessonID";
-            } else {
-                // If content column doesn't exist, don't include it in the query
-                query = "SELECT l.lessonID, l.title, l.category, " +
-                       "lp.completionStatus, lp.completionDate " +
-                       "FROM Lessons l " +
-                       "LEFT JOIN LessonProgress lp ON l.lessonID = lp.lessonID AND lp.studentID = ? " +
-                       "WHERE l.courseID = ? " +
-                       "ORDER BY l.lessonID";
-            }
-            
-            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-                pstmt.setInt(1, studentId);
-                pstmt.setInt(2, courseId);
-                
-                try (ResultSet rs = pstmt.executeQuery()) {
-                    int lessonNumber = 1;
-                    while (rs.next()) {
-                        int lessonId = rs.getInt("lessonID");
-                        String title = rs.getString("title");
-                        String category = rs.getString("category");
-                        String status = rs.getString("completionStatus");
-                        Date completionDate = rs.getDate("completionDate");
-                        
-                        // Add lesson number and title in a clean format
-                        content.append(lessonNumber + ". " + title + "\n");
-                        content.append("   Category: " + (category != null ? category : "Uncategorized") + "\n");
-                        content.append("   Status: " + (status != null ? status : "Not Started") + "\n");
-                        
-                        if (completionDate != null) {
-                            content.append("   Completed on: " + completionDate + "\n");
-                        }
-                        
-                        // Only add content preview if the column exists
-                        if (contentColumnExists) {
-                            String lessonContent = rs.getString("content");
-                            if (lessonContent != null && !lessonContent.isEmpty()) {
-                                // Remove markdown formatting and take a short preview
-                                String cleanContent = lessonContent
-                                    .replaceAll("#\\s+", "")
-                                    .replaceAll("\\*\\*", "")
-                                    .trim();
-                                
-                                if (cleanContent.length() > 100) {
-                                    content.append("   Preview: " + cleanContent.substring(0, 100) + "...\n");
-                                } else {
-                                    content.append("   Preview: " + cleanContent + "\n");
-                                }
-                            } else {
-                                content.append("   Preview: Content will be available soon.\n");
-                            }
+                    if ("Completed".equals(status)) {
+                        completed.set(lessonCount);
+                    }
+                    versions[lessonCount] = rs.getInt("contentVersion");
+                    lessonIds[lessonCount++] = rs.getInt("lessonID");
+
+                    // Add lesson number and title in a clean format
+                    content.append(lessonNumber + ". " + title + "\n");
+                    content.append("   Category: " + (category != null ? category : "Uncategorized") + "\n");
+                    content.append("   Status: " + (status != null ? status : "Not Started") + "\n");
+
+                    if (completionDate != null) {
+                        content.append("   Completed on: " + completionDate + "\n");
+                    }
+
+                    String lessonContent = rs.getString("contentStart");
+                    if (lessonContent != null && !lessonContent.isEmpty()) {
+                        // Remove markdown formatting and take a short preview
+                        String cleanContent = BOLD_MARKER.matcher(
+                            HEADING_MARKER.matcher(lessonContent).replaceAll("")).replaceAll("").trim();
+
+                        if (cleanContent.length() > PREVIEW_CHARS) {
+                            content.append("   Preview: " + cleanContent.substring(0, PREVIEW_CHARS) + "...\n");
+                        } else {
+                            content.append("   Preview: " + cleanContent + "\n");
                         }
-                        
-                        content.append("\n");
-                        lessonNumber++;
+                    } else {
+                        content.append("   Preview: Content will be available soon.\n");
                     }
+
+                    content.append("\n");
+                    lessonNumber++;
                 }
             }
-        } catch (SQLException e) {
-            content.append("Error loading course content: ").append(e.getMessage());
-            e.printStackTrace();
-        }
-        
-        if (content.length() == 0) {
-            content.append("This course doesn't have any lessons yet. Check back later for updates!");
-        }
-        
-        return content.toString();
-    }
-
-    // Check if content column exists in Lessons table
-    private boolean checkIfContentColumnExists(Connection conn) throws SQLException {
-        boolean exists = false;
-        try (ResultSet rs = conn.getMetaData().getColumns(null, null, "Lessons", "content")) {
-            exists = rs.next();
         }
-        System.out.println("Content column exists: " + exists);
-        
-        // If column doesn't exist, create it
-        if (!exists) {
-            try (Statement stmt = conn.createStatement()) {
-                stmt.executeUpdate("ALTER TABLE Lessons ADD COLUMN content TEXT");
-                System.out.println("Added missing content column to Lessons table");
-                return true;
-            } catch (SQLException e) {
-                System.out.println("Failed to add content column: " + e.getMessage());
-                e.printStackTrace();
-                return false;
-            }
+        if (lessonCount == 0) {
+            content.setLength(0);
+            content.append(NO_LESSONS_MESSAGE);
         }
-        return exists;
+        return new CourseOutline(content.toString(),
+            new LessonNavigation(Arrays.copyOf(lessonIds, lessonCount), Arrays.copyOf(versions, lessonCount), completed));
     }
 
     private BorderPane createMainView() {
@@ -300,9 +287,14 @@ public class CoursesPage extends Application {
         HBox footer = createFooter();
         root.setBottom(footer);
         
+        loadEnrolledCourses(this::showCoursesView);
         return root;
     }
 
+    private void showCoursesView() {
+        mainContent.getChildren().setAll(createCoursesView());
+    }
+
     private HBox createHeader() {
         HBox header = new HBox(15);
         header.setPadding(new Insets(20, 30, 15, 30));
@@ -337,6 +329,12 @@ public class CoursesPage extends Application {
         subtitleLabel.setFont(Font.font("Segoe UI", 16));
         subtitleLabel.setTextFill(Color.web(SUBTEXT_COLOR));
         
+        if (!coursesLoaded) {
+            // Placeholder until the background load finishes
+            coursesView.getChildren().addAll(welcomeLabel, subtitleLabel, BackgroundLoader.skeleton(8));
+            return coursesView;
+        }
+        
         System.out.println("Enrolled courses count: " + enrolledCourses.size());
         
         if (enrolledCourses.isEmpty()) {
@@ -480,17 +478,8 @@ public class CoursesPage extends Application {
         metadataBar.setAlignment(Pos.CENTER_LEFT);
         metadataBar.setPadding(new Insets(10, 0, 10, 0));
         
-        lessonContentArea = new TextArea();
-        lessonContentArea.setWrapText(true);
-        lessonContentArea.setEditable(false);
+        lessonContentArea = new LessonViewer();
         lessonContentArea.setPrefHeight(400);
-        lessonContentArea.setStyle(
-            "-fx-control-inner-background: white; " +
-            "-fx-background-color: white; " +
-            "-fx-border-color: #ecf0f1; " +
-            "-fx-border-radius: 5;"
-        );
-        lessonContentArea.setFont(Font.font("Segoe UI", 14));
         
         contentSection.getChildren().addAll(metadataBar, lessonContentArea);
         VBox.setVgrow(contentSection, Priority.ALWAYS);
@@ -543,205 +532,225 @@ public class CoursesPage extends Application {
     }
 
     private void navigateToPreviousLesson() {
-        try {
-            int prevLessonId = getPreviousLesson(currentCourseId, currentLessonId);
-            if (prevLessonId > 0) {
-                currentLessonId = prevLessonId;
-                updateLessonContent();
-            } else {
-                showError("Navigation", "You are at the first lesson of this course.");
-            }
-        } catch (SQLException e) {
-            showError("Database Error", "Error navigating to previous lesson: " + e.getMessage());
+        if (navigation == null) {
+            return;
+        }
+        int prevLessonId = navigation.previous(currentLessonId);
+        if (prevLessonId > 0) {
+            currentLessonId = prevLessonId;
+            updateLessonContent();
+        } else {
+            showError("Navigation", "You are at the first lesson of this course.");
         }
     }
 
     private void navigateToNextLesson() {
-        try {
-            int nextLessonId = getNextLesson(currentCourseId, currentLessonId);
-            if (nextLessonId > 0) {
-                currentLessonId = nextLessonId;
-                updateLessonContent();
-            } else {
-                showError("Navigation", "You are at the last lesson of this course.");
-            }
-        } catch (SQLException e) {
-            showError("Database Error", "Error navigating to next lesson: " + e.getMessage());
+        if (navigation == null) {
+            return;
         }
+        int nextLessonId = navigation.next(currentLessonId);
+        if (nextLessonId > 0) {
+            currentLessonId = nextLessonId;
+            updateLessonContent();
+        } else {
+            showError("Navigation", "You are at the last lesson of this course.");
+        }
+    }
+
+    private void updateNavigationButtons() {
+        previousButton.setDisable(navigation == null || navigation.previous(currentLessonId) == 0);
+        nextButton.setDisable(navigation == null || navigation.next(currentLessonId) == 0);
     }
 
     private void updateLessonContent() {
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            // Check if content column exists
-            boolean contentColumnExists = checkIfContentColumnExists(conn);
-            
-            // Use appropriate query based on column existence
-            String query;
-            if (contentColumnExists) {
-                query = "SELECT title, content, category FROM Lessons WHERE lessonID = ?";
-            } else {
-                query = "SELECT title, category FROM Lessons WHERE lessonID = ?";
-            }
+        // A lesson replaces the overview, so a late overview must not overwrite it
+        cancelOverviewLoad();
+        cancelLessonLoad();
+        int lessonId = currentLessonId;
+        int generation = ++lessonGeneration;
+        
+        // Repeat views come straight from the cache; anything else is streamed in
+        int version = navigation != null ? navigation.version(lessonId) : -1;
+        LessonContentCache.Lesson cached = LessonContentCache.get(lessonId, version);
+        if (cached != null) {
+            lessonTitleLabel.setText(cached.getTitle());
+            lessonContentArea.setLines(cached.getLines());
+        } else {
+            lessonContentArea.setText("Loading lesson...");
+            lessonLoad = BackgroundLoader.load(mainContent, () -> streamLesson(lessonId, generation), lesson -> {
+                lessonLoad = null;
+                if (lesson != null) {
+                    LessonContentCache.put(lesson);
+                    // The lesson may have been edited since the course was opened
+                    if (navigation != null) {
+                        navigation.setVersion(lessonId, lesson.getVersion());
+                    }
+                }
+            }, e -> {
+                lessonLoad = null;
+                lessonContentArea.setText("Error loading lesson content: " + e.getMessage());
+            });
+        }
+        updateNavigationButtons();
+        
+        // Update completion status button
+        boolean isCompleted = navigation != null && navigation.isCompleted(lessonId);
+        if (isCompleted) {
+            lessonActionButton.setText("Completed");
+            lessonActionButton.setStyle(
+                "-fx-background-color: " + ACCENT_COLOR + "; " +
+                "-fx-text-fill: white; " +
+                "-fx-background-radius: 5; " +
+                "-fx-font-weight: bold;"
+            );
+        } else {
+            lessonActionButton.setText("Mark as Completed");
+            lessonActionButton.setStyle(
+                "-fx-background-color: " + SECONDARY_COLOR + "; " +
+                "-fx-text-fill: white; " +
+                "-fx-background-radius: 5; " +
+                "-fx-font-weight: bold;"
+            );
+            // Set action for marking lesson as completed
+            lessonActionButton.setOnAction(e -> {
+                try {
+                    markLessonAsCompleted(currentCourseId, studentId, currentLessonId);
+                    updateLessonContent(); // Refresh the content
+                    Alert successAlert = new Alert(AlertType.INFORMATION);
+                    successAlert.setTitle("Progress Updated");
+                    successAlert.setHeaderText("Lesson Completed!");
+                    successAlert.setContentText("Your progress has been updated.");
+                    successAlert.show();
+                } catch (SQLException ex) {
+                    showError("Error", "Could not update progress: " + ex.getMessage());
+                }
+            });
+        }
+    }
+    
+    private void cancelLessonLoad() {
+        if (lessonLoad != null) {
+            lessonLoad.cancel();
+            lessonLoad = null;
+        }
+    }
+    
+    /**
+     * Read one lesson through a character stream, cleaning up the markdown a line at a time
+     * and handing lines to the viewer in batches as they are read. Runs in the background.
+     * Returns the lesson for the cache, or null when it is too large to cache or was cancelled.
+     */
+    private LessonContentCache.Lesson streamLesson(int lessonId, int generation) throws SQLException, IOException {
+        String query = "SELECT title, category, contentVersion, content FROM Lessons WHERE lessonID = ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setInt(1, lessonId);
             
-            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-                pstmt.setInt(1, currentLessonId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                String title = rs.getString("title");
+                String category = rs.getString("category");
+                int version = rs.getInt("contentVersion");
                 
-                try (ResultSet rs = pstmt.executeQuery()) {
-                    if (rs.next()) {
-                        String title = rs.getString("title");
-                        String category = rs.getString("category");
-                        
-                        // Update the title in a cleaner format
-                        lessonTitleLabel.setText(title);
+                List<String> lines = new ArrayList<>();
+                List<String> batch = new ArrayList<>();
+                boolean cacheable = true;
+                long cachedChars = 0;
+                boolean first = true;
+                
+                try (Reader reader = rs.getCharacterStream("content")) {
+                    char[] buffer = new char[8192];
+                    StringBuilder line = new StringBuilder();
+                    int read;
+                    while (reader != null && (read = reader.read(buffer)) != -1) {
+                        if (Thread.currentThread().isInterrupted()) {
+                            return null; // Cancelled: the user moved on
+                        }
+                        if (first) {
+                            // A nicely formatted lesson header, as the first rows
+                            batch.add("LESSON: " + title);
+                            batch.add("");
+                            batch.add("Category: " + category);
+                            batch.add("");
+                            batch.add(LESSON_DIVIDER);
+                            batch.add("");
+                        }
+                        for (int i = 0; i < read; i++) {
+                            char c = buffer[i];
+                            if (c == '\n' || line.length() == MAX_LINE_CHARS) {
+                                batch.add(cleanLessonLine(line));
+                                line.setLength(0);
+                                if (c == '\n') {
+                                    continue;
+                                }
+                            }
+                            if (c != '\r') {
+                                line.append(c);
+                            }
+                        }
                         
-                        // Get content if column exists
-                        String content;
-                        if (contentColumnExists) {
-                            content = rs.getString("content");
-                            if (content == null || content.isEmpty()) {
-                                content = "No content available for this lesson. The instructor has not added content yet.";
-                                // Add placeholder content since the column exists but is empty
-                                addPlaceholderContent(currentLessonId, title, category);
+                        // Keep a copy for the cache only while the lesson stays a cacheable size
+                        if (cacheable) {
+                            for (String cleaned : batch) {
+                                cachedChars += cleaned.length();
+                            }
+                            cacheable = cachedChars <= MAX_CACHED_LESSON_CHARS;
+                            if (cacheable) {
+                                lines.addAll(batch);
                             } else {
-                                // Clean up the content by removing markdown formatting
-                                content = formatLessonContent(content, title, category);
+                                lines = null;
                             }
-                        } else {
-                            content = "The lesson content feature has been newly added. Please check back later for updated content.";
                         }
-                        
-                        lessonContentArea.setText(content);
-                        
-                        // Update completion status button
-                        boolean isCompleted = isLessonCompleted(currentLessonId, studentId);
-                        if (isCompleted) {
-                            lessonActionButton.setText("Completed");
-                            lessonActionButton.setStyle(
-                                "-fx-background-color: " + ACCENT_COLOR + "; " +
-                                "-fx-text-fill: white; " +
-                                "-fx-background-radius: 5; " +
-                                "-fx-font-weight: bold;"
-                            );
-                        } else {
-                            lessonActionButton.setText("Mark as Completed");
-                            lessonActionButton.setStyle(
-                                "-fx-background-color: " + SECONDARY_COLOR + "; " +
-                                "-fx-text-fill: white; " +
-                                "-fx-background-radius: 5; " +
-                                "-fx-font-weight: bold;"
-                            );
-                            // Set action for marking lesson as completed
-                            lessonActionButton.setOnAction(e -> {
-                                try {
-                                    markLessonAsCompleted(currentCourseId, studentId, currentLessonId);
-                                    updateLessonContent(); // Refresh the content
-                                    Alert successAlert = new Alert(AlertType.INFORMATION);
-                                    successAlert.setTitle("Progress Updated");
-                                    successAlert.setHeaderText("Lesson Completed!");
-                                    successAlert.setContentText("Your progress has been updated.");
-                                    successAlert.show();
-                                } catch (SQLException ex) {
-                                    showError("Error", "Could not update progress: " + ex.getMessage());
-                                }
-                            });
+                        postLessonLines(generation, title, batch, first);
+                        batch = new ArrayList<>();
+                        first = false;
+                    }
+                    if (!first) {
+                        batch.add(cleanLessonLine(line));
+                        if (cacheable) {
+                            lines.addAll(batch);
                         }
+                        postLessonLines(generation, title, batch, false);
                     }
                 }
+                
+                if (first) {
+                    // Shown as is; the lesson itself stays empty until the instructor writes it
+                    lines.add("No content available for this lesson. The instructor has not added content yet.");
+                    postLessonLines(generation, title, lines, true);
+                }
+                return cacheable ? new LessonContentCache.Lesson(lessonId, version, title, lines) : null;
             }
-        } catch (SQLException e) {
-            showError("Database Error", "Error loading lesson content: " + e.getMessage());
-            e.printStackTrace();
         }
     }
     
-    /**
-     * Format lesson content to remove markdown and make it more readable
-     */
-    private String formatLessonContent(String content, String title, String category) {
-        // Remove markdown headers
-        content = content.replaceAll("#\\s+", "");
-        // Remove markdown bold formatting
-        content = content.replaceAll("\\*\\*", "");
-        
-        // Create a nicely formatted lesson view
-        StringBuilder formattedContent = new StringBuilder();
-        
-        // Add a nice lesson header
-        formattedContent.append("LESSON: ").append(title).append("\n\n");
-        formattedContent.append("Category: ").append(category).append("\n\n");
-        formattedContent.append("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n\n");
-        
-        // Add the cleaned content
-        formattedContent.append(content);
-        
-        return formattedContent.toString();
-    }
-
-    private void addPlaceholderContent(int lessonId, String title, String category) {
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            // Create formatted content without markdown
-            String content = "LESSON: " + title + "\n\n" +
-                "Welcome to this lesson on " + title + " in the " + category + " category.\n\n" +
-                "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n\n" +
-                "Topics that will be covered:\n\n" +
-                "1. Introduction to " + title + "\n" +
-                "2. Key concepts and principles\n" +
-                "3. Practical applications\n" +
-                "4. Exercises and examples";
-                
-            String query = "UPDATE Lessons SET content = ? WHERE lessonID = ?";
-            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-                pstmt.setString(1, content);
-                pstmt.setInt(2, lessonId);
-                pstmt.executeUpdate();
-                System.out.println("Added placeholder content for lesson ID: " + lessonId);
+    // Show a batch on the FX thread, unless another lesson has been opened since
+    private void postLessonLines(int generation, String title, List<String> batch, boolean replace) {
+        Platform.runLater(() -> {
+            if (generation != lessonGeneration) {
+                return;
             }
-        } catch (SQLException e) {
-            System.out.println("Error adding placeholder content: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-
-    private int getPreviousLesson(int courseId, int currentLessonId) throws SQLException {
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            String query = "SELECT MAX(lessonID) as prevLesson FROM Lessons " +
-                "WHERE courseID = ? AND lessonID < ?";
-            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-                pstmt.setInt(1, courseId);
-                pstmt.setInt(2, currentLessonId);
-                try (ResultSet rs = pstmt.executeQuery()) {
-                    return rs.next() ? rs.getInt("prevLesson") : 0;
-                }
+            if (replace) {
+                lessonTitleLabel.setText(title);
+                lessonContentArea.setLines(batch);
+            } else {
+                lessonContentArea.appendLines(batch);
             }
-        }
+        });
     }
-
-    private int getNextLesson(int courseId, int currentLessonId) throws SQLException {
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            String query = "SELECT MIN(lessonID) as nextLesson FROM Lessons " +
-                "WHERE courseID = ? AND lessonID > ?";
-            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-                pstmt.setInt(1, courseId);
-                pstmt.setInt(2, currentLessonId);
-                try (ResultSet rs = pstmt.executeQuery()) {
-                    return rs.next() ? rs.getInt("nextLesson") : 0;
-                }
-            }
+    
+    // Remove markdown headers and bold formatting from one line
+    private static String cleanLessonLine(CharSequence line) {
+        String text = line.toString();
+        if (text.indexOf('#') >= 0) {
+            text = HEADING_MARKER.matcher(text).replaceAll("");
         }
-    }
-
-    private boolean isLessonCompleted(int lessonId, int studentId) throws SQLException {
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            String query = "SELECT completionStatus FROM LessonProgress " +
-                "WHERE lessonID = ? AND studentID = ?";
-            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-                pstmt.setInt(1, lessonId);
-                pstmt.setInt(2, studentId);
-                try (ResultSet rs = pstmt.executeQuery()) {
-                    return rs.next() && "Completed".equals(rs.getString("completionStatus"));
-                }
-            }
+        if (text.indexOf('*') >= 0) {
+            text = BOLD_MARKER.matcher(text).replaceAll("");
         }
+        return text;
     }
 
     private HBox createFooter() {
@@ -755,31 +764,46 @@ public class CoursesPage extends Application {
     private void showCourseDetail(Course course) {
         lessonTitleLabel.setText(course.getName());
         
-        // Format the overview content to be more readable without markdown
-        String formattedContent = formatCourseOverview(course.getLessonContent());
-        lessonContentArea.setText(formattedContent);
-        
-        // Get first lesson for this course
-        currentLessonId = getFirstLesson(course.getId());
+        // The overview and the lesson navigation index are only built for the course being opened.
+        // Owned by mainContent because the detail view is briefly detached when it is shown again
+        cancelOverviewLoad();
+        cancelLessonLoad();
+        lessonGeneration++;
+        navigation = null;
+        currentLessonId = 0;
+        lessonContentArea.setText("Loading course overview...");
+        lessonActionButton.setDisable(true);
+        nextButton.setDisable(true);
+        previousButton.setDisable(true);
+        overviewLoad = BackgroundLoader.load(mainContent,
+            () -> loadCourseOutline(course.getId(), course.getLessonCount()),
+            outline -> {
+                overviewLoad = null;
+                navigation = outline.navigation;
+                // Start from the first lesson of this course
+                currentLessonId = navigation.first();
+                lessonActionButton.setDisable(false);
+                updateNavigationButtons();
+                // Format the overview content to be more readable without markdown
+                lessonContentArea.setText(formatCourseOverview(outline.overview));
+            },
+            e -> {
+                overviewLoad = null;
+                lessonContentArea.setText("Error loading course content: " + e.getMessage());
+            });
         
         // Set up the action button
         lessonActionButton.setText(getButtonTextForProgress(course.getProgress()));
         lessonActionButton.setStyle(getButtonStyleForProgress(course.getProgress()));
         
-        // Set up navigation buttons
-        boolean hasNextLesson = hasNextLesson(course.getId(), currentLessonId);
-        boolean hasPrevLesson = hasPreviousLesson(course.getId(), currentLessonId);
-        nextButton.setDisable(!hasNextLesson);
-        previousButton.setDisable(!hasPrevLesson);
-        
         // Set up action button behavior based on the course progress
         if (course.getProgress() == 0.0) {
             // First time starting course
             lessonActionButton.setOnAction(e -> {
                 try {
                     markLessonAsCompleted(course.getId(), studentId, currentLessonId);
-                    loadEnrolledCourses(); // Refresh data
-                    showCourseDetail(getCourseById(course.getId())); // Refresh view
+                    // Refresh data, then the view
+                    loadEnrolledCourses(() -> showCourseDetail(getCourseById(course.getId())));
                 } catch (SQLException ex) {
                     showError("Error", "Could not update progress: " + ex.getMessage());
                 }
@@ -788,16 +812,12 @@ public class CoursesPage extends Application {
             // Course in progress
             lessonActionButton.setText("Continue Learning");
             lessonActionButton.setOnAction(e -> {
-                try {
-                    int nextIncompleteLesson = getNextIncompleteLesson(course.getId(), studentId);
-                    if (nextIncompleteLesson > 0) {
-                        currentLessonId = nextIncompleteLesson;
-                        updateLessonContent();
-                    } else {
-                        showError("Course Progress", "No incomplete lessons found.");
-                    }
-                } catch (SQLException ex) {
-                    showError("Error", "Could not find next incomplete lesson: " + ex.getMessage());
+                int nextIncompleteLesson = navigation.firstIncomplete();
+                if (nextIncompleteLesson > 0) {
+                    currentLessonId = nextIncompleteLesson;
+                    updateLessonContent();
+                } else {
+                    showError("Course Progress", "No incomplete lessons found.");
                 }
             });
         } else {
@@ -805,7 +825,7 @@ public class CoursesPage extends Application {
             lessonActionButton.setText("Review Course");
             lessonActionButton.setOnAction(e -> {
                 // Just display the course content for review
-                currentLessonId = getFirstLesson(course.getId());
+                currentLessonId = navigation.first();
                 updateLessonContent();
             });
         }
@@ -825,12 +845,19 @@ public class CoursesPage extends Application {
         fadeOut.play();
     }
     
+    private void cancelOverviewLoad() {
+        if (overviewLoad != null) {
+            overviewLoad.cancel();
+            overviewLoad = null;
+        }
+    }
+
     /**
      * Format the course overview content to be readable without markdown
      */
     private String formatCourseOverview(String content) {
         // If the content is the default "no lessons" message, return it as is
-        if (content.startsWith("This course doesn't have any lessons yet")) {
+        if (content.equals(NO_LESSONS_MESSAGE)) {
             return content;
         }
         
@@ -857,68 +884,23 @@ public class CoursesPage extends Application {
         return null;
     }
 
-    private int getFirstLesson(int courseId) {
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            String query = "SELECT MIN(lessonID) as firstLesson FROM Lessons WHERE courseID = ?";
-            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-                pstmt.setInt(1, courseId);
-                try (ResultSet rs = pstmt.executeQuery()) {
-                    return rs.next() ? rs.getInt("firstLesson") : 0;
-                }
-            }
-        } catch (SQLException e) {
-            showError("Database Error", "Error retrieving first lesson: " + e.getMessage());
-            return 0;
-        }
-    }
-
-    private boolean hasNextLesson(int courseId, int currentLessonId) {
-        try {
-            return getNextLesson(courseId, currentLessonId) > 0;
-        } catch (SQLException e) {
-            return false;
-        }
-    }
-
-    private boolean hasPreviousLesson(int courseId, int currentLessonId) {
-        try {
-            return getPreviousLesson(courseId, currentLessonId) > 0;
-        } catch (SQLException e) {
-            return false;
-        }
-    }
-
-    private int getNextIncompleteLesson(int courseId, int studentId) throws SQLException {
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            // This query finds the first lesson in the course that doesn't have a completed status
-            String query = "SELECT l.lessonID FROM Lessons l " +
-                "LEFT JOIN LessonProgress lp ON l.lessonID = lp.lessonID AND lp.studentID = ? " +
-                "WHERE l.courseID = ? AND (lp.completionStatus IS NULL OR lp.completionStatus != 'Completed') " +
-                "ORDER BY l.lessonID LIMIT 1";
-            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-                pstmt.setInt(1, studentId);
-                pstmt.setInt(2, courseId);
-                try (ResultSet rs = pstmt.executeQuery()) {
-                    return rs.next() ? rs.getInt("lessonID") : 0;
-                }
-            }
-        }
-    }
-
     private void markLessonAsCompleted(int courseId, int studentId, int lessonId) throws SQLException {
         try (Connection conn = DatabaseConnection.getConnection()) {
             conn.setAutoCommit(false); // Begin transaction
             
             try {
-                // First, check if the record already exists
-                String checkQuery = "SELECT * FROM LessonProgress WHERE studentID = ? AND lessonID = ?";
+                // First, check if the record already exists; locked so two clicks cannot both count it
+                String checkQuery = "SELECT completionStatus FROM LessonProgress " +
+                    "WHERE studentID = ? AND lessonID = ? FOR UPDATE";
                 boolean recordExists = false;
+                boolean alreadyCompleted = false;
                 
                 try (PreparedStatement checkStmt = conn.prepareStatement(checkQuery)) {
                     checkStmt.setInt(1, studentId);
                     checkStmt.setInt(2, lessonId);
                     try (ResultSet rs = checkStmt.executeQuery()) {
                         recordExists = rs.next();
+                        alreadyCompleted = recordExists && "Completed".equals(rs.getString("completionStatus"));
                     }
                 }
                 
@@ -938,29 +920,19 @@ public class CoursesPage extends Application {
                     pstmt.executeUpdate();
                 }
                 
-                // Update the overall course progress in Enrollments table
-                String progressQuery = "UPDATE Enrollments e " +
-                    "SET completionPercentage = (" +
-                    "  SELECT COUNT(*) * 100.0 / (SELECT COUNT(*) FROM Lessons WHERE courseID = ?) " +
-                    "  FROM LessonProgress lp " +
-                    "  JOIN Lessons l ON lp.lessonID = l.lessonID " +
-                    "  WHERE l.courseID = ? AND lp.studentID = ? AND lp.completionStatus = 'Completed'" +
-                    ") WHERE e.studentID = ? AND e.courseID = ?";
-                
-                try (PreparedStatement pstmt = conn.prepareStatement(progressQuery)) {
-                    pstmt.setInt(1, courseId);
-                    pstmt.setInt(2, courseId);
-                    pstmt.setInt(3, studentId);
-                    pstmt.setInt(4, studentId);
-                    pstmt.setInt(5, courseId);
-                    pstmt.executeUpdate();
+                // Move the enrollment's counters, only the first time the lesson is completed
+                if (!alreadyCompleted) {
+                    EnrollmentProgress.lessonCompleted(conn, studentId, courseId);
                 }
                 
                 // Log the activity
-                logActivity(studentId, courseId, "Lesson Completion",
+                logActivity(conn, studentId, courseId, "Lesson Completion",
                     "Completed lesson ID: " + lessonId, "Completed");
                 
                 conn.commit(); // Commit transaction
+                if (navigation != null) {
+                    navigation.markCompleted(lessonId);
+                }
             } catch (SQLException e) {
                 conn.rollback(); // Rollback on error
                 throw e;
@@ -970,24 +942,27 @@ public class CoursesPage extends Application {
         }
     }
 
-    private void logActivity(int studentId, int courseId, String activityType, String description, String status) throws SQLException {
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            String query = "INSERT INTO Activities (studentID, courseID, activityType, description, completionStatus) " +
-                "VALUES (?, ?, ?, ?, ?)";
-            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-                pstmt.setInt(1, studentId);
-                pstmt.setInt(2, courseId);
-                pstmt.setString(3, activityType);
-                pstmt.setString(4, description);
-                pstmt.setString(5, status);
-                pstmt.executeUpdate();
-            }
+    private void logActivity(Connection conn, int studentId, int courseId, String activityType, String description, String status) throws SQLException {
+        String query = "INSERT INTO Activities (studentID, courseID, activityType, description, completionStatus) " +
+            "VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setInt(1, studentId);
+            pstmt.setInt(2, courseId);
+            pstmt.setString(3, activityType);
+            pstmt.setString(4, description);
+            pstmt.setString(5, status);
+            pstmt.executeUpdate();
         }
     }
 
     private void returnToCoursesView() {
-        // Reload the course data in case changes were made
-        loadEnrolledCourses();
+        cancelOverviewLoad();
+        cancelLessonLoad();
+        lessonGeneration++;
+
+        // Reload the course data in case changes were made; the skeleton shows until it arrives
+        coursesLoaded = false;
+        loadEnrolledCourses(this::showCoursesView);
         
         FadeTransition fadeOut = new FadeTransition(Duration.millis(200), mainContent);
         fadeOut.setFromValue(1.0);
@@ -1024,23 +999,21 @@ public class CoursesPage extends Application {
         }
     }
 
-    private int getStudentId(int userId) throws SQLException {
+    private int getStudentId(int userId, Connection conn) throws SQLException {
         if (userId <= 0) {
             return 0;
         }
         
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            String query = "SELECT studentID FROM Students WHERE userID = ?";
-            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-                pstmt.setInt(1, userId);
-                try (ResultSet rs = pstmt.executeQuery()) {
-                    if (rs.next()) {
-                        return rs.getInt("studentID");
-                    } else {
-                        // If no student found, try to insert a new student (for testing purposes)
-                        // In a real app, you might handle this differently
-                        return createNewStudent(userId, conn);
-                    }
+        String query = "SELECT studentID FROM Students WHERE userID = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setInt(1, userId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("studentID");
+                } else {
+                    // If no student found, try to insert a new student (for testing purposes)
+                    // In a real app, you might handle this differently
+                    return createNewStudent(userId, conn);
                 }
             }
         }
@@ -1091,25 +1064,102 @@ public class CoursesPage extends Application {
         alert.showAndWait();
     }
 
+    /**
+     * Overview text and navigation index of one course, loaded together.
+     */
+    private static class CourseOutline {
+        private final String overview;
+        private final LessonNavigation navigation;
+
+        CourseOutline(String overview, LessonNavigation navigation) {
+            this.overview = overview;
+            this.navigation = navigation;
+        }
+    }
+
+    /**
+     * The open course's lessons in lessonID order with their content versions and the
+     * student's completed ones marked, so moving between lessons needs no queries.
+     * Lesson ids of 0 mean none.
+     */
+    private static class LessonNavigation {
+        private final int[] lessonIds;
+        private final int[] versions;
+        private final BitSet completed;
+
+        LessonNavigation(int[] lessonIds, int[] versions, BitSet completed) {
+            this.lessonIds = lessonIds;
+            this.versions = versions;
+            this.completed = completed;
+        }
+
+        // -1 for a lesson that is not in the course, which no cached entry matches
+        int version(int lessonId) {
+            int pos = Arrays.binarySearch(lessonIds, lessonId);
+            return pos >= 0 ? versions[pos] : -1;
+        }
+
+        void setVersion(int lessonId, int version) {
+            int pos = Arrays.binarySearch(lessonIds, lessonId);
+            if (pos >= 0) {
+                versions[pos] = version;
+            }
+        }
+
+        int first() {
+            return lessonIds.length > 0 ? lessonIds[0] : 0;
+        }
+
+        // Works from any id, including one that is not in the course
+        int next(int lessonId) {
+            int pos = Arrays.binarySearch(lessonIds, lessonId);
+            pos = pos >= 0 ? pos + 1 : -pos - 1;
+            return pos < lessonIds.length ? lessonIds[pos] : 0;
+        }
+
+        int previous(int lessonId) {
+            int pos = Arrays.binarySearch(lessonIds, lessonId);
+            pos = pos >= 0 ? pos - 1 : -pos - 2;
+            return pos >= 0 ? lessonIds[pos] : 0;
+        }
+
+        boolean isCompleted(int lessonId) {
+            int pos = Arrays.binarySearch(lessonIds, lessonId);
+            return pos >= 0 && completed.get(pos);
+        }
+
+        void markCompleted(int lessonId) {
+            int pos = Arrays.binarySearch(lessonIds, lessonId);
+            if (pos >= 0) {
+                completed.set(pos);
+            }
+        }
+
+        int firstIncomplete() {
+            int pos = completed.nextClearBit(0);
+            return pos < lessonIds.length ? lessonIds[pos] : 0;
+        }
+    }
+
     public static class Course {
         private final int id;
         private final SimpleStringProperty name;
         private final SimpleDoubleProperty progress;
-        private final String lessonContent;
+        private final int lessonCount;
         private final String description;
 
-        public Course(int id, String name, double progress, String lessonContent, String description) {
+        public Course(int id, String name, double progress, int lessonCount, String description) {
             this.id = id;
             this.name = new SimpleStringProperty(name);
             this.progress = new SimpleDoubleProperty(progress);
-            this.lessonContent = lessonContent;
+            this.lessonCount = lessonCount;
             this.description = description;
         }
 
         public int getId() { return id; }
         public String getName() { return name.get(); }
         public double getProgress() { return progress.get(); }
-        public String getLessonContent() { return lessonContent; }
+        public int getLessonCount() { return lessonCount; }
         public String getDescription() { return description; }
     }
 }
\ No newline at end of file
@@ -22,10 +22,15 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import dao.DatabaseConnection;
+import services.BackgroundLoader;
+import services.CourseCatalog;
+import services.EnrollmentProgress;
 
 public class HomePage {
     // Colors
@@ -43,6 +48,7 @@ public class HomePage {
     
     // Class data from database
     private List<ClassData> availableCourses = new ArrayList<>();
+    private boolean coursesLoaded = false; // False while the first load is still running
     private VBox mainContent; // Main content container to reload after course enrollment
     
     /**
@@ -54,7 +60,6 @@ public class HomePage {
         if (currentUser != null) {
             this.currentUserId = currentUser.getUserID();
         }
-        loadAvailableCourses();
     }
     
     /**
@@ -68,51 +73,54 @@ public class HomePage {
             this.currentUser = loggedInUser;
             this.currentUserId = loggedInUser.getUserID();
         }
-        loadAvailableCourses();
     }
     
     /**
-     * Load available courses from database, excluding ones the student is already enrolled in
+     * Load available courses in the background and redraw the page when they arrive
      */
     private void loadAvailableCourses() {
-        availableCourses.clear();
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            String query;
-            PreparedStatement pstmt;
-            if (currentUserId > 0) {
-                // If user is logged in, load courses they haven't enrolled in yet
-                query = "SELECT c.courseID, c.courseName, c.description FROM Courses c " +
-                        "WHERE c.courseID NOT IN (" +
-                        " SELECT e.courseID FROM Enrollments e " +
-                        " JOIN Students s ON e.studentID = s.studentID " +
-                        " WHERE s.userID = ?" +
-                        ")";
-                pstmt = conn.prepareStatement(query);
+        BackgroundLoader.load(mainContent, this::queryAvailableCourses, courses -> {
+            availableCourses = courses;
+            coursesLoaded = true;
+            refreshView();
+        }, e -> showError("Database Error", "Error loading courses: " + e.getMessage()));
+    }
+    
+    /**
+     * Available courses, excluding ones the student is already enrolled in.
+     * The courses come from CourseCatalog; only the student's enrollments are queried.
+     */
+    private List<ClassData> queryAvailableCourses() throws SQLException {
+        Set<Integer> enrolled = new HashSet<>();
+        if (currentUserId > 0) {
+            // If user is logged in, skip courses they have already enrolled in
+            String query = "SELECT e.courseID FROM Enrollments e " +
+                    "JOIN Students s ON e.studentID = s.studentID " +
+                    "WHERE s.userID = ?";
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(query)) {
                 pstmt.setInt(1, currentUserId);
-            } else {
-                // If no user is logged in, load all courses
-                query = "SELECT courseID, courseName, description FROM Courses";
-                pstmt = conn.prepareStatement(query);
-            }
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    ClassData course = new ClassData(
-                        rs.getInt("courseID"),
-                        rs.getString("courseName"),
-                        rs.getString("description")
-                    );
-                    availableCourses.add(course);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        enrolled.add(rs.getInt("courseID"));
+                    }
                 }
             }
-        } catch (SQLException e) {
-            showError("Database Error", "Error loading courses: " + e.getMessage());
-            e.printStackTrace();
         }
+        
+        List<ClassData> courses = new ArrayList<>();
+        for (CourseCatalog.Course course : CourseCatalog.all()) {
+            if (!enrolled.contains(course.getId())) {
+                courses.add(new ClassData(course.getId(), course.getName(), course.getDescription()));
+            }
+        }
+        return courses;
     }
     
     public Node getView() {
         mainContent = new VBox(0);
         mainContent.getChildren().add(getHomePage());
+        loadAvailableCourses();
         return mainContent;
     }
     
@@ -275,7 +283,10 @@ public class HomePage {
         descriptionLabel.setTextFill(TEXT_SECONDARY);
         descriptionLabel.setPadding(new Insets(0, 0, 10, 0));
         
-        if (availableCourses.isEmpty()) {
+        if (!coursesLoaded) {
+            // Placeholder until the background load finishes
+            section.getChildren().addAll(sectionTitle, descriptionLabel, BackgroundLoader.skeleton(6));
+        } else if (availableCourses.isEmpty()) {
             // Display a message if no courses are available
             VBox noCoursesContainer = new VBox(15);
             noCoursesContainer.setAlignment(Pos.CENTER);
@@ -401,9 +412,8 @@ public class HomePage {
                         successAlert.setContentText("You have successfully joined " + classData.getName() + ". You can now access course materials.");
                         successAlert.show();
                         
-                        // Reload available courses and refresh the view
+                        // Reload available courses; the view refreshes when they arrive
                         loadAvailableCourses();
-                        refreshView();
                     } catch (Exception ex) {
                         showError("Enrollment Error", ex.getMessage());
                     }
@@ -456,17 +466,14 @@ public class HomePage {
                 }
             }
             
-            // Enroll student
-            String enrollQuery = "INSERT INTO Enrollments (studentID, courseID) VALUES (?, ?)";
-            try (PreparedStatement pstmt = conn.prepareStatement(enrollQuery)) {
-                pstmt.setInt(1, studentId);
-                pstmt.setInt(2, courseId);
-                pstmt.executeUpdate();
-                
-                // Log activity
-                logActivity(studentId, courseId, "Enrollment", "Joined the course", "Completed");
-            }
+            // Enroll student, with the lesson counter starting at the course's current lesson count
+            EnrollmentProgress.enroll(conn, studentId, courseId);
+            
+            // Log activity
+            logActivity(studentId, courseId, "Enrollment", "Joined the course", "Completed");
         }
+        // The course's student count changed
+        CourseCatalog.invalidate();
     }
     
     private void refreshView() {
@@ -1,20 +1,56 @@
 package controllers_students;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextArea;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import dao.DatabaseConnection;
+import services.BackgroundLoader;
+import services.EnrollmentProgress;
 
+/**
+ * Seeds sample lessons into every course.
+ * - Lessons are inserted with JDBC batches of -Dlessons.seed.batchSize rows (default 500),
+ *   in one transaction, on a background thread
+ * - A course never gets two lessons with the same title, so running it again adds nothing
+ * - Lesson definitions come from the built-in set, or from a file:
+ *   one lesson per line, "keyword TAB title TAB category TAB content", where a course gets
+ *   the lessons of the first keyword its name contains, or those of keyword "*" otherwise.
+ *   In the content \n is a line break, \t a tab and \\ a backslash; {course} in any field
+ *   becomes the course name; lines starting with # are comments
+ */
 public class LessonInitializer extends Application {
+    private static final int BATCH_SIZE = Integer.getInteger("lessons.seed.batchSize", 500);
+    // Progress is logged about this many times per run, however many courses there are
+    private static final int PROGRESS_STEPS = 10;
+    private static final String ANY_COURSE = "*";
+    private static final String COURSE_PLACEHOLDER = "{course}";
     
     private TextArea logArea;
+    private Button initButton;
+    private Button importButton;
     
     public static void main(String[] args) {
         launch(args);
@@ -29,13 +65,23 @@ public class LessonInitializer extends Application {
         logArea.setPrefHeight(400);
         logArea.setWrapText(true);
         
-        Button initButton = new Button("Initialize Lessons for All Courses");
-        initButton.setOnAction(e -> initializeLessons());
+        initButton = new Button("Initialize Lessons for All Courses");
+        initButton.setOnAction(e -> seedLessons(null));
+        
+        importButton = new Button("Import Lessons from File...");
+        importButton.setOnAction(e -> {
+            FileChooser chooser = new FileChooser();
+            chooser.setTitle("Choose a lesson definition file");
+            File file = chooser.showOpenDialog(primaryStage);
+            if (file != null) {
+                seedLessons(file);
+            }
+        });
         
         VBox root = new VBox(10);
         root.getChildren().addAll(
             new Label("This tool will add sample lessons to all courses in the database"),
-            initButton,
+            new HBox(10, initButton, importButton),
             logArea
         );
         root.setStyle("-fx-padding: 20px;");
@@ -45,124 +91,201 @@ public class LessonInitializer extends Application {
         primaryStage.show();
     }
     
-    private void initializeLessons() {
-        logArea.clear();
+    // Seed from definitionsFile, or from the built-in lessons when it is null
+    private void seedLessons(File definitionsFile) {
+        initButton.setDisable(true);
+        importButton.setDisable(true);
         log("Starting lesson initialization...");
         
+        BackgroundLoader.load(logArea, () -> seed(definitionsFile), added -> {
+            initButton.setDisable(false);
+            importButton.setDisable(false);
+            log("Lesson initialization completed successfully!");
+            
+            Alert alert = new Alert(AlertType.INFORMATION);
+            alert.setTitle("Success");
+            alert.setHeaderText("Lessons Added");
+            alert.setContentText(added + " lessons have been added to the courses.");
+            alert.showAndWait();
+        }, e -> {
+            initButton.setDisable(false);
+            importButton.setDisable(false);
+            log("ERROR: " + e.getMessage());
+            
+            Alert alert = new Alert(AlertType.ERROR);
+            alert.setTitle("Error");
+            alert.setHeaderText("Failed to Initialize Lessons");
+            alert.setContentText("An error occurred: " + e.getMessage());
+            alert.showAndWait();
+        });
+    }
+    
+    // Runs on a background thread; returns the number of lessons added
+    private int seed(File definitionsFile) throws SQLException, IOException {
+        Map<String, List<String[]>> catalog = definitionsFile != null
+            ? readDefinitions(definitionsFile.toPath())
+            : builtInDefinitions();
+        long start = System.nanoTime();
+        
         try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                throw new SQLException("Cannot connect to database");
+            }
             conn.setAutoCommit(false);
             
             try {
-                // Ensure content column exists in Lessons table
-                ensureContentColumnExists(conn);
+                Map<Integer, String> courses = new LinkedHashMap<>();
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery("SELECT courseID, courseName FROM Courses ORDER BY courseID")) {
+                    while (rs.next()) {
+                        courses.put(rs.getInt("courseID"), rs.getString("courseName"));
+                    }
+                }
                 
-                // Get all courses
-                String getCourses = "SELECT courseID, courseName FROM Courses";
+                // Titles every course already has, read once instead of counting per course
+                Map<Integer, Set<String>> existingTitles = new HashMap<>();
                 try (Statement stmt = conn.createStatement();
-                     ResultSet rs = stmt.executeQuery(getCourses)) {
-                    
+                     ResultSet rs = stmt.executeQuery("SELECT courseID, title FROM Lessons")) {
                     while (rs.next()) {
-                        int courseId = rs.getInt("courseID");
-                        String courseName = rs.getString("courseName");
-                        log("Adding lessons to course: " + courseName + " (ID: " + courseId + ")");
+                        existingTitles.computeIfAbsent(rs.getInt("courseID"), id -> new HashSet<>())
+                            .add(rs.getString("title"));
+                    }
+                }
+                log("Found " + courses.size() + " courses");
+                
+                int added = 0;
+                int pending = 0;
+                int coursesDone = 0;
+                int progressEvery = Math.max(1, courses.size() / PROGRESS_STEPS);
+                String insertLesson = "INSERT INTO Lessons (courseID, title, category, content) VALUES (?, ?, ?, ?)";
+                try (PreparedStatement pstmt = conn.prepareStatement(insertLesson)) {
+                    for (Map.Entry<Integer, String> course : courses.entrySet()) {
+                        int courseId = course.getKey();
+                        Set<String> titles = existingTitles.computeIfAbsent(courseId, id -> new HashSet<>());
                         
-                        // Clear existing lessons for this course if needed
-                        // Uncomment if you want to remove existing lessons
-                        /*
-                        try (PreparedStatement clearStmt = conn.prepareStatement(
-                                "DELETE FROM Lessons WHERE courseID = ?")) {
-                            clearStmt.setInt(1, courseId);
-                            int cleared = clearStmt.executeUpdate();
-                            log("Cleared " + cleared + " existing lessons");
+                        for (String[] lesson : lessonsFor(catalog, course.getValue())) {
+                            if (!titles.add(lesson[0])) {
+                                continue; // Seeded before
+                            }
+                            pstmt.setInt(1, courseId);
+                            pstmt.setString(2, lesson[0]);  // title
+                            pstmt.setString(3, lesson[1]);  // category
+                            pstmt.setString(4, lesson[2]);  // content
+                            pstmt.addBatch();
+                            added++;
+                            if (++pending == BATCH_SIZE) {
+                                pstmt.executeBatch();
+                                pending = 0;
+                            }
                         }
-                        */
                         
-                        // Add subject-specific lessons based on course name
-                        addLessonsForCourse(conn, courseId, courseName);
+                        if (++coursesDone % progressEvery == 0 || coursesDone == courses.size()) {
+                            log("Processed " + coursesDone + " of " + courses.size() + " courses ("
+                                + coursesDone * 100 / courses.size() + "%), " + added + " lessons added");
+                        }
+                    }
+                    if (pending > 0) {
+                        pstmt.executeBatch();
                     }
                 }
                 
+                if (added > 0) {
+                    EnrollmentProgress.recountAllLessons(conn);
+                }
                 conn.commit();
-                log("Lesson initialization completed successfully!");
-                
-                Alert alert = new Alert(AlertType.INFORMATION);
-                alert.setTitle("Success");
-                alert.setHeaderText("Lessons Added");
-                alert.setContentText("Lessons have been successfully added to all courses.");
-                alert.showAndWait();
-                
-            } catch (SQLException e) {
+                log("Added " + added + " lessons to " + courses.size() + " courses in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+                return added;
+            } catch (SQLException | RuntimeException e) {
                 conn.rollback();
-                log("ERROR: " + e.getMessage());
-                e.printStackTrace();
-                
-                Alert alert = new Alert(AlertType.ERROR);
-                alert.setTitle("Error");
-                alert.setHeaderText("Failed to Initialize Lessons");
-                alert.setContentText("An error occurred: " + e.getMessage());
-                alert.showAndWait();
+                throw e;
             } finally {
                 conn.setAutoCommit(true);
             }
-        } catch (SQLException e) {
-            log("ERROR connecting to database: " + e.getMessage());
-            e.printStackTrace();
         }
     }
     
-    private void ensureContentColumnExists(Connection conn) throws SQLException {
-        try (ResultSet rs = conn.getMetaData().getColumns(null, null, "Lessons", "content")) {
-            if (!rs.next()) {
-                log("Adding missing 'content' column to Lessons table");
-                try (Statement stmt = conn.createStatement()) {
-                    stmt.executeUpdate("ALTER TABLE Lessons ADD COLUMN content TEXT");
-                }
-            } else {
-                log("Content column already exists in Lessons table");
+    // The lessons for one course: those of the first keyword in its name, else the catch-all ones
+    private static List<String[]> lessonsFor(Map<String, List<String[]>> catalog, String courseName) {
+        String name = courseName.toLowerCase(Locale.ROOT);
+        List<String[]> templates = null;
+        for (Map.Entry<String, List<String[]>> entry : catalog.entrySet()) {
+            if (!ANY_COURSE.equals(entry.getKey()) && name.contains(entry.getKey())) {
+                templates = entry.getValue();
+                break;
             }
         }
+        if (templates == null) {
+            templates = catalog.getOrDefault(ANY_COURSE, new ArrayList<>());
+        }
+        
+        List<String[]> lessons = new ArrayList<>(templates.size());
+        for (String[] template : templates) {
+            lessons.add(new String[] {
+                template[0].replace(COURSE_PLACEHOLDER, courseName),
+                template[1].replace(COURSE_PLACEHOLDER, courseName),
+                template[2].replace(COURSE_PLACEHOLDER, courseName)
+            });
+        }
+        return lessons;
     }
     
-    private void addLessonsForCourse(Connection conn, int courseId, String courseName) throws SQLException {
-        // Check if course already has lessons
-        String checkLessons = "SELECT COUNT(*) AS lessonCount FROM Lessons WHERE courseID = ?";
-        try (PreparedStatement checkStmt = conn.prepareStatement(checkLessons)) {
-            checkStmt.setInt(1, courseId);
-            try (ResultSet rs = checkStmt.executeQuery()) {
-                if (rs.next() && rs.getInt("lessonCount") > 0) {
-                    log("Course already has " + rs.getInt("lessonCount") + " lessons. Adding more lessons...");
-                }
+    private static Map<String, List<String[]>> builtInDefinitions() {
+        Map<String, List<String[]>> catalog = new LinkedHashMap<>();
+        catalog.put("math", List.of(mathLessons()));
+        catalog.put("history", List.of(historyLessons()));
+        catalog.put("computer", List.of(computerScienceLessons()));
+        catalog.put("programming", List.of(computerScienceLessons()));
+        catalog.put("biology", List.of(biologyLessons()));
+        catalog.put("physics", List.of(physicsLessons()));
+        catalog.put("literature", List.of(literatureLessons()));
+        catalog.put(ANY_COURSE, List.of(defaultLessons(COURSE_PLACEHOLDER)));
+        return catalog;
+    }
+    
+    private static Map<String, List<String[]>> readDefinitions(Path file) throws IOException {
+        Map<String, List<String[]>> catalog = new LinkedHashMap<>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
             }
+            String[] fields = line.split("\t", 4);
+            if (fields.length != 4 || fields[0].isBlank() || fields[1].isBlank()) {
+                throw new IOException(file.getFileName() + " line " + lineNumber
+                    + ": expected keyword, title, category and content separated by tabs");
+            }
+            String keyword = fields[0].trim().toLowerCase(Locale.ROOT);
+            catalog.computeIfAbsent(keyword, k -> new ArrayList<>())
+                .add(new String[] {fields[1].trim(), fields[2].trim(), unescape(fields[3])});
         }
-        
-        // Create the lessons based on course subject
-        String insertLesson = "INSERT INTO Lessons (courseID, title, category, content) VALUES (?, ?, ?, ?)";
-        
-        try (PreparedStatement pstmt = conn.prepareStatement(insertLesson)) {
-            // Common parameters
-            pstmt.setInt(1, courseId);
-            
-            if (courseName.toLowerCase().contains("math")) {
-                addMathLessons(pstmt);
-            } else if (courseName.toLowerCase().contains("history")) {
-                addHistoryLessons(pstmt);
-            } else if (courseName.toLowerCase().contains("computer") || courseName.toLowerCase().contains("programming")) {
-                addComputerScienceLessons(pstmt);
-            } else if (courseName.toLowerCase().contains("biology")) {
-                addBiologyLessons(pstmt);
-            } else if (courseName.toLowerCase().contains("physics")) {
-                addPhysicsLessons(pstmt);
-            } else if (courseName.toLowerCase().contains("literature")) {
-                addLiteratureLessons(pstmt);
+        if (catalog.isEmpty()) {
+            throw new IOException(file.getFileName() + " has no lesson definitions");
+        }
+        return catalog;
+    }
+    
+    private static String unescape(String text) {
+        StringBuilder result = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < text.length()) {
+                char next = text.charAt(++i);
+                switch (next) {
+                    case 'n': result.append('\n'); break;
+                    case 't': result.append('\t'); break;
+                    default: result.append(next); break;
+                }
             } else {
-                // Default lessons for any other course
-                addDefaultLessons(pstmt, courseName);
+                result.append(c);
             }
         }
+        return result.toString();
     }
     
-    private void addMathLessons(PreparedStatement pstmt) throws SQLException {
-        String[][] lessons = {
+    private static String[][] mathLessons() {
+        return new String[][] {
             {"Introduction to Calculus", "Fundamentals", 
                 "# Introduction to Calculus\n\nCalculus is the mathematical study of continuous change. This lesson introduces the fundamental concepts of calculus including limits, derivatives, and integrals.\n\n## Key Concepts\n- Limits and continuity\n- Rates of change\n- The derivative\n- The integral\n- The Fundamental Theorem of Calculus"},
                 
@@ -178,18 +301,10 @@ public class LessonInitializer extends Application {
             {"Integration Techniques", "Advanced", 
                 "# Integration Techniques\n\nIntegration is the process of finding the accumulation of quantities. This lesson covers various methods for evaluating integrals.\n\n## Techniques\n- Substitution method\n- Integration by parts\n- Trigonometric integrals\n- Partial fractions\n- Numerical integration"}
         };
-        
-        for (String[] lesson : lessons) {
-            pstmt.setString(2, lesson[0]);  // title
-            pstmt.setString(3, lesson[1]);  // category
-            pstmt.setString(4, lesson[2]);  // content
-            pstmt.executeUpdate();
-            log("Added math lesson: " + lesson[0]);
-        }
     }
     
-    private void addHistoryLessons(PreparedStatement pstmt) throws SQLException {
-        String[][] lessons = {
+    private static String[][] historyLessons() {
+        return new String[][] {
             {"Ancient Civilizations", "World History", 
                 "# Ancient Civilizations\n\nThis lesson explores the earliest human civilizations including Mesopotamia, Egypt, Indus Valley, and China.\n\n## Major Civilizations\n- Sumerians and Babylonians\n- Ancient Egypt and the Pharaohs\n- Indus Valley\n- Ancient China\n\n## Key Developments\n- Writing systems\n- Agriculture and irrigation\n- Early legal codes\n- Monumental architecture"},
                 
@@ -205,18 +320,10 @@ public class LessonInitializer extends Application {
             {"Civil Rights Movement", "American History", 
                 "# Civil Rights Movement\n\nThe Civil Rights Movement in the United States was a decades-long struggle to end racial discrimination and segregation. This lesson explores key events, figures, and legislation.\n\n## Key Figures\n- Martin Luther King Jr.\n- Rosa Parks\n- Malcolm X\n\n## Important Events\n- Brown v. Board of Education\n- Montgomery Bus Boycott\n- March on Washington\n- Civil Rights Act of 1964"}
         };
-        
-        for (String[] lesson : lessons) {
-            pstmt.setString(2, lesson[0]);  // title
-            pstmt.setString(3, lesson[1]);  // category
-            pstmt.setString(4, lesson[2]);  // content
-            pstmt.executeUpdate();
-            log("Added history lesson: " + lesson[0]);
-        }
     }
     
-    private void addComputerScienceLessons(PreparedStatement pstmt) throws SQLException {
-        String[][] lessons = {
+    private static String[][] computerScienceLessons() {
+        return new String[][] {
             {"Introduction to Programming", "Fundamentals", 
                 "# Introduction to Programming\n\nThis lesson introduces the basic concepts of programming and computational thinking.\n\n## Topics\n- Variables and data types\n- Control structures (if/else, loops)\n- Functions and methods\n- Basic algorithms\n- Problem-solving techniques"},
                 
@@ -232,18 +339,10 @@ public class LessonInitializer extends Application {
             {"Web Development", "Applied Computing", 
                 "# Web Development\n\nWeb development involves creating websites and web applications. This lesson introduces the fundamentals of front-end and back-end development.\n\n## Technologies\n- HTML, CSS, and JavaScript\n- Front-end frameworks\n- Server-side programming\n- RESTful APIs\n- Web security"}
         };
-        
-        for (String[] lesson : lessons) {
-            pstmt.setString(2, lesson[0]);  // title
-            pstmt.setString(3, lesson[1]);  // category
-            pstmt.setString(4, lesson[2]);  // content
-            pstmt.executeUpdate();
-            log("Added computer science lesson: " + lesson[0]);
-        }
     }
     
-    private void addBiologyLessons(PreparedStatement pstmt) throws SQLException {
-        String[][] lessons = {
+    private static String[][] biologyLessons() {
+        return new String[][] {
             {"Cell Structure and Function", "Cellular Biology", 
                 "# Cell Structure and Function\n\nThe cell is the basic unit of life. This lesson explores the structures within cells and their functions.\n\n## Cell Components\n- Cell membrane\n- Nucleus and genetic material\n- Mitochondria and energy production\n- Endoplasmic reticulum and Golgi apparatus\n- Lysosomes and cellular digestion"},
                 
@@ -259,18 +358,10 @@ public class LessonInitializer extends Application {
             {"Human Anatomy and Physiology", "Human Biology", 
                 "# Human Anatomy and Physiology\n\nThis lesson explores the structure and function of the human body, examining the various systems that work together to maintain life.\n\n## Body Systems\n- Cardiovascular system\n- Respiratory system\n- Digestive system\n- Nervous system\n- Endocrine system"}
         };
-        
-        for (String[] lesson : lessons) {
-            pstmt.setString(2, lesson[0]);  // title
-            pstmt.setString(3, lesson[1]);  // category
-            pstmt.setString(4, lesson[2]);  // content
-            pstmt.executeUpdate();
-            log("Added biology lesson: " + lesson[0]);
-        }
     }
     
-    private void addPhysicsLessons(PreparedStatement pstmt) throws SQLException {
-        String[][] lessons = {
+    private static String[][] physicsLessons() {
+        return new String[][] {
             {"Mechanics", "Classical Physics", 
                 "# Mechanics\n\nMechanics is the branch of physics dealing with the motion of objects and the forces acting on them. This lesson covers Newton's laws and applications.\n\n## Topics\n- Newton's Laws of Motion\n- Work, energy, and power\n- Momentum and collisions\n- Circular motion\n- Gravitation"},
                 
@@ -286,18 +377,10 @@ public class LessonInitializer extends Application {
             {"Quantum Mechanics", "Modern Physics", 
                 "# Quantum Mechanics\n\nQuantum mechanics is the branch of physics dealing with atomic and subatomic systems. This lesson introduces the strange and counterintuitive world of quantum physics.\n\n## Topics\n- Wave-particle duality\n- Uncertainty principle\n- Schrödinger equation\n- Quantum tunneling\n- Quantum entanglement"}
         };
-        
-        for (String[] lesson : lessons) {
-            pstmt.setString(2, lesson[0]);  // title
-            pstmt.setString(3, lesson[1]);  // category
-            pstmt.setString(4, lesson[2]);  // content
-            pstmt.executeUpdate();
-            log("Added physics lesson: " + lesson[0]);
-        }
     }
     
-    private void addLiteratureLessons(PreparedStatement pstmt) throws SQLException {
-        String[][] lessons = {
+    private static String[][] literatureLessons() {
+        return new String[][] {
             {"Introduction to Literary Analysis", "Fundamentals", 
                 "# Introduction to Literary Analysis\n\nThis lesson introduces the fundamental concepts and techniques used to analyze and interpret literary texts.\n\n## Elements of Literature\n- Plot and conflict\n- Character development\n- Setting and atmosphere\n- Theme and symbolism\n- Narrative perspective"},
                 
@@ -313,18 +396,10 @@ public class LessonInitializer extends Application {
             {"Contemporary World Literature", "Global Literature", 
                 "# Contemporary World Literature\n\nThis lesson explores diverse literary voices from around the world in the late 20th and early 21st centuries.\n\n## Notable Authors\n- Gabriel García Márquez (Colombia)\n- Chimamanda Ngozi Adichie (Nigeria)\n- Haruki Murakami (Japan)\n- Salman Rushdie (India/UK)\n\n## Themes\n- Postcolonialism\n- Globalization\n- Identity and diaspora\n- Magical realism"}
         };
-        
-        for (String[] lesson : lessons) {
-            pstmt.setString(2, lesson[0]);  // title
-            pstmt.setString(3, lesson[1]);  // category
-            pstmt.setString(4, lesson[2]);  // content
-            pstmt.executeUpdate();
-            log("Added literature lesson: " + lesson[0]);
-        }
     }
     
-    private void addDefaultLessons(PreparedStatement pstmt, String courseName) throws SQLException {
-        String[][] lessons = {
+    private static String[][] defaultLessons(String courseName) {
+        return new String[][] {
             {"Introduction to " + courseName, "Fundamentals", 
                 "# Introduction to " + courseName + "\n\nThis lesson provides an overview of the key concepts and principles in " + courseName + ".\n\n## Topics Covered\n- Basic terminology and definitions\n- Historical context and development\n- Core principles\n- Modern applications\n- Research methodologies"},
                 
@@ -340,17 +415,14 @@ public class LessonInitializer extends Application {
             {"Research and Current Trends", "Contemporary Issues", 
                 "# Research and Current Trends in " + courseName + "\n\nThis lesson explores current research, emerging trends, and contemporary issues in " + courseName + ".\n\n## Current Developments\n- Recent discoveries\n- Ongoing debates\n- Technological innovations\n- Evolving practices\n- Future challenges and opportunities"}
         };
-        
-        for (String[] lesson : lessons) {
-            pstmt.setString(2, lesson[0]);  // title
-            pstmt.setString(3, lesson[1]);  // category
-            pstmt.setString(4, lesson[2]);  // content
-            pstmt.executeUpdate();
-            log("Added default lesson: " + lesson[0]);
-        }
     }
     
+    // Safe to call from the seeding thread
     private void log(String message) {
-        logArea.appendText(message + "\n");
+        if (Platform.isFxApplicationThread()) {
+            logArea.appendText(message + "\n");
+        } else {
+            Platform.runLater(() -> logArea.appendText(message + "\n"));
+        }
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package controllers_students;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -21,6 +22,7 @@ import java.sql.SQLException;
 import controllers_Admin.AdminDashboard;
 import controllers_Instructors.InstructorDashboard;
 import dao.DatabaseConnection;
+import services.PasswordHasher;
 
 public class Login extends Application {
 
@@ -59,7 +61,7 @@ public class Login extends Application {
         loginButton.setMinHeight(40);
         loginButton.setMaxWidth(Double.MAX_VALUE);
 
-        loginButton.setOnAction(e -> validateForm(emailField, passwordField, primaryStage));
+        loginButton.setOnAction(e -> validateForm(emailField, passwordField, loginButton, primaryStage));
 
         Separator separator = new Separator();
         separator.setMaxWidth(Double.MAX_VALUE);
@@ -98,7 +100,7 @@ public class Login extends Application {
         primaryStage.show();
     }
 
-    private void validateForm(TextField usernameField, PasswordField passwordField, Stage primaryStage) {
+    private void validateForm(TextField usernameField, PasswordField passwordField, Button loginButton, Stage primaryStage) {
         String username = usernameField.getText().trim();
         String password = passwordField.getText().trim();
 
@@ -107,6 +109,7 @@ public class Login extends Application {
             return;
         }
 
+        User candidate;
         try (Connection conn = DatabaseConnection.getConnection()) {
             if (conn == null) {
                 showAlert(Alert.AlertType.ERROR, "Database Error", "Cannot connect to database. Please try again later.");
@@ -119,18 +122,43 @@ public class Login extends Application {
 
             ResultSet rs = pstmt.executeQuery();
 
-            if (rs.next()) {
-                String storedHash = rs.getString("passwordHash");
+            if (!rs.next()) {
+                showAlert(Alert.AlertType.ERROR, "Login Failed", "Invalid username or password. Please try again.");
+                passwordField.clear();
+                return;
+            }
+
+            candidate = new User(
+                rs.getInt("userID"),
+                rs.getString("username"),
+                rs.getString("email"),
+                rs.getString("passwordHash"), // storing the hash here (optional)
+                rs.getString("role")
+            );
+
+        } catch (SQLException e) {
+            showAlert(Alert.AlertType.ERROR, "Database Error", "Error during login: " + e.getMessage());
+            e.printStackTrace();
+            return;
+        }
+
+        // Compare the password using BCrypt off the UI thread
+        loginButton.setDisable(true);
+        PasswordHasher.verify(password, candidate.getPasswordHash()).whenComplete((verification, error) -> {
+            if (verification != null && verification.getUpgradedHash() != null) {
+                upgradePasswordHash(candidate, verification.getUpgradedHash());
+            }
 
-                // Compare the password using BCrypt
-                if (org.mindrot.jbcrypt.BCrypt.checkpw(password, storedHash)) {
-                    loggedInUser = new User(
-                        rs.getInt("userID"),
-                        rs.getString("username"),  
-                        rs.getString("email"),
-                        storedHash, // storing the hash here (optional)
-                        rs.getString("role")
-                    );
+            Platform.runLater(() -> {
+                loginButton.setDisable(false);
+
+                if (error != null) {
+                    showAlert(Alert.AlertType.ERROR, "Login Error", "Error during login: " + error.getMessage());
+                    return;
+                }
+
+                if (verification.matches()) {
+                    loggedInUser = candidate;
 
                     Alert alert = new Alert(Alert.AlertType.INFORMATION);
                     alert.setTitle("Login Success");
@@ -144,15 +172,29 @@ public class Login extends Application {
                     showAlert(Alert.AlertType.ERROR, "Login Failed", "Invalid username or password. Please try again.");
                     passwordField.clear();
                 }
+            });
+        });
+    }
 
-            } else {
-                showAlert(Alert.AlertType.ERROR, "Login Failed", "Invalid username or password. Please try again.");
-                passwordField.clear();
+    // Store a hash produced with the current cost factor; runs on the hashing worker
+    private void upgradePasswordHash(User user, String upgradedHash) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                return;
             }
 
+            String query = "UPDATE Users SET passwordHash = ? WHERE userID = ? AND passwordHash = ?";
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setString(1, upgradedHash);
+                pstmt.setInt(2, user.getUserID());
+                pstmt.setString(3, user.getPasswordHash());
+                if (pstmt.executeUpdate() > 0) {
+                    user.setPasswordHash(upgradedHash);
+                }
+            }
         } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Error during login: " + e.getMessage());
-            e.printStackTrace();
+            // The old hash still works, so the upgrade is retried on the next login
+            System.err.println("Error upgrading password hash: " + e.getMessage());
         }
     }
 
@@ -14,6 +14,7 @@ import java.sql.SQLException;
 import java.util.regex.Pattern;
 
 import dao.DatabaseConnection;
+import services.UserSearchIndex;
 
 public class ProfilePage {
     
@@ -386,6 +387,7 @@ public class ProfilePage {
                 int rowsAffected = pstmt.executeUpdate();
                 if (rowsAffected > 0) {
                     currentEmail = emailField.getText();
+                    UserSearchIndex.rename(currentUserId, null, currentEmail);
                     debugInfoLabel.setText("Profile updated successfully");
                     showAlert(Alert.AlertType.INFORMATION, "Profile Updated", 
                             "Your profile has been updated successfully!", null);
@@ -422,6 +424,7 @@ public class ProfilePage {
                 int rowsAffected = pstmt.executeUpdate();
                 if (rowsAffected > 0) {
                     currentEmail = emailField.getText();
+                    UserSearchIndex.rename(currentUserId, null, currentEmail);
                     storedPasswordHash = hashedPassword;
                     
                     // Clear password fields after successful update
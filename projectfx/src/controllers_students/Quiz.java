@@ -9,6 +9,9 @@ import java.util.List;
 import java.util.HashMap;
 import java.util.Map;
 import dao.DatabaseConnection;
+import services.BackgroundLoader;
+import services.QuizAnswerWriter;
+import services.QuizCatalog;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Parent;
@@ -34,7 +37,8 @@ public class Quiz {
     private int currentQuestionIndex;
     private int score;
     private String subject;
-    private int studentId;
+    private int studentId; // 0 until the first background load has looked it up
+    private int loggedInUserId;
     private boolean isQuizCompleted = false;
     
     // Quiz list data
@@ -73,11 +77,15 @@ public class Quiz {
         // Get current student ID from Login
         User loggedInUser = Login.getLoggedInUser();
         if (loggedInUser != null) {
-            this.studentId = getStudentIdForUser(loggedInUser.getUserID());
+            // Resolved together with the quiz list, off the FX thread
+            this.loggedInUserId = loggedInUser.getUserID();
+            this.studentId = 0;
         } else {
             this.studentId = -1; // Default value if not logged in
         }
         
+        // Picks up answers a previous session journaled but never saved
+        QuizAnswerWriter.start();
         setupUI();
         loadAvailableQuizzes();
     }
@@ -274,7 +282,11 @@ public class Quiz {
             "-fx-background-radius: 5px; " +
             "-fx-padding: 8 15;"
         );
-        refreshButton.setOnAction(e -> loadAvailableQuizzes());
+        refreshButton.setOnAction(e -> {
+            // Pick up questions added from elsewhere
+            QuizCatalog.invalidate();
+            loadAvailableQuizzes();
+        });
         
 
         // Button container
@@ -627,91 +639,35 @@ public class Quiz {
     }
     
     /**
-     * Loads available quizzes from the database
+     * Loads available quizzes in the background, showing a skeleton in the empty table meanwhile
      */
     private void loadAvailableQuizzes() {
         availableQuizzes.clear();
+        quizTable.setPlaceholder(BackgroundLoader.skeleton(6));
         
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            if (conn == null) return;
-            
-            // Query to get distinct subjects and question counts
-            String query = "SELECT DISTINCT subject, " +
-                          "COUNT(*) as questionCount " +
-                          "FROM quiz_questions " +
-                          "GROUP BY subject " +
-                          "ORDER BY subject";
-            
-            try (PreparedStatement pstmt = conn.prepareStatement(query);
-                 ResultSet rs = pstmt.executeQuery()) {
-                
-                while (rs.next()) {
-                    String subject = rs.getString("subject");
-                    int questionCount = rs.getInt("questionCount");
-                    int quizId = getFirstQuestionIdForSubject(conn, subject);
-                    
-                    // Check completion status if student is logged in
-                    String status = "Available";
-                    if (studentId > 0) {
-                        // Check if student has completed this quiz
-                        status = checkQuizCompletionStatus(conn, subject, questionCount);
-                    }
-                    
-                    // Add to list of available quizzes
-                    availableQuizzes.add(new QuizData(quizId, subject, questionCount, status));
-                }
-                
-                // Update table
-                quizTable.setItems(availableQuizzes);
-                
-            }
-        } catch (SQLException e) {
-            System.err.println("Error loading available quizzes: " + e.getMessage());
-            e.printStackTrace();
-        }
+        BackgroundLoader.load(mainLayout, this::queryAvailableQuizzes, quizzes -> {
+            quizTable.setPlaceholder(new Label("No quizzes available"));
+            availableQuizzes.setAll(quizzes);
+            quizTable.setItems(availableQuizzes);
+        }, e -> quizTable.setPlaceholder(BackgroundLoader.errorLabel(e)));
     }
     
     /**
-     * Get the first question ID for a subject
+     * Queries available quizzes and the student's completion status for each
      */
-    private int getFirstQuestionIdForSubject(Connection conn, String subject) throws SQLException {
-        String query = "SELECT MIN(id) as firstId FROM quiz_questions WHERE subject = ?";
-        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-            pstmt.setString(1, subject);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt("firstId");
-                }
-            }
-        }
-        return -1;
-    }
-    
-    /**
-     * Check if a quiz has been completed by the student
-     */
-    private String checkQuizCompletionStatus(Connection conn, String subject, int totalQuestions) throws SQLException {
-        String query = "SELECT COUNT(DISTINCT qr.questionID) as answered " +
-                      "FROM QuizResults qr " +
-                      "JOIN quiz_questions qq ON qr.questionID = qq.id " +
-                      "WHERE qr.studentID = ? AND qq.subject = ?";
-        
-        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-            pstmt.setInt(1, studentId);
-            pstmt.setString(2, subject);
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    int answered = rs.getInt("answered");
-                    // Consider quiz completed if student has answered 80% or more questions
-                    if (answered >= totalQuestions * 0.8) {
-                        return "Completed";
-                    }
-                }
-            }
+    private List<QuizData> queryAvailableQuizzes() throws SQLException {
+        List<QuizData> quizzes = new ArrayList<>();
+        if (studentId == 0) {
+            studentId = getStudentIdForUser(loggedInUserId);
         }
         
-        return "Available";
+        // One aggregated query, cached until questions are added or this student answers
+        for (QuizCatalog.Subject subject : QuizCatalog.forStudent(studentId)) {
+            String status = studentId > 0 && subject.isCompleted() ? "Completed" : "Available";
+            quizzes.add(new QuizData(subject.getFirstQuestionId(), subject.getName(),
+                    subject.getQuestionCount(), status));
+        }
+        return quizzes;
     }
 
     /**
@@ -1106,6 +1062,7 @@ public class Quiz {
     private void gradeQuiz() {
         // Grade the quiz
         score = 0;
+        List<QuizAnswerWriter.Answer> answers = new ArrayList<>();
         
         for (int i = 0; i < questions.size(); i++) {
             Question question = questions.get(i);
@@ -1129,12 +1086,21 @@ public class Quiz {
                 score++;
             }
             
-            // Save the result to database
             if (studentId > 0 && userAnswer != null) {
-                saveAnswerToDatabase(questionIdMap.get(i), userAnswer, isCorrect);
+                answers.add(new QuizAnswerWriter.Answer(studentId, questionIdMap.get(i), userAnswer, isCorrect));
             }
         }
         
+        // Journaled right away, written to QuizResults as one batch in the background;
+        // the writer refreshes this student's catalog entry once the batch is committed
+        if (!answers.isEmpty()) {
+            QuizAnswerWriter.record(studentId, answers);
+            QuizAnswerWriter.flush().exceptionally(error -> {
+                System.err.println("Quiz answers kept for retry: " + error.getMessage());
+                return null;
+            });
+        }
+        
         // Mark quiz as completed
         markQuizAsCompleted();
         
@@ -1166,23 +1132,6 @@ public class Quiz {
         try (Connection conn = DatabaseConnection.getConnection()) {
             if (conn == null) return;
             
-            // Create CompletedQuizzes table if it doesn't exist
-            String createTableQuery = 
-                "CREATE TABLE IF NOT EXISTS CompletedQuizzes (" +
-                "id INT PRIMARY KEY AUTO_INCREMENT, " +
-                "studentID INT NOT NULL, " +
-                "subject VARCHAR(255) NOT NULL, " +
-                "score INT NOT NULL, " +
-                "totalQuestions INT NOT NULL, " +
-                "completionDate TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
-                "FOREIGN KEY (studentID) REFERENCES Students(studentID), " +
-                "UNIQUE KEY (studentID, subject)" +
-                ")";
-            
-            try (PreparedStatement createStmt = conn.prepareStatement(createTableQuery)) {
-                createStmt.executeUpdate();
-            }
-            
             // Insert or update completion record
             String query = 
                 "INSERT INTO CompletedQuizzes (studentID, subject, score, totalQuestions) " +
@@ -1270,51 +1219,6 @@ public class Quiz {
         dialog.showAndWait();
     }
     
-    /**
-     * Save answer to the QuizResults table
-     */
-    private void saveAnswerToDatabase(int questionId, String selectedOption, boolean isCorrect) {
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            if (conn == null) return;
-            
-            // First check if this answer already exists
-            String checkQuery = "SELECT COUNT(*) FROM QuizResults WHERE questionID = ? AND studentID = ?";
-            try (PreparedStatement checkStmt = conn.prepareStatement(checkQuery)) {
-                checkStmt.setInt(1, questionId);
-                checkStmt.setInt(2, studentId);
-                try (ResultSet rs = checkStmt.executeQuery()) {
-                    if (rs.next() && rs.getInt(1) > 0) {
-                        // Already exists, let's update it
-                        String updateQuery = "UPDATE QuizResults SET selectedOption = ?, isCorrect = ?, " +
-                                            "submissionDate = CURRENT_TIMESTAMP WHERE questionID = ? AND studentID = ?";
-                        try (PreparedStatement updateStmt = conn.prepareStatement(updateQuery)) {
-                            updateStmt.setString(1, selectedOption);
-                            updateStmt.setBoolean(2, isCorrect);
-                            updateStmt.setInt(3, questionId);
-                            updateStmt.setInt(4, studentId);
-                            updateStmt.executeUpdate();
-                        }
-                        return;
-                    }
-                }
-            }
-            
-            // If not exists, insert new record
-            String query = "INSERT INTO QuizResults (questionID, studentID, selectedOption, isCorrect) VALUES (?, ?, ?, ?)";
-            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-                pstmt.setInt(1, questionId);
-                pstmt.setInt(2, studentId);
-                pstmt.setString(3, selectedOption);
-                pstmt.setBoolean(4, isCorrect);
-                pstmt.executeUpdate();
-                System.out.println("Saved answer for question ID: " + questionId + ", student ID: " + studentId);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error saving answer: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-
     /**
      * Shows a styled alert dialog
      */
@@ -1,6 +1,7 @@
 package controllers_students;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -12,16 +13,18 @@ import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
-import org.mindrot.jbcrypt.BCrypt;  // Import bcrypt
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import dao.DatabaseConnection;
+import services.PasswordHasher;
+import services.UserSearchIndex;
 
 public class Registration extends Application {
     private Stage primaryStage;
+    private Button createAccountButton;
     
     @Override
     public void start(Stage primaryStage) {
@@ -65,7 +68,7 @@ public class Registration extends Application {
         confirmPasswordField.setPromptText("Confirm your password");
         confirmPasswordField.setMinHeight(40);
         
-        Button createAccountButton = new Button("Create Account");
+        createAccountButton = new Button("Create Account");
         createAccountButton.setStyle("-fx-background-color: #000000; -fx-text-fill: #ffffff; -fx-font-weight: bold;");
         createAccountButton.setMinHeight(40);
         createAccountButton.setMinWidth(300);
@@ -131,9 +134,19 @@ public class Registration extends Application {
             return;
         }
         
-        // Hash the password using bcrypt
-        String hashedPassword = BCrypt.hashpw(password, BCrypt.gensalt());
-        
+        // Hash the password using bcrypt off the UI thread, then insert the user
+        createAccountButton.setDisable(true);
+        PasswordHasher.hash(password).whenComplete((hashedPassword, error) -> Platform.runLater(() -> {
+            createAccountButton.setDisable(false);
+            if (error != null) {
+                showAlert(Alert.AlertType.ERROR, "Registration Failed", "Error: " + error.getMessage());
+                return;
+            }
+            saveUser(username, email, hashedPassword);
+        }));
+    }
+    
+    private void saveUser(String username, String email, String hashedPassword) {
         // If all validation passes, insert user into database
         Connection conn = null;
         PreparedStatement pstmt = null;
@@ -186,6 +199,7 @@ public class Registration extends Application {
                     pstmt.setInt(1, userId);
                     pstmt.setInt(2, userId);
                     pstmt.executeUpdate();
+                    UserSearchIndex.put(userId, username, email, "Student");
                     
                     // Show a brief success message
                     Alert successAlert = new Alert(Alert.AlertType.INFORMATION);
@@ -0,0 +1,332 @@
+package dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded JDBC connection pool used by {@link DatabaseConnection}.
+ * - Keeps between minSize and maxSize physical connections open
+ * - Validates idle connections when they are borrowed
+ * - Evicts connections that stay idle longer than idleTimeoutMillis
+ * - Logs connections that are held longer than leakThresholdMillis
+ *
+ * Callers receive a proxy whose close() returns the physical connection to the pool.
+ */
+class ConnectionPool {
+    // Connections used within this window are handed out again without a ping
+    private static final long VALIDATION_SKIP_MILLIS = 500;
+    private static final long HOUSEKEEPING_PERIOD_MILLIS = 30_000;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final int validationTimeoutSeconds;
+
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    // Statements created through borrowed connections; each is at least one round trip
+    private final AtomicLong statementsCreated = new AtomicLong();
+    private final Semaphore permits;
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean shutdown;
+
+    ConnectionPool(String url, String user, String password, int minSize, int maxSize,
+                   long borrowTimeoutMillis, long idleTimeoutMillis, long leakThresholdMillis,
+                   int validationTimeoutSeconds) throws SQLException {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.permits = new Semaphore(maxSize, true);
+
+        // Fill the pool up front so the first pages do not pay for connection setup
+        for (int i = 0; i < minSize; i++) {
+            idle.offer(openPhysicalConnection());
+        }
+
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep,
+                HOUSEKEEPING_PERIOD_MILLIS, HOUSEKEEPING_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    // Borrow a connection, waiting up to borrowTimeoutMillis when the pool is exhausted
+    Connection borrow() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + borrowTimeoutMillis
+                        + " ms waiting for a database connection (pool size " + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (isUsable(pooled)) {
+                    break;
+                }
+                closePhysicalConnection(pooled);
+            }
+            if (pooled == null) {
+                pooled = openPhysicalConnection();
+            }
+
+            pooled.markBorrowed();
+            borrowed.add(pooled);
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // Return a connection to the pool, resetting any state the borrower changed
+    private void release(PooledConnection pooled) {
+        if (!borrowed.remove(pooled)) {
+            return;
+        }
+
+        try {
+            pooled.closeOpenStatements();
+            Connection physical = pooled.physical;
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            if (physical.isReadOnly()) {
+                physical.setReadOnly(false);
+            }
+            physical.clearWarnings();
+
+            pooled.lastUsed = System.currentTimeMillis();
+            if (shutdown) {
+                closePhysicalConnection(pooled);
+            } else {
+                // Most recently used first, so the tail of the deque ages out
+                idle.offerFirst(pooled);
+            }
+        } catch (SQLException e) {
+            System.err.println("Discarding broken pooled connection: " + e.getMessage());
+            closePhysicalConnection(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        if (System.currentTimeMillis() - pooled.lastUsed < VALIDATION_SKIP_MILLIS) {
+            return true;
+        }
+        try {
+            return pooled.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection openPhysicalConnection() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        totalConnections.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    private void closePhysicalConnection(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    // Periodic idle eviction, minimum-size top-up and leak detection
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+
+            Iterator<PooledConnection> oldestFirst = idle.descendingIterator();
+            while (oldestFirst.hasNext() && totalConnections.get() > minSize) {
+                PooledConnection pooled = oldestFirst.next();
+                if (now - pooled.lastUsed > idleTimeoutMillis && idle.remove(pooled)) {
+                    closePhysicalConnection(pooled);
+                }
+            }
+
+            while (!shutdown && totalConnections.get() < minSize) {
+                idle.offerLast(openPhysicalConnection());
+            }
+
+            for (PooledConnection pooled : borrowed) {
+                if (!pooled.leakReported && now - pooled.borrowedAt > leakThresholdMillis) {
+                    pooled.leakReported = true;
+                    System.err.println("Possible connection leak: connection held for "
+                            + (now - pooled.borrowedAt) + " ms. Borrowed at:");
+                    pooled.borrowSite.printStackTrace();
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Connection pool housekeeping failed: " + e.getMessage());
+        }
+    }
+
+    int getTotalConnections() {
+        return totalConnections.get();
+    }
+
+    int getIdleConnections() {
+        return idle.size();
+    }
+
+    int getBorrowedConnections() {
+        return borrowed.size();
+    }
+
+    long getStatementsCreated() {
+        return statementsCreated.get();
+    }
+
+    // Close idle connections; borrowed ones are closed as they come back
+    void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            closePhysicalConnection(pooled);
+        }
+    }
+
+    /**
+     * A physical connection plus the bookkeeping the pool needs for it.
+     * Every borrow gets a fresh handle, so a stale reference kept after close()
+     * cannot touch the connection once someone else has borrowed it.
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private final List<Statement> openStatements = new ArrayList<>();
+        private volatile long lastUsed = System.currentTimeMillis();
+        private volatile long borrowedAt;
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        void markBorrowed() {
+            borrowedAt = System.currentTimeMillis();
+            borrowSite = new Throwable("Connection borrowed here");
+            leakReported = false;
+        }
+
+        Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    new Handle(this));
+        }
+
+        // Statements the borrower forgot to close would otherwise pile up on the physical connection
+        synchronized void trackStatement(Statement statement) {
+            openStatements.add(statement);
+        }
+
+        synchronized void closeOpenStatements() {
+            for (Statement statement : openStatements) {
+                try {
+                    statement.close();
+                } catch (SQLException ignored) {
+                    // The connection itself is checked right after this
+                }
+            }
+            openStatements.clear();
+        }
+    }
+
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean closed;
+
+        Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + (closed ? ", closed]" : "]");
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Connection is closed");
+            }
+
+            try {
+                Object result = method.invoke(pooled.physical, args);
+                if (result instanceof Statement) {
+                    statementsCreated.incrementAndGet();
+                    pooled.trackStatement((Statement) result);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,454 @@
+package dao;
+
+import services.PasswordHasher;
+import services.SubmissionContent;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies the numbered schema migrations below exactly once per database.
+ * Every applied migration is recorded in schema_version together with a checksum
+ * of its SQL, so a migration that is edited after it ran is reported instead of
+ * silently skipped. New schema changes go at the end of MIGRATIONS with the next
+ * version number; never edit or reorder one that has shipped.
+ */
+class SchemaMigrator {
+    // Serializes migrations when several clients start against the same server
+    private static final String LOCK_NAME = "elearningplatform.schema_migrations";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+
+    private static final List<Migration> MIGRATIONS = List.of(
+        new Migration(1, "Baseline schema",
+                "CREATE TABLE IF NOT EXISTS Users (" +
+                "userID INT PRIMARY KEY AUTO_INCREMENT," +
+                "username VARCHAR(255) UNIQUE NOT NULL," +
+                "email VARCHAR(255) UNIQUE NOT NULL," +
+                "passwordHash VARCHAR(60) NOT NULL," +
+                "role ENUM('Admin', 'Instructor', 'Student') NOT NULL)",
+
+                "CREATE TABLE IF NOT EXISTS Students (" +
+                "studentID INT PRIMARY KEY AUTO_INCREMENT," +
+                "userID INT UNIQUE," +
+                "FOREIGN KEY (userID) REFERENCES Users(userID) ON DELETE CASCADE)",
+
+                "CREATE TABLE IF NOT EXISTS Instructor (" +
+                "instructorID INT PRIMARY KEY AUTO_INCREMENT," +
+                "userID INT UNIQUE," +
+                "FOREIGN KEY (userID) REFERENCES Users(userID) ON DELETE CASCADE)",
+
+                "CREATE TABLE IF NOT EXISTS Admin (" +
+                "adminID INT PRIMARY KEY AUTO_INCREMENT," +
+                "userID INT UNIQUE," +
+                "FOREIGN KEY (userID) REFERENCES Users(userID) ON DELETE CASCADE)",
+
+                "CREATE TABLE IF NOT EXISTS quiz_questions (" +
+                "id INT AUTO_INCREMENT PRIMARY KEY," +
+                "subject VARCHAR(255) NOT NULL," +
+                "question TEXT NOT NULL," +
+                "option_a VARCHAR(255) NOT NULL," +
+                "option_b VARCHAR(255) NOT NULL," +
+                "option_c VARCHAR(255)," +
+                "option_d VARCHAR(255)," +
+                "correct_option VARCHAR(255) NOT NULL)",
+
+                "CREATE TABLE IF NOT EXISTS QuizResults (" +
+                "resultID INT PRIMARY KEY AUTO_INCREMENT," +
+                "questionID INT NOT NULL," +
+                "studentID INT NOT NULL," +
+                "selectedOption VARCHAR(255) NOT NULL," +
+                "isCorrect BOOLEAN DEFAULT FALSE," +
+                "submissionDate TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+                "FOREIGN KEY (studentID) REFERENCES Students(studentID)," +
+                "FOREIGN KEY (questionID) REFERENCES quiz_questions(id)," +
+                "UNIQUE KEY (questionID, studentID))",
+
+                "CREATE TABLE IF NOT EXISTS Courses (" +
+                "courseID INT PRIMARY KEY AUTO_INCREMENT," +
+                "courseName VARCHAR(255) NOT NULL UNIQUE," +
+                "description TEXT," +
+                "createdBy INT," +
+                "courseColor VARCHAR(20)," +
+                "FOREIGN KEY (createdBy) REFERENCES Users(userID) ON DELETE SET NULL)",
+
+                "CREATE TABLE IF NOT EXISTS Lessons (" +
+                "lessonID INT PRIMARY KEY AUTO_INCREMENT," +
+                "courseID INT NOT NULL," +
+                "title VARCHAR(255) NOT NULL," +
+                "category VARCHAR(100)," +
+                "studentCount INT DEFAULT 0," +
+                "rating DECIMAL(3,2) DEFAULT 0.0," +
+                "content TEXT," +
+                "FOREIGN KEY (courseID) REFERENCES Courses(courseID) ON DELETE CASCADE)",
+
+                "CREATE TABLE IF NOT EXISTS LessonProgress (" +
+                "progressID INT PRIMARY KEY AUTO_INCREMENT," +
+                "studentID INT NOT NULL," +
+                "lessonID INT NOT NULL," +
+                "completionStatus ENUM('Not Started', 'In Progress', 'Completed') DEFAULT 'Not Started'," +
+                "completionDate TIMESTAMP NULL," +
+                "lastAccessed TIMESTAMP NULL," +
+                "FOREIGN KEY (studentID) REFERENCES Students(studentID)," +
+                "FOREIGN KEY (lessonID) REFERENCES Lessons(lessonID)," +
+                "UNIQUE KEY (studentID, lessonID))",
+
+                "CREATE TABLE IF NOT EXISTS Enrollments (" +
+                "enrollmentID INT PRIMARY KEY AUTO_INCREMENT," +
+                "studentID INT," +
+                "courseID INT," +
+                "enrollmentDate TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+                "completionPercentage FLOAT DEFAULT 0.0," +
+                "periodNumber INT DEFAULT 1," +
+                "FOREIGN KEY (studentID) REFERENCES Students(studentID)," +
+                "FOREIGN KEY (courseID) REFERENCES Courses(courseID)," +
+                "UNIQUE (studentID, courseID))",
+
+                "CREATE TABLE IF NOT EXISTS Assignments (" +
+                "assignmentID INT PRIMARY KEY AUTO_INCREMENT," +
+                "courseID INT NOT NULL," +
+                "title VARCHAR(255) NOT NULL," +
+                "description TEXT," +
+                "dueDate DATE NOT NULL," +
+                "points VARCHAR(10) DEFAULT '10'," +
+                "priority VARCHAR(20) DEFAULT 'Medium'," +
+                "createdAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+                "FOREIGN KEY (courseID) REFERENCES Courses(courseID))",
+
+                "CREATE TABLE IF NOT EXISTS AssignmentProgress (" +
+                "progressID INT PRIMARY KEY AUTO_INCREMENT," +
+                "assignmentID INT NOT NULL," +
+                "studentID INT NOT NULL," +
+                "content TEXT," +
+                "status VARCHAR(50) DEFAULT 'Not started'," +
+                "lastUpdated TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP," +
+                "FOREIGN KEY (assignmentID) REFERENCES Assignments(assignmentID)," +
+                "FOREIGN KEY (studentID) REFERENCES Students(studentID)," +
+                "UNIQUE KEY (assignmentID, studentID))",
+
+                "CREATE TABLE IF NOT EXISTS Activities (" +
+                "activityID INT PRIMARY KEY AUTO_INCREMENT," +
+                "studentID INT," +
+                "courseID INT," +
+                "activityType VARCHAR(50)," +
+                "description TEXT," +
+                "completionStatus VARCHAR(20)," +
+                "activityDate TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+                "FOREIGN KEY (studentID) REFERENCES Students(studentID)," +
+                "FOREIGN KEY (courseID) REFERENCES Courses(courseID))"),
+
+        new Migration(2, "Completed quizzes per student and subject",
+                "CREATE TABLE IF NOT EXISTS CompletedQuizzes (" +
+                "id INT PRIMARY KEY AUTO_INCREMENT," +
+                "studentID INT NOT NULL," +
+                "subject VARCHAR(255) NOT NULL," +
+                "score INT NOT NULL," +
+                "totalQuestions INT NOT NULL," +
+                "completionDate TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+                "FOREIGN KEY (studentID) REFERENCES Students(studentID)," +
+                "UNIQUE KEY (studentID, subject))"),
+
+        // Databases created before lessons had content are missing this column
+        new Migration(3, "Lessons.content column",
+                addColumnIfMissing("Lessons", "content", "TEXT")),
+
+        // Runs once per install, so the admin password is hashed at most once
+        new Migration(4, "Default admin account", SchemaMigrator::insertDefaultAdmin),
+
+        // Lets the latest activity per student be read straight from the index
+        new Migration(5, "Activities (studentID, activityDate) index",
+                addIndexIfMissing("Activities", "idx_activities_student_date", "studentID, activityDate")),
+
+        // Keyset paging in User Management seeks on userID within a role
+        new Migration(6, "Users (role, userID) index",
+                addIndexIfMissing("Users", "idx_users_role_id", "role, userID")),
+
+        // The quiz catalog groups questions by subject
+        new Migration(7, "quiz_questions (subject, id) index",
+                addIndexIfMissing("quiz_questions", "idx_quiz_questions_subject", "subject, id")),
+
+        // Per-subject answer totals for the instructors' quiz dashboard, kept current by the
+        // quiz answer writer; seeded here from the answers saved so far
+        new Migration(8, "QuizSubjectStats table",
+                "CREATE TABLE IF NOT EXISTS QuizSubjectStats (" +
+                "subject VARCHAR(255) PRIMARY KEY," +
+                "attempts INT NOT NULL DEFAULT 0," +
+                "correct INT NOT NULL DEFAULT 0)",
+
+                "INSERT INTO QuizSubjectStats (subject, attempts, correct) " +
+                "SELECT qq.subject, COUNT(*), SUM(qr.isCorrect) " +
+                "FROM QuizResults qr JOIN quiz_questions qq ON qr.questionID = qq.id " +
+                "GROUP BY qq.subject " +
+                "ON DUPLICATE KEY UPDATE attempts = VALUES(attempts), correct = VALUES(correct)"),
+
+        // Lesson counters per enrollment, so completing a lesson updates one row instead of recounting
+        new Migration(9, "Enrollments lesson counters", concat(
+                addColumnIfMissing("Enrollments", "completedLessons", "INT NOT NULL DEFAULT 0"),
+                addColumnIfMissing("Enrollments", "totalLessons", "INT NOT NULL DEFAULT 0"),
+                new String[] {
+                    "UPDATE Enrollments e SET " +
+                    "totalLessons = (SELECT COUNT(*) FROM Lessons l WHERE l.courseID = e.courseID), " +
+                    "completedLessons = (SELECT COUNT(*) FROM LessonProgress lp " +
+                    "JOIN Lessons l ON lp.lessonID = l.lessonID " +
+                    "WHERE l.courseID = e.courseID AND lp.studentID = e.studentID " +
+                    "AND lp.completionStatus = 'Completed'), " +
+                    "completionPercentage = IF(totalLessons > 0, completedLessons * 100.0 / totalLessons, 0)"
+                })),
+
+        // Bumped on every lesson edit, so cached lesson text can tell when it is stale
+        new Migration(10, "Lessons.contentVersion column",
+                addColumnIfMissing("Lessons", "contentVersion", "INT NOT NULL DEFAULT 0")),
+
+        // Lets the cached student assignment board refresh only what changed since its last read
+        new Migration(11, "Assignments.updatedAt column, AssignmentProgress (studentID, lastUpdated) index", concat(
+                addColumnIfMissing("Assignments", "updatedAt",
+                        "TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP"),
+                addIndexIfMissing("AssignmentProgress", "idx_assignment_progress_student_updated",
+                        "studentID, lastUpdated"))),
+
+        // Assignment draft autosave uses lastUpdated as the row version; whole seconds let two saves look alike
+        new Migration(12, "AssignmentProgress.lastUpdated millisecond precision",
+                "ALTER TABLE AssignmentProgress MODIFY lastUpdated " +
+                "TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)"),
+
+        // Submission text is stored deflated; size, hash and snippet let lists skip fetching it
+        new Migration(13, "AssignmentProgress compressed content columns", concat(
+                addColumnIfMissing("AssignmentProgress", "contentCompressed", "MEDIUMBLOB"),
+                addColumnIfMissing("AssignmentProgress", "contentSize", "INT NOT NULL DEFAULT 0"),
+                addColumnIfMissing("AssignmentProgress", "contentHash", "CHAR(64)"),
+                addColumnIfMissing("AssignmentProgress", "contentSnippet", "VARCHAR(255)"))),
+
+        new Migration(14, "Compress existing AssignmentProgress content", SchemaMigrator::compressSubmissions),
+
+        // Keyset paging of the instructor assignment list, with and without a course filter
+        new Migration(15, "Assignments (dueDate, assignmentID) and (courseID, dueDate, assignmentID) indexes", concat(
+                addIndexIfMissing("Assignments", "idx_assignments_due", "dueDate, assignmentID"),
+                addIndexIfMissing("Assignments", "idx_assignments_course_due", "courseID, dueDate, assignmentID"))),
+
+        // Instructor grading, written in bulk by AssignmentGrader
+        new Migration(16, "AssignmentProgress score, feedback and gradedAt columns", concat(
+                addColumnIfMissing("AssignmentProgress", "score", "DECIMAL(6,2) NULL"),
+                addColumnIfMissing("AssignmentProgress", "feedback", "TEXT NULL"),
+                addColumnIfMissing("AssignmentProgress", "gradedAt", "TIMESTAMP(3) NULL")))
+    );
+
+    private SchemaMigrator() {
+    }
+
+    // Bring the schema up to date; called once when the connection pool is created
+    static void migrate(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS schema_version (" +
+                    "version INT PRIMARY KEY," +
+                    "description VARCHAR(255) NOT NULL," +
+                    "checksum CHAR(64) NOT NULL," +
+                    "installedOn TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+        }
+
+        acquireLock(conn);
+        try {
+            Map<Integer, String> applied = loadAppliedChecksums(conn);
+            int appliedNow = 0;
+
+            for (Migration migration : MIGRATIONS) {
+                String recordedChecksum = applied.remove(migration.version);
+                if (recordedChecksum == null) {
+                    apply(conn, migration);
+                    appliedNow++;
+                } else if (!recordedChecksum.equals(migration.checksum)) {
+                    throw new SQLException("Migration " + migration.version + " (" + migration.description +
+                            ") has changed since it was applied: recorded checksum " + recordedChecksum +
+                            ", current checksum " + migration.checksum);
+                }
+            }
+
+            if (!applied.isEmpty()) {
+                System.out.println("Database has migrations unknown to this build: " + applied.keySet());
+            }
+            System.out.println("Schema is up to date (" + appliedNow + " migration(s) applied).");
+        } finally {
+            releaseLock(conn);
+        }
+    }
+
+    // Insert default admin user if it doesn't exist
+    private static void insertDefaultAdmin(Connection connection) throws SQLException {
+        String checkUser = "SELECT userID FROM Users WHERE username = ?";
+        try (PreparedStatement checkStmt = connection.prepareStatement(checkUser)) {
+            checkStmt.setString(1, "admin");
+            ResultSet rs = checkStmt.executeQuery();
+
+            if (!rs.next()) {
+                String insertUser = "INSERT INTO Users (username, email, passwordHash, role) VALUES (?, ?, ?, 'Admin')";
+                try (PreparedStatement insertStmt = connection.prepareStatement(insertUser)) {
+                    insertStmt.setString(1, "admin");
+                    insertStmt.setString(2, "Admin@gmail.com");
+                    insertStmt.setString(3, PasswordHasher.hash("admin").join());
+                    insertStmt.executeUpdate();
+                    System.out.println("Admin user inserted.");
+                }
+            } else {
+                System.out.println("Admin user already exists. Skipping insert.");
+            }
+        }
+    }
+
+    // Move plain-text submissions into the compressed columns; rows already moved are skipped, so a rerun resumes
+    private static void compressSubmissions(Connection conn) throws SQLException {
+        String select = "SELECT progressID, content FROM AssignmentProgress " +
+                "WHERE content IS NOT NULL AND contentCompressed IS NULL";
+        String update = "UPDATE AssignmentProgress SET content = NULL, lastUpdated = lastUpdated, " +
+                "contentCompressed = ?, contentSize = ?, contentHash = ?, contentSnippet = ? WHERE progressID = ?";
+        int moved = 0;
+        try (PreparedStatement selectStmt = conn.prepareStatement(select);
+             ResultSet rs = selectStmt.executeQuery();
+             PreparedStatement updateStmt = conn.prepareStatement(update)) {
+            while (rs.next()) {
+                int index = SubmissionContent.bind(updateStmt, 1, rs.getString("content"));
+                updateStmt.setInt(index, rs.getInt("progressID"));
+                updateStmt.addBatch();
+                if (++moved % 500 == 0) {
+                    updateStmt.executeBatch();
+                }
+            }
+            updateStmt.executeBatch();
+        }
+        System.out.println("Compressed " + moved + " assignment submission(s)");
+    }
+
+    private static void apply(Connection conn, Migration migration) throws SQLException {
+        System.out.println("Applying migration " + migration.version + ": " + migration.description);
+
+        // MySQL commits DDL implicitly, so statements are written to be safe to re-run
+        // in case a migration fails part way through
+        try (Statement stmt = conn.createStatement()) {
+            for (String statement : migration.statements) {
+                stmt.execute(statement);
+            }
+        }
+        if (migration.dataStep != null) {
+            migration.dataStep.run(conn);
+        }
+
+        String record = "INSERT INTO schema_version (version, description, checksum) VALUES (?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(record)) {
+            pstmt.setInt(1, migration.version);
+            pstmt.setString(2, migration.description);
+            pstmt.setString(3, migration.checksum);
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static Map<Integer, String> loadAppliedChecksums(Connection conn) throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getString("checksum"));
+            }
+        }
+        return applied;
+    }
+
+    private static void acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Timed out waiting for the schema migration lock");
+                }
+            }
+        }
+    }
+
+    private static void releaseLock(Connection conn) {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.executeQuery().close();
+        } catch (SQLException e) {
+            System.err.println("Error releasing schema migration lock: " + e.getMessage());
+        }
+    }
+
+    // MySQL has no ADD COLUMN IF NOT EXISTS, so look the column up and run a no-op when present
+    private static String[] addColumnIfMissing(String table, String column, String definition) {
+        return new String[] {
+            "SET @ddl = IF((SELECT COUNT(*) FROM information_schema.COLUMNS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = '" + table + "' AND COLUMN_NAME = '" + column + "') = 0, " +
+                "'ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition + "', 'DO 0')",
+            "PREPARE migrationStmt FROM @ddl",
+            "EXECUTE migrationStmt",
+            "DEALLOCATE PREPARE migrationStmt"
+        };
+    }
+
+    // MySQL has no CREATE INDEX IF NOT EXISTS either, so the same lookup trick is used
+    private static String[] addIndexIfMissing(String table, String index, String columns) {
+        return new String[] {
+            "SET @ddl = IF((SELECT COUNT(*) FROM information_schema.STATISTICS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = '" + table + "' AND INDEX_NAME = '" + index + "') = 0, " +
+                "'CREATE INDEX " + index + " ON " + table + " (" + columns + ")', 'DO 0')",
+            "PREPARE migrationStmt FROM @ddl",
+            "EXECUTE migrationStmt",
+            "DEALLOCATE PREPARE migrationStmt"
+        };
+    }
+
+    private static String[] concat(String[]... groups) {
+        List<String> statements = new ArrayList<>();
+        for (String[] group : groups) {
+            statements.addAll(Arrays.asList(group));
+        }
+        return statements.toArray(new String[0]);
+    }
+
+    // Data changes that need Java code, such as hashing, rather than plain SQL
+    private interface DataStep {
+        void run(Connection conn) throws SQLException;
+    }
+
+    private static final class Migration {
+        private final int version;
+        private final String description;
+        private final String[] statements;
+        private final DataStep dataStep;
+        private final String checksum;
+
+        Migration(int version, String description, String... statements) {
+            this.version = version;
+            this.description = description;
+            this.statements = statements;
+            this.dataStep = null;
+            this.checksum = sha256(String.join(";\n", statements));
+        }
+
+        // Code cannot be checksummed, so data steps are identified by their description
+        Migration(int version, String description, DataStep dataStep) {
+            this.version = version;
+            this.description = description;
+            this.statements = new String[0];
+            this.dataStep = dataStep;
+            this.checksum = sha256("data:" + description);
+        }
+
+        private static String sha256(String text) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+                StringBuilder hex = new StringBuilder(digest.length * 2);
+                for (byte b : digest) {
+                    hex.append(String.format("%02x", b));
+                }
+                return hex.toString();
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+    }
+}
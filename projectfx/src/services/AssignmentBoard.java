@@ -0,0 +1,257 @@
+package services;
+
+import dao.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A student's enrolled courses with their assignments and the student's progress on each,
+ * read with one query and cached per student.
+ * - Every call first reads a fingerprint of the student's enrollments, courses and
+ *   assignments; when it differs from the cached board the board is read again
+ * - Otherwise only AssignmentProgress rows updated since the last read are fetched and
+ *   patched into the cached board. lastUpdated is set when a statement runs, not when its
+ *   transaction commits, so each read goes back -Dassignment.board.overlapSeconds (default 60)
+ *   before the newest version seen, and the fingerprint also counts the student's progress
+ *   rows so a row created later than that still reloads the board
+ * Both steps run on one connection, so a page load costs the same whatever the course count.
+ */
+public final class AssignmentBoard {
+    private static final long OVERLAP_MILLIS = Long.getLong("assignment.board.overlapSeconds", 60L) * 1000L;
+
+    private static final String BOARD_QUERY =
+            "SELECT c.courseID, c.courseName, c.courseColor, e.periodNumber, " +
+            "a.assignmentID, a.title, a.dueDate, a.points, a.priority, a.description, " +
+            "ap.status, ap.content, ap.contentCompressed, ap.lastUpdated " +
+            "FROM Enrollments e " +
+            "JOIN Courses c ON c.courseID = e.courseID " +
+            "LEFT JOIN Assignments a ON a.courseID = c.courseID " +
+            "LEFT JOIN AssignmentProgress ap ON ap.assignmentID = a.assignmentID AND ap.studentID = e.studentID " +
+            "WHERE e.studentID = ? " +
+            "ORDER BY e.periodNumber, c.courseID, a.dueDate";
+
+    // Changes when an enrollment, one of its courses or one of its assignments is added, removed or
+    // edited, or when the student gets a new progress row
+    private static final String FINGERPRINT_QUERY =
+            "SELECT ec.courses, ec.courseChecksum, ea.assignments, ea.lastAssignmentChange, ep.progressRows FROM " +
+            "(SELECT COUNT(*) AS courses, " +
+            "COALESCE(SUM(CRC32(CONCAT_WS('|', c.courseID, c.courseName, c.courseColor, e.periodNumber))), 0) AS courseChecksum " +
+            "FROM Enrollments e JOIN Courses c ON c.courseID = e.courseID WHERE e.studentID = ?) ec, " +
+            "(SELECT COUNT(*) AS assignments, MAX(a.updatedAt) AS lastAssignmentChange " +
+            "FROM Enrollments e JOIN Assignments a ON a.courseID = e.courseID WHERE e.studentID = ?) ea, " +
+            "(SELECT COUNT(*) AS progressRows FROM AssignmentProgress WHERE studentID = ?) ep";
+
+    // Bound to the newest version seen minus the overlap; patching a row twice is harmless
+    private static final String PROGRESS_QUERY =
+            "SELECT assignmentID, status, content, contentCompressed, lastUpdated FROM AssignmentProgress " +
+            "WHERE studentID = ? AND lastUpdated >= ?";
+
+    private static final Map<Integer, Board> BOARDS = new ConcurrentHashMap<>();
+
+    private AssignmentBoard() {
+    }
+
+    // The student's courses in period order, each with its assignments by due date
+    public static List<Subject> forStudent(int studentId) throws SQLException {
+        Board board = BOARDS.computeIfAbsent(studentId, id -> new Board());
+        synchronized (board) {
+            try (Connection conn = DatabaseConnection.getConnection()) {
+                if (conn == null) {
+                    throw new SQLException("No database connection");
+                }
+                String fingerprint = readFingerprint(conn, studentId);
+                if (board.subjects == null || !fingerprint.equals(board.fingerprint)) {
+                    loadBoard(conn, studentId, board);
+                    board.fingerprint = fingerprint;
+                } else {
+                    refreshProgress(conn, studentId, board);
+                }
+            }
+            return board.snapshot();
+        }
+    }
+
+    public static void invalidate(int studentId) {
+        BOARDS.remove(studentId);
+    }
+
+    private static String readFingerprint(Connection conn, int studentId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(FINGERPRINT_QUERY)) {
+            pstmt.setInt(1, studentId);
+            pstmt.setInt(2, studentId);
+            pstmt.setInt(3, studentId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return "";
+                }
+                return rs.getLong("courses") + "|" + rs.getLong("courseChecksum") + "|"
+                        + rs.getLong("assignments") + "|" + rs.getTimestamp("lastAssignmentChange") + "|"
+                        + rs.getLong("progressRows");
+            }
+        }
+    }
+
+    private static void loadBoard(Connection conn, int studentId, Board board) throws SQLException {
+        Map<Integer, Subject> subjects = new LinkedHashMap<>();
+        Map<Integer, Item> items = new HashMap<>();
+        Timestamp watermark = new Timestamp(0);
+
+        try (PreparedStatement pstmt = conn.prepareStatement(BOARD_QUERY)) {
+            pstmt.setInt(1, studentId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int courseId = rs.getInt("courseID");
+                    Subject subject = subjects.get(courseId);
+                    if (subject == null) {
+                        subject = new Subject(courseId, rs.getString("courseName"),
+                                "Period " + rs.getInt("periodNumber"), rs.getString("courseColor"));
+                        subjects.put(courseId, subject);
+                    }
+
+                    int assignmentId = rs.getInt("assignmentID");
+                    if (rs.wasNull()) {
+                        continue; // A course without assignments
+                    }
+                    Timestamp lastUpdated = rs.getTimestamp("lastUpdated");
+                    Item item = new Item(assignmentId, rs.getString("title"),
+                            rs.getDate("dueDate").toLocalDate(), rs.getString("points"),
+                            rs.getString("priority"), rs.getString("description"),
+                            rs.getString("status"), SubmissionContent.read(rs), lastUpdated);
+                    subject.items.add(item);
+                    items.put(assignmentId, item);
+
+                    if (lastUpdated != null && lastUpdated.after(watermark)) {
+                        watermark = lastUpdated;
+                    }
+                }
+            }
+        }
+
+        board.subjects = new ArrayList<>(subjects.values());
+        board.items = items;
+        board.watermark = watermark;
+    }
+
+    private static void refreshProgress(Connection conn, int studentId, Board board) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(PROGRESS_QUERY)) {
+            pstmt.setInt(1, studentId);
+            // Rows written in a transaction that committed after the last read can be older than the watermark
+            pstmt.setTimestamp(2, new Timestamp(board.watermark.getTime() - OVERLAP_MILLIS));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Item item = board.items.get(rs.getInt("assignmentID"));
+                    Timestamp lastUpdated = rs.getTimestamp("lastUpdated");
+                    if (item != null) {
+                        item.status = rs.getString("status");
+                        item.content = SubmissionContent.read(rs);
+                        item.lastUpdated = lastUpdated;
+                    }
+                    if (lastUpdated != null && lastUpdated.after(board.watermark)) {
+                        board.watermark = lastUpdated;
+                    }
+                }
+            }
+        }
+    }
+
+    // Guarded by its own lock
+    private static final class Board {
+        private String fingerprint;
+        private List<Subject> subjects;
+        private Map<Integer, Item> items;
+        private Timestamp watermark;
+
+        // Copies, so callers never see a later patch half applied
+        List<Subject> snapshot() {
+            List<Subject> copy = new ArrayList<>(subjects.size());
+            for (Subject subject : subjects) {
+                Subject subjectCopy = new Subject(subject.courseId, subject.name, subject.period, subject.color);
+                for (Item item : subject.items) {
+                    subjectCopy.items.add(item.copy());
+                }
+                copy.add(subjectCopy);
+            }
+            return copy;
+        }
+    }
+
+    /**
+     * One enrolled course and its assignments.
+     */
+    public static final class Subject {
+        private final int courseId;
+        private final String name;
+        private final String period;
+        private final String color;
+        private final List<Item> items = new ArrayList<>();
+
+        Subject(int courseId, String name, String period, String color) {
+            this.courseId = courseId;
+            this.name = name;
+            this.period = period;
+            this.color = color;
+        }
+
+        public int getCourseId() { return courseId; }
+        public String getName() { return name; }
+        public String getPeriod() { return period; }
+        // Null when the course has no color set
+        public String getColor() { return color; }
+        public List<Item> getItems() { return items; }
+    }
+
+    /**
+     * One assignment with the student's progress on it.
+     */
+    public static final class Item {
+        private final int assignmentId;
+        private final String title;
+        private final LocalDate dueDate;
+        private final String points;
+        private final String priority;
+        private final String description;
+        private String status;
+        private String content;
+        private Timestamp lastUpdated;
+
+        Item(int assignmentId, String title, LocalDate dueDate, String points, String priority,
+             String description, String status, String content, Timestamp lastUpdated) {
+            this.assignmentId = assignmentId;
+            this.title = title;
+            this.dueDate = dueDate;
+            this.points = points;
+            this.priority = priority;
+            this.description = description;
+            this.status = status;
+            this.content = content;
+            this.lastUpdated = lastUpdated;
+        }
+
+        Item copy() {
+            return new Item(assignmentId, title, dueDate, points, priority, description, status, content, lastUpdated);
+        }
+
+        public int getAssignmentId() { return assignmentId; }
+        public String getTitle() { return title; }
+        public LocalDate getDueDate() { return dueDate; }
+        public String getPoints() { return points; }
+        public String getPriority() { return priority; }
+        public String getDescription() { return description; }
+        // Null until the student has started the assignment
+        public String getStatus() { return status; }
+        public String getContent() { return content; }
+        // Version of the student's progress row, null while there is none
+        public Timestamp getLastUpdated() { return lastUpdated; }
+    }
+}
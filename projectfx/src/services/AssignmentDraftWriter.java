@@ -0,0 +1,478 @@
+package services;
+
+import dao.DatabaseConnection;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Autosave for assignment drafts.
+ * - Session.edit() only keeps the latest text in memory, so typing costs nothing
+ * - Every -Dassignment.drafts.saveSeconds (default 3) a background thread writes each changed
+ *   draft to a local file and then to AssignmentProgress as one upsert, so an assignment gets
+ *   at most one write per interval however fast the student types
+ * - AssignmentProgress.lastUpdated is the row version: a draft only lands if the row still has
+ *   the version the draft was based on and is not Completed. Otherwise the draft is marked
+ *   conflicted and kept in its local file, and the next open() offers it back
+ * - A local file is deleted once the database has its text; files left by a crash are saved
+ *   on first use
+ */
+public final class AssignmentDraftWriter {
+    private static final long SAVE_SECONDS = Long.getLong("assignment.drafts.saveSeconds", 3L);
+    private static final Path DRAFTS = Paths.get(System.getProperty("assignment.drafts.dir",
+            Paths.get(System.getProperty("user.home"), ".elearningplatform", "drafts").toString()));
+    private static final String DRAFT_SUFFIX = ".draft";
+
+    // The text goes in SubmissionContent's compressed columns
+    private static final String INSERT_DRAFT =
+            "INSERT INTO AssignmentProgress (assignmentID, studentID, " + SubmissionContent.COLUMNS + ", " +
+            "status, lastUpdated) VALUES (?, ?, ?, ?, ?, ?, 'In progress', CURRENT_TIMESTAMP(3))";
+    private static final String UPDATE_DRAFT =
+            "UPDATE AssignmentProgress SET content = NULL, contentCompressed = ?, contentSize = ?, " +
+            "contentHash = ?, contentSnippet = ?, status = 'In progress', lastUpdated = CURRENT_TIMESTAMP(3) " +
+            "WHERE assignmentID = ? AND studentID = ? AND lastUpdated = ? AND status <> 'Completed'";
+    // A submission is the student's final answer, so it replaces whatever version is saved
+    private static final String SUBMIT =
+            "INSERT INTO AssignmentProgress (assignmentID, studentID, " + SubmissionContent.COLUMNS + ", " +
+            "status, lastUpdated) VALUES (?, ?, ?, ?, ?, ?, 'Completed', CURRENT_TIMESTAMP(3)) " +
+            "ON DUPLICATE KEY UPDATE content = NULL, contentCompressed = VALUES(contentCompressed), " +
+            "contentSize = VALUES(contentSize), contentHash = VALUES(contentHash), " +
+            "contentSnippet = VALUES(contentSnippet), status = 'Completed', lastUpdated = CURRENT_TIMESTAMP(3)";
+    private static final String READ_VERSION =
+            "SELECT lastUpdated FROM AssignmentProgress WHERE assignmentID = ? AND studentID = ?";
+
+    // Guarded by the class lock: the latest unsaved draft, and the last text this app saved, per (student, assignment)
+    private static final Map<String, Draft> PENDING = new LinkedHashMap<>();
+    private static final Map<String, Saved> SAVED = new HashMap<>();
+    private static final ScheduledExecutorService SAVER = createSaver();
+
+    static {
+        replayDrafts();
+        SAVER.scheduleWithFixedDelay(AssignmentDraftWriter::saveQuietly,
+                SAVE_SECONDS, SAVE_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * What became of a session's latest save; reported on the saver thread.
+     */
+    public enum State {
+        SAVED,
+        // The saved copy changed elsewhere; the draft is only kept locally
+        CONFLICT,
+        // The database could not be reached; the draft is kept locally and retried
+        FAILED
+    }
+
+    private AssignmentDraftWriter() {
+    }
+
+    /**
+     * Start editing an assignment whose saved content and version were read as given
+     * (null when the student has no progress row yet). If this app saved a newer version
+     * since, the session starts from that instead.
+     */
+    public static Session open(int studentId, int assignmentId, String savedContent, Timestamp savedVersion,
+                               Consumer<State> listener) {
+        String key = key(studentId, assignmentId);
+        String content = savedContent;
+        Timestamp version = savedVersion;
+        String unsaved;
+        synchronized (AssignmentDraftWriter.class) {
+            Saved saved = SAVED.get(key);
+            if (saved != null && (version == null || saved.version.after(version))) {
+                content = saved.content;
+                version = saved.version;
+            }
+            Draft pending = PENDING.get(key);
+            unsaved = pending != null ? pending.content : readDraftFile(key);
+        }
+
+        Session session = new Session(studentId, assignmentId, content, version, listener);
+        if (unsaved != null && !unsaved.equals(Objects.toString(content, ""))) {
+            session.unsavedDraft = unsaved;
+        }
+        return session;
+    }
+
+    // Save every pending draft now, on the background thread
+    public static CompletableFuture<Void> flush() {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                savePending();
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, SAVER);
+    }
+
+    /**
+     * Submit the final text on the background thread. The text is written to its local
+     * file first, so a failed submit keeps it like any unsaved draft.
+     */
+    public static CompletableFuture<Void> submit(int studentId, int assignmentId, String content) {
+        String key = key(studentId, assignmentId);
+        synchronized (AssignmentDraftWriter.class) {
+            PENDING.remove(key);
+        }
+        return CompletableFuture.runAsync(() -> {
+            try {
+                writeDraftFile(new Draft(null, key, content, null, false));
+                try (Connection conn = DatabaseConnection.getConnection()) {
+                    if (conn == null) {
+                        throw new SQLException("No database connection");
+                    }
+                    try (PreparedStatement pstmt = conn.prepareStatement(SUBMIT)) {
+                        pstmt.setInt(1, assignmentId);
+                        pstmt.setInt(2, studentId);
+                        SubmissionContent.bind(pstmt, 3, content);
+                        pstmt.executeUpdate();
+                    }
+                }
+                synchronized (AssignmentDraftWriter.class) {
+                    SAVED.remove(key);
+                    if (!PENDING.containsKey(key)) {
+                        Files.deleteIfExists(draftFile(key));
+                    }
+                }
+            } catch (SQLException | IOException e) {
+                throw new CompletionException(e);
+            }
+        }, SAVER);
+    }
+
+    // Runs on the saver thread only, so two saves never overlap
+    private static void savePending() throws SQLException {
+        List<Draft> batch;
+        synchronized (AssignmentDraftWriter.class) {
+            if (PENDING.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(PENDING.values());
+        }
+
+        // On disk before the database is tried, so a failure below loses nothing
+        for (Draft draft : batch) {
+            try {
+                writeDraftFile(draft);
+            } catch (IOException e) {
+                System.err.println("Could not keep assignment draft locally: " + e.getMessage());
+            }
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                throw new SQLException("No database connection");
+            }
+            for (Draft draft : batch) {
+                // Once a session has conflicted its drafts stay local until the student reopens
+                Timestamp version = draft.isConflicted() ? null : saveDraft(conn, draft);
+                synchronized (AssignmentDraftWriter.class) {
+                    // A draft edited again while this one was saving stays pending
+                    boolean latest = PENDING.remove(draft.key, draft);
+                    if (version == null) {
+                        if (latest) {
+                            conflict(draft);
+                        }
+                        continue;
+                    }
+                    SAVED.put(draft.key, new Saved(draft.content, version));
+                    if (draft.session != null) {
+                        draft.session.version = version;
+                    }
+                    if (latest) {
+                        deleteDraftFile(draft.key);
+                    }
+                }
+                draft.report(State.SAVED);
+            }
+        } catch (SQLException e) {
+            for (Draft draft : batch) {
+                draft.report(State.FAILED);
+            }
+            throw e;
+        }
+        System.out.println("Autosaved " + batch.size() + " assignment draft(s)");
+    }
+
+    // The row's new version, or null when it changed since the draft's base()
+    private static Timestamp saveDraft(Connection conn, Draft draft) throws SQLException {
+        Timestamp base = draft.base();
+        conn.setAutoCommit(false);
+        try {
+            int written;
+            if (base == null) {
+                try (PreparedStatement pstmt = conn.prepareStatement(INSERT_DRAFT)) {
+                    pstmt.setInt(1, draft.assignmentId());
+                    pstmt.setInt(2, draft.studentId());
+                    SubmissionContent.bind(pstmt, 3, draft.content);
+                    written = pstmt.executeUpdate();
+                } catch (SQLIntegrityConstraintViolationException e) {
+                    written = 0; // Someone else created the row first
+                }
+            } else {
+                try (PreparedStatement pstmt = conn.prepareStatement(UPDATE_DRAFT)) {
+                    int index = SubmissionContent.bind(pstmt, 1, draft.content);
+                    pstmt.setInt(index, draft.assignmentId());
+                    pstmt.setInt(index + 1, draft.studentId());
+                    pstmt.setTimestamp(index + 2, base);
+                    written = pstmt.executeUpdate();
+                }
+            }
+
+            Timestamp version = null;
+            if (written > 0) {
+                // The row stays locked until commit, so this is the version just written
+                try (PreparedStatement pstmt = conn.prepareStatement(READ_VERSION)) {
+                    pstmt.setInt(1, draft.assignmentId());
+                    pstmt.setInt(2, draft.studentId());
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        if (rs.next()) {
+                            version = rs.getTimestamp("lastUpdated");
+                        }
+                    }
+                }
+            }
+            conn.commit();
+            return version;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    // Called with the class lock held
+    private static void conflict(Draft draft) {
+        try {
+            writeDraftFile(new Draft(null, draft.key, draft.content, draft.base(), true));
+        } catch (IOException e) {
+            System.err.println("Could not keep conflicting assignment draft locally: " + e.getMessage());
+        }
+        if (draft.session != null) {
+            draft.session.conflicted = true;
+        }
+        System.out.println("Assignment draft " + draft.key + " changed elsewhere; kept locally");
+        draft.report(State.CONFLICT);
+    }
+
+    private static void saveQuietly() {
+        try {
+            savePending();
+        } catch (Exception e) {
+            System.err.println("Background save of assignment drafts failed, will retry: " + e.getMessage());
+        }
+    }
+
+    private static String key(int studentId, int assignmentId) {
+        return studentId + "-" + assignmentId;
+    }
+
+    private static Path draftFile(String key) {
+        return DRAFTS.resolve(key + DRAFT_SUFFIX);
+    }
+
+    // First line: base version in epoch millis (or -) and whether it conflicted; the text follows
+    private static void writeDraftFile(Draft draft) throws IOException {
+        Files.createDirectories(DRAFTS);
+        Path file = draftFile(draft.key);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp.toFile())) {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            writer.write((draft.baseVersion != null ? String.valueOf(draft.baseVersion.getTime()) : "-")
+                    + "\t" + draft.conflicted + "\n");
+            writer.write(draft.content);
+            writer.flush();
+            out.getFD().sync();
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void deleteDraftFile(String key) {
+        try {
+            Files.deleteIfExists(draftFile(key));
+        } catch (IOException e) {
+            // Offered back on the next open only if it differs from the saved text
+            System.err.println("Could not delete saved assignment draft: " + e.getMessage());
+        }
+    }
+
+    // The text of the draft's local file, or null if there is none
+    private static String readDraftFile(String key) {
+        Draft draft = readDraft(draftFile(key));
+        return draft != null ? draft.content : null;
+    }
+
+    private static Draft readDraft(Path file) {
+        String name = file.getFileName().toString();
+        if (!Files.exists(file) || !name.endsWith(DRAFT_SUFFIX)) {
+            return null;
+        }
+        try {
+            String text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            int headerEnd = text.indexOf('\n');
+            if (headerEnd < 0) {
+                return null;
+            }
+            String[] header = text.substring(0, headerEnd).split("\t");
+            Timestamp version = header[0].equals("-") ? null : new Timestamp(Long.parseLong(header[0]));
+            boolean conflicted = header.length > 1 && Boolean.parseBoolean(header[1]);
+            String key = name.substring(0, name.length() - DRAFT_SUFFIX.length());
+            return new Draft(null, key, text.substring(headerEnd + 1), version, conflicted);
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Could not read assignment draft " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Drafts a crash left unsaved go back in the queue; conflicted ones wait for the student
+    private static void replayDrafts() {
+        if (!Files.isDirectory(DRAFTS)) {
+            return;
+        }
+        int replayed = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(DRAFTS, "*" + DRAFT_SUFFIX)) {
+            for (Path file : files) {
+                Draft draft = readDraft(file);
+                if (draft != null && !draft.conflicted) {
+                    PENDING.put(draft.key, draft);
+                    replayed++;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Could not read assignment drafts: " + e.getMessage());
+        }
+        if (replayed > 0) {
+            System.out.println("Saving " + replayed + " unsaved assignment draft(s) from " + DRAFTS);
+        }
+    }
+
+    private static ScheduledExecutorService createSaver() {
+        return Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "assignment-draft-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * One student editing one assignment.
+     */
+    public static final class Session {
+        private final int studentId;
+        private final int assignmentId;
+        private final String savedContent;
+        private final Consumer<State> listener;
+        // Written by the saver thread after each save or conflict
+        private volatile Timestamp version;
+        private volatile boolean conflicted;
+        private String unsavedDraft;
+
+        private Session(int studentId, int assignmentId, String savedContent, Timestamp version,
+                        Consumer<State> listener) {
+            this.studentId = studentId;
+            this.assignmentId = assignmentId;
+            this.savedContent = savedContent;
+            this.version = version;
+            this.listener = listener;
+        }
+
+        // The saved text, or this app's newer save of it
+        public String getSavedContent() { return savedContent; }
+
+        // Text from an earlier edit that the database does not have, or null
+        public String getUnsavedDraft() { return unsavedDraft; }
+
+        // Queue the current text; only the latest text per interval is saved
+        public void edit(String content) {
+            String key = key(studentId, assignmentId);
+            synchronized (AssignmentDraftWriter.class) {
+                PENDING.put(key, new Draft(this, key, content, version, conflicted));
+            }
+        }
+
+        // Whether a save found the saved copy changed elsewhere; later edits keep conflicting
+        public boolean isConflicted() { return conflicted; }
+
+        // Save what is pending now rather than at the next interval
+        public CompletableFuture<Void> close() {
+            return flush();
+        }
+    }
+
+    private static final class Draft {
+        private final Session session;
+        private final String key;
+        private final String content;
+        private final Timestamp baseVersion;
+        private final boolean conflicted;
+
+        Draft(Session session, String key, String content, Timestamp baseVersion, boolean conflicted) {
+            this.session = session;
+            this.key = key;
+            this.content = content;
+            this.baseVersion = baseVersion;
+            this.conflicted = conflicted;
+        }
+
+        int studentId() {
+            return Integer.parseInt(key.substring(0, key.indexOf('-')));
+        }
+
+        int assignmentId() {
+            return Integer.parseInt(key.substring(key.indexOf('-') + 1));
+        }
+
+        // The version to save over. A session's is read at save time, not edit time, so text typed
+        // while an earlier save was in flight is based on what that save wrote
+        Timestamp base() {
+            return session != null ? session.version : baseVersion;
+        }
+
+        boolean isConflicted() {
+            return session != null ? session.conflicted : conflicted;
+        }
+
+        void report(State state) {
+            if (session != null && session.listener != null) {
+                session.listener.accept(state);
+            }
+        }
+    }
+
+    private static final class Saved {
+        private final String content;
+        private final Timestamp version;
+
+        Saved(String content, Timestamp version) {
+            this.content = content;
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package services;
+
+import dao.DatabaseConnection;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntConsumer;
+
+/**
+ * Applies instructor grades to many AssignmentProgress rows at once, on one background thread.
+ * - Grades are checked first: the student must be enrolled in the assignment's course, the
+ *   score must be between 0 and the assignment's points, and the status must be one students see
+ * - The rest are upserted in JDBC batches of -Dgrading.batchSize (default 100), one transaction
+ *   and one round trip per batch
+ * - If a batch fails it is rolled back and its grades are retried one at a time, so one bad
+ *   row does not cost the others; the Report lists every grade that was not applied and why
+ * - Bumps lastUpdated, so the student's assignment board and open drafts see the change
+ */
+public final class AssignmentGrader {
+    private static final int BATCH_SIZE = Integer.getInteger("grading.batchSize", 100);
+    private static final Set<String> STATUSES = Set.of("Not started", "In progress", "Completed");
+
+    // Null grade fields keep what the row has
+    private static final String UPSERT =
+            "INSERT INTO AssignmentProgress (assignmentID, studentID, status, score, feedback, gradedAt, lastUpdated) " +
+            "VALUES (?, ?, COALESCE(?, 'Not started'), ?, ?, CURRENT_TIMESTAMP(3), CURRENT_TIMESTAMP(3)) " +
+            "ON DUPLICATE KEY UPDATE status = COALESCE(?, status), score = COALESCE(?, score), " +
+            "feedback = COALESCE(?, feedback), gradedAt = CURRENT_TIMESTAMP(3), lastUpdated = CURRENT_TIMESTAMP(3)";
+    private static final String ASSIGNMENT_POINTS = "SELECT points FROM Assignments WHERE assignmentID = ?";
+    private static final String ENROLLED_STUDENTS =
+            "SELECT e.studentID FROM Enrollments e JOIN Assignments a ON a.courseID = e.courseID " +
+            "WHERE a.assignmentID = ?";
+
+    private static final ExecutorService GRADER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "assignment-grader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private AssignmentGrader() {
+    }
+
+    /**
+     * Grade one assignment for many students. progress is called on the grader thread with the
+     * number of grades handled so far; the future fails only if nothing could be checked or sent.
+     */
+    public static CompletableFuture<Report> grade(int assignmentId, Collection<Grade> grades, IntConsumer progress) {
+        List<Grade> all = new ArrayList<>(grades);
+        return CompletableFuture.supplyAsync(() -> {
+            try (Connection conn = DatabaseConnection.getConnection()) {
+                if (conn == null) {
+                    throw new SQLException("No database connection");
+                }
+                Report report = new Report(all.size());
+                List<Grade> valid = check(conn, assignmentId, all, report);
+                int done = all.size() - valid.size();
+                progress.accept(done);
+
+                try (PreparedStatement pstmt = conn.prepareStatement(UPSERT)) {
+                    for (int start = 0; start < valid.size(); start += BATCH_SIZE) {
+                        List<Grade> batch = valid.subList(start, Math.min(start + BATCH_SIZE, valid.size()));
+                        applyBatch(conn, pstmt, assignmentId, batch, report);
+                        done += batch.size();
+                        progress.accept(done);
+                    }
+                }
+                System.out.println("Graded " + report.applied + " of " + all.size() + " submission(s) for assignment "
+                        + assignmentId + ", " + report.failures.size() + " not applied");
+                return report;
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, GRADER);
+    }
+
+    // The grades that can be sent; the others go to the report
+    private static List<Grade> check(Connection conn, int assignmentId, List<Grade> grades, Report report)
+            throws SQLException {
+        BigDecimal maxScore = null;
+        try (PreparedStatement pstmt = conn.prepareStatement(ASSIGNMENT_POINTS)) {
+            pstmt.setInt(1, assignmentId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Assignment " + assignmentId + " no longer exists");
+                }
+                String points = rs.getString("points");
+                try {
+                    maxScore = points != null ? new BigDecimal(points.trim()) : null;
+                } catch (NumberFormatException e) {
+                    // Points that are not a number put no upper bound on the score
+                }
+            }
+        }
+
+        Set<Integer> enrolled = new HashSet<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(ENROLLED_STUDENTS)) {
+            pstmt.setInt(1, assignmentId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    enrolled.add(rs.getInt("studentID"));
+                }
+            }
+        }
+
+        List<Grade> valid = new ArrayList<>();
+        for (Grade grade : grades) {
+            if (!enrolled.contains(grade.studentId)) {
+                report.fail(grade, "Student is not enrolled in this course");
+            } else if (grade.status != null && !STATUSES.contains(grade.status)) {
+                report.fail(grade, "Unknown status \"" + grade.status + "\"");
+            } else if (grade.score != null && grade.score.signum() < 0) {
+                report.fail(grade, "Score cannot be negative");
+            } else if (grade.score != null && maxScore != null && grade.score.compareTo(maxScore) > 0) {
+                report.fail(grade, "Score is above the assignment's " + maxScore.toPlainString() + " points");
+            } else {
+                valid.add(grade);
+            }
+        }
+        return valid;
+    }
+
+    private static void applyBatch(Connection conn, PreparedStatement pstmt, int assignmentId, List<Grade> batch,
+                                   Report report) throws SQLException {
+        conn.setAutoCommit(false);
+        try {
+            for (Grade grade : batch) {
+                bind(pstmt, assignmentId, grade);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            conn.commit();
+            report.applied += batch.size();
+            return;
+        } catch (SQLException e) {
+            conn.rollback();
+            pstmt.clearBatch();
+            System.err.println("Grading batch failed, retrying its " + batch.size() + " row(s) one at a time: "
+                    + e.getMessage());
+        } finally {
+            conn.setAutoCommit(true);
+        }
+
+        // Find the rows that failed the batch; each of these is its own statement
+        for (Grade grade : batch) {
+            try {
+                bind(pstmt, assignmentId, grade);
+                pstmt.executeUpdate();
+                report.applied++;
+            } catch (SQLException e) {
+                report.fail(grade, e.getMessage());
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement pstmt, int assignmentId, Grade grade) throws SQLException {
+        pstmt.setInt(1, assignmentId);
+        pstmt.setInt(2, grade.studentId);
+        for (int index : new int[] {3, 6}) {
+            pstmt.setString(index, grade.status);
+            if (grade.score != null) {
+                pstmt.setBigDecimal(index + 1, grade.score);
+            } else {
+                pstmt.setNull(index + 1, Types.DECIMAL);
+            }
+            pstmt.setString(index + 2, grade.feedback);
+        }
+    }
+
+    /**
+     * One student's new status, score and feedback; a null field is left as it is.
+     */
+    public static final class Grade {
+        private final int studentId;
+        private final String status;
+        private final BigDecimal score;
+        private final String feedback;
+
+        public Grade(int studentId, String status, BigDecimal score, String feedback) {
+            this.studentId = studentId;
+            this.status = status;
+            this.score = score;
+            this.feedback = feedback;
+        }
+
+        public int getStudentId() { return studentId; }
+        public String getStatus() { return status; }
+        public BigDecimal getScore() { return score; }
+        public String getFeedback() { return feedback; }
+    }
+
+    /**
+     * What a grade() call applied, and each grade it could not.
+     */
+    public static final class Report {
+        private final int requested;
+        private int applied;
+        private final List<Failure> failures = new ArrayList<>();
+
+        Report(int requested) {
+            this.requested = requested;
+        }
+
+        private void fail(Grade grade, String reason) {
+            failures.add(new Failure(grade.studentId, reason));
+        }
+
+        public int getRequested() { return requested; }
+        public int getApplied() { return applied; }
+        public List<Failure> getFailures() { return Collections.unmodifiableList(failures); }
+    }
+
+    /**
+     * A grade that was not applied.
+     */
+    public static final class Failure {
+        private final int studentId;
+        private final String reason;
+
+        Failure(int studentId, String reason) {
+            this.studentId = studentId;
+            this.reason = reason;
+        }
+
+        public int getStudentId() { return studentId; }
+        public String getReason() { return reason; }
+    }
+}
@@ -0,0 +1,144 @@
+package services;
+
+import javafx.animation.Animation;
+import javafx.animation.FadeTransition;
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.concurrent.Task;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.util.Duration;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs page queries off the JavaFX application thread.
+ * - Queries run on a small pool of daemon threads (-Dui.loader.threads, default 4)
+ * - Results and errors are handed back on the FX thread
+ * - A load is cancelled when its owner node is removed from the scene,
+ *   which is what happens when the dashboard navigates to another page
+ * - skeleton() builds a pulsing placeholder to show while data is loading
+ */
+public final class BackgroundLoader {
+    // Kept below the connection pool size so page loads cannot starve other work
+    private static final int LOADER_THREADS = Integer.getInteger("ui.loader.threads", 4);
+    private static final String ERROR_COLOR = "#e74c3c";
+
+    private static final ExecutorService LOADERS = createLoaders();
+
+    private BackgroundLoader() {
+    }
+
+    // Run query in the background and pass its result to onLoaded on the FX thread
+    public static <T> Task<T> load(Node owner, Callable<T> query, Consumer<T> onLoaded) {
+        return load(owner, query, onLoaded, error -> { });
+    }
+
+    // As above, with onFailed called on the FX thread when the query throws
+    public static <T> Task<T> load(Node owner, Callable<T> query, Consumer<T> onLoaded,
+                                   Consumer<Throwable> onFailed) {
+        Task<T> task = new Task<T>() {
+            @Override
+            protected T call() throws Exception {
+                return query.call();
+            }
+        };
+
+        // Leaving the scene means the user navigated away; nobody will see the result
+        ChangeListener<Scene> cancelOnDetach = (obs, oldScene, newScene) -> {
+            if (oldScene != null && newScene == null) {
+                task.cancel();
+            }
+        };
+        Runnable detach = () -> owner.sceneProperty().removeListener(cancelOnDetach);
+
+        task.setOnSucceeded(e -> {
+            detach.run();
+            onLoaded.accept(task.getValue());
+        });
+        task.setOnFailed(e -> {
+            detach.run();
+            Throwable error = task.getException();
+            System.err.println("Background load failed: " + error.getMessage());
+            error.printStackTrace();
+            onFailed.accept(error);
+        });
+        task.setOnCancelled(e -> detach.run());
+
+        // Listeners must be registered on the FX thread, before the task can finish
+        if (Platform.isFxApplicationThread()) {
+            owner.sceneProperty().addListener(cancelOnDetach);
+            LOADERS.execute(task);
+        } else {
+            Platform.runLater(() -> {
+                owner.sceneProperty().addListener(cancelOnDetach);
+                LOADERS.execute(task);
+            });
+        }
+        return task;
+    }
+
+    // Show a skeleton in container, then replace it with render(result) once the query finishes
+    public static <T> Task<T> loadInto(Pane container, int skeletonRows, Callable<T> query,
+                                       Function<T, Node> render) {
+        container.getChildren().setAll(skeleton(skeletonRows));
+        return load(container, query,
+                result -> container.getChildren().setAll(render.apply(result)),
+                error -> container.getChildren().setAll(errorLabel(error)));
+    }
+
+    // Grey placeholder bars that pulse while they are on screen
+    public static Node skeleton(int rows) {
+        VBox skeleton = new VBox(10);
+        for (int i = 0; i < rows; i++) {
+            Region bar = new Region();
+            bar.setPrefHeight(i == 0 ? 24 : 16);
+            // Vary the widths a little so the placeholder reads as text
+            bar.setMaxWidth(i == 0 ? 240 : (i % 3 == 2 ? 360 : Double.MAX_VALUE));
+            bar.setStyle("-fx-background-color: #e0e0e0; -fx-background-radius: 4;");
+            skeleton.getChildren().add(bar);
+        }
+
+        FadeTransition pulse = new FadeTransition(Duration.millis(800), skeleton);
+        pulse.setFromValue(1.0);
+        pulse.setToValue(0.4);
+        pulse.setAutoReverse(true);
+        pulse.setCycleCount(Animation.INDEFINITE);
+
+        // Only animate while attached, so a discarded skeleton is not kept alive by the animation
+        skeleton.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (newScene != null) {
+                pulse.play();
+            } else {
+                pulse.stop();
+            }
+        });
+        return skeleton;
+    }
+
+    public static Label errorLabel(Throwable error) {
+        Label label = new Label("Could not load data: " + error.getMessage());
+        label.setTextFill(Color.web(ERROR_COLOR));
+        label.setWrapText(true);
+        return label;
+    }
+
+    private static ExecutorService createLoaders() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(LOADER_THREADS, r -> {
+            Thread thread = new Thread(r, "page-loader-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,110 @@
+package services;
+
+import javafx.geometry.Insets;
+import javafx.scene.Node;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.HBox;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A scrolling grid of cards that only has nodes for the rows on screen.
+ * - Items are split into rows of as many cards as fit the width, and each row is a ListView
+ *   cell, so scrolling refills the same few cards instead of building one per item
+ * - Cards come from the factory and are refilled with Card.show(item)
+ * - Cards get the "course-card" style class, so their shadow comes from the page stylesheet,
+ *   and are cached as bitmaps so the shadow is not blurred again on every scroll
+ */
+public final class CardGrid<T> extends ListView<List<T>> {
+    public static final String CARD_STYLE_CLASS = "course-card";
+    // Room for the vertical scroll bar and the row padding
+    private static final double WIDTH_ALLOWANCE = 30;
+
+    private final double cardWidth;
+    private final double gap;
+    private final Supplier<Card<T>> cardFactory;
+    private List<T> cards = Collections.emptyList();
+    private int columns = 1;
+
+    public CardGrid(double cardWidth, double gap, Supplier<Card<T>> cardFactory) {
+        this.cardWidth = cardWidth;
+        this.gap = gap;
+        this.cardFactory = cardFactory;
+
+        getStyleClass().add("course-grid");
+        setStyle("-fx-background-color: transparent; -fx-background-insets: 0; -fx-padding: 0;");
+        setFocusTraversable(false);
+        setCellFactory(list -> new RowCell());
+        widthProperty().addListener((obs, oldWidth, newWidth) -> updateColumns());
+    }
+
+    // Show these items, in order
+    public void setCards(List<T> items) {
+        cards = new ArrayList<>(items);
+        splitIntoRows();
+    }
+
+    private void updateColumns() {
+        int fit = Math.max(1, (int) ((getWidth() - WIDTH_ALLOWANCE + gap) / (cardWidth + gap)));
+        if (fit != columns) {
+            columns = fit;
+            splitIntoRows();
+        }
+    }
+
+    private void splitIntoRows() {
+        List<List<T>> rows = new ArrayList<>((cards.size() + columns - 1) / columns);
+        for (int i = 0; i < cards.size(); i += columns) {
+            rows.add(cards.subList(i, Math.min(i + columns, cards.size())));
+        }
+        getItems().setAll(rows);
+    }
+
+    /**
+     * A reusable card: its node is built once and show() fills it for an item.
+     */
+    public interface Card<T> {
+        Node getNode();
+
+        void show(T item);
+    }
+
+    private class RowCell extends ListCell<List<T>> {
+        private final HBox row = new HBox(gap);
+        private final List<Card<T>> rowCards = new ArrayList<>();
+
+        RowCell() {
+            // Leaves room for the card shadow, which the cell would otherwise cut off
+            row.setPadding(new Insets(4, 4, gap, 4));
+            setStyle("-fx-background-color: transparent; -fx-padding: 0;");
+        }
+
+        @Override
+        protected void updateItem(List<T> items, boolean empty) {
+            super.updateItem(items, empty);
+            if (empty || items == null) {
+                setGraphic(null);
+                return;
+            }
+
+            while (rowCards.size() < items.size()) {
+                Card<T> card = cardFactory.get();
+                card.getNode().getStyleClass().add(CARD_STYLE_CLASS);
+                card.getNode().setCache(true);
+                rowCards.add(card);
+            }
+            List<Node> nodes = new ArrayList<>(items.size());
+            for (int i = 0; i < items.size(); i++) {
+                Card<T> card = rowCards.get(i);
+                card.show(items.get(i));
+                nodes.add(card.getNode());
+            }
+            row.getChildren().setAll(nodes);
+            setGraphic(row);
+        }
+    }
+}
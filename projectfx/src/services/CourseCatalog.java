@@ -0,0 +1,187 @@
+package services;
+
+import dao.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Course metadata shared by the course pages, read with one query and kept until a change.
+ * - The category comes from the course name, and a missing color from the course id,
+ *   so a course looks the same on every load
+ * - invalidate() drops the cached list; CourseWriter calls it after every commit, and
+ *   anything else that changes courses, enrollments or a user's name must call it too
+ *   (enrolling, and editing users on the admin and instructor profile pages)
+ * - A reload hands back the same Course instance for every course that did not change,
+ *   so a page can skip redrawing it
+ */
+public final class CourseCatalog {
+    private static final String CATALOG_QUERY =
+            "SELECT c.courseID, c.courseName, c.description, c.courseColor, c.createdBy, " +
+            "u.username AS instructorName, COALESCE(e.studentCount, 0) AS studentCount " +
+            "FROM Courses c " +
+            "LEFT JOIN Users u ON c.createdBy = u.userID " +
+            "LEFT JOIN (SELECT courseID, COUNT(*) AS studentCount FROM Enrollments GROUP BY courseID) e " +
+            "ON e.courseID = c.courseID " +
+            "ORDER BY c.courseID";
+
+    // Colors for courses saved without one, picked by course id
+    private static final String[] COLORS = {
+            "#3498db", "#2ecc71", "#e74c3c", "#f39c12", "#9b59b6",
+            "#1abc9c", "#d35400", "#c0392b", "#16a085", "#8e44ad"
+    };
+
+    // Guarded by the class lock; courses is null until loaded and after invalidate()
+    private static List<Course> courses;
+    private static Map<Integer, Course> lastLoaded = new HashMap<>();
+    private static long generation;
+
+    private CourseCatalog() {
+    }
+
+    // Every course, ordered by id
+    public static List<Course> all() throws SQLException {
+        long loadGeneration;
+        Map<Integer, Course> previous;
+        synchronized (CourseCatalog.class) {
+            if (courses != null) {
+                return courses;
+            }
+            loadGeneration = generation;
+            previous = lastLoaded;
+        }
+
+        List<Course> loaded = new ArrayList<>();
+        Map<Integer, Course> loadedById = new HashMap<>();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                throw new SQLException("No database connection");
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(CATALOG_QUERY);
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int courseId = rs.getInt("courseID");
+                    String name = rs.getString("courseName");
+                    String color = rs.getString("courseColor");
+                    Course course = new Course(
+                            courseId,
+                            name,
+                            rs.getString("description") != null ? rs.getString("description") : "",
+                            color != null && !color.isEmpty() ? color : colorFor(courseId),
+                            rs.getInt("createdBy"),
+                            rs.getString("instructorName"),
+                            categoryFor(name),
+                            rs.getInt("studentCount"));
+
+                    Course old = previous.get(courseId);
+                    if (course.sameAs(old)) {
+                        course = old;
+                    }
+                    loaded.add(course);
+                    loadedById.put(courseId, course);
+                }
+            }
+        }
+
+        loaded = Collections.unmodifiableList(loaded);
+        synchronized (CourseCatalog.class) {
+            // A change committed while the query ran may be missing from it, so only cache a current result
+            if (generation == loadGeneration) {
+                courses = loaded;
+            }
+            lastLoaded = loadedById;
+        }
+        return loaded;
+    }
+
+    public static synchronized void invalidate() {
+        courses = null;
+        generation++;
+    }
+
+    // Category shown for a course, from keywords in its name
+    public static String categoryFor(String courseName) {
+        String name = courseName != null ? courseName.toLowerCase(Locale.ROOT) : "";
+        if (name.contains("python") || name.contains("java") ||
+                name.contains("programming") || name.contains("code")) {
+            return "Programming";
+        } else if (name.contains("data") || name.contains("analytics") ||
+                name.contains("statistics") || name.contains("machine")) {
+            return "Data Science";
+        } else if (name.contains("web") || name.contains("html") ||
+                name.contains("css") || name.contains("javascript")) {
+            return "Web";
+        } else if (name.contains("math") || name.contains("calculus") ||
+                name.contains("algebra")) {
+            return "Mathematics";
+        } else if (name.contains("history") || name.contains("world") ||
+                name.contains("ancient")) {
+            return "History";
+        } else if (name.contains("science") || name.contains("physics") ||
+                name.contains("chemistry") || name.contains("biology")) {
+            return "Science";
+        } else if (name.contains("literature") || name.contains("writing") ||
+                name.contains("english")) {
+            return "Literature";
+        }
+        return "General";
+    }
+
+    public static String colorFor(int courseId) {
+        return COLORS[Math.floorMod(courseId, COLORS.length)];
+    }
+
+    /**
+     * One course as the course pages show it.
+     */
+    public static final class Course {
+        private final int id;
+        private final String name;
+        private final String description;
+        private final String color;
+        private final int createdBy;
+        private final String instructorName;
+        private final String category;
+        private final int studentCount;
+
+        Course(int id, String name, String description, String color, int createdBy,
+               String instructorName, String category, int studentCount) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.color = color;
+            this.createdBy = createdBy;
+            this.instructorName = instructorName;
+            this.category = category;
+            this.studentCount = studentCount;
+        }
+
+        public int getId() { return id; }
+        public String getName() { return name; }
+        public String getDescription() { return description; }
+        public String getColor() { return color; }
+        public int getCreatedBy() { return createdBy; }
+        // Null when the creator's account is gone
+        public String getInstructorName() { return instructorName; }
+        public String getCategory() { return category; }
+        public int getStudentCount() { return studentCount; }
+
+        private boolean sameAs(Course other) {
+            return other != null && id == other.id && createdBy == other.createdBy
+                    && studentCount == other.studentCount
+                    && Objects.equals(name, other.name)
+                    && Objects.equals(description, other.description)
+                    && Objects.equals(color, other.color)
+                    && Objects.equals(instructorName, other.instructorName);
+        }
+    }
+}
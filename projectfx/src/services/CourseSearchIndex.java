@@ -0,0 +1,85 @@
+package services;
+
+import services.CourseCatalog.Course;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Word search over a fixed list of courses, built once per list.
+ * - Course names and descriptions are split into lowercase words, each mapped to the
+ *   positions of the courses that contain it
+ * - A course matches when every word of the query starts one of its words, so
+ *   "intro java" finds "Introduction to Java"
+ * Results keep the order of the list the index was built from.
+ */
+public final class CourseSearchIndex {
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final List<Course> courses;
+    private final NavigableMap<String, BitSet> words = new TreeMap<>();
+
+    public CourseSearchIndex(List<Course> courses) {
+        this.courses = new ArrayList<>(courses);
+        for (int i = 0; i < this.courses.size(); i++) {
+            Course course = this.courses.get(i);
+            addWords(course.getName(), i);
+            addWords(course.getDescription(), i);
+        }
+    }
+
+    // Every course for a blank query
+    public List<Course> search(String query) {
+        List<String> queryWords = split(query);
+        if (queryWords.isEmpty()) {
+            return Collections.unmodifiableList(courses);
+        }
+
+        BitSet matches = null;
+        for (String word : queryWords) {
+            BitSet withPrefix = new BitSet(courses.size());
+            for (BitSet positions : words.subMap(word, true, word + Character.MAX_VALUE, false).values()) {
+                withPrefix.or(positions);
+            }
+            if (matches == null) {
+                matches = withPrefix;
+            } else {
+                matches.and(withPrefix);
+            }
+            if (matches.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+
+        List<Course> result = new ArrayList<>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            result.add(courses.get(i));
+        }
+        return result;
+    }
+
+    private void addWords(String text, int position) {
+        for (String word : split(text)) {
+            words.computeIfAbsent(word, w -> new BitSet()).set(position);
+        }
+    }
+
+    private static List<String> split(String text) {
+        List<String> result = new ArrayList<>();
+        if (text == null) {
+            return result;
+        }
+        for (String word : WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                result.add(word);
+            }
+        }
+        return result;
+    }
+}
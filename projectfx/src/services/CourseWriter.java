@@ -0,0 +1,192 @@
+package services;
+
+import dao.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Applies course inserts, updates and deletes on one background thread.
+ * - Every call is one transaction; updating or deleting many courses is one JDBC batch
+ * - If a delete batch fails it is retried one course at a time, so a course that other rows
+ *   still refer to is refused without keeping the others
+ * - Calls are applied in the order they were made
+ * - CourseCatalog is invalidated after every commit
+ * - The returned future completes on the writer thread, failing with the SQLException as its cause
+ */
+public final class CourseWriter {
+    private static final String INSERT =
+            "INSERT INTO Courses (courseName, description, createdBy, courseColor) VALUES (?, ?, ?, ?)";
+    private static final String UPDATE =
+            "UPDATE Courses SET courseName = ?, description = ?, courseColor = ? WHERE courseID = ?";
+    // Leaves name and description alone, so it cannot undo a rename queued or made elsewhere
+    private static final String RECOLOR = "UPDATE Courses SET courseColor = ? WHERE courseID = ?";
+    private static final String DELETE = "DELETE FROM Courses WHERE courseID = ?";
+
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "course-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private CourseWriter() {
+    }
+
+    // Completes with the new course's id
+    public static CompletableFuture<Integer> insert(String name, String description, int createdBy, String color) {
+        return submit(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+                pstmt.setString(1, name);
+                pstmt.setString(2, description);
+                pstmt.setInt(3, createdBy);
+                pstmt.setString(4, color);
+                pstmt.executeUpdate();
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    if (!keys.next()) {
+                        throw new SQLException("No id returned for new course " + name);
+                    }
+                    return keys.getInt(1);
+                }
+            }
+        });
+    }
+
+    public static CompletableFuture<Void> update(Collection<Change> changes) {
+        List<Change> batch = new ArrayList<>(changes);
+        return submit(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(UPDATE)) {
+                for (Change change : batch) {
+                    pstmt.setString(1, change.name);
+                    pstmt.setString(2, change.description);
+                    pstmt.setString(3, change.color);
+                    pstmt.setInt(4, change.courseId);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+            System.out.println("Updated " + batch.size() + " course(s) in one batch");
+            return null;
+        });
+    }
+
+    public static CompletableFuture<Void> recolor(Collection<Integer> courseIds, String color) {
+        List<Integer> batch = new ArrayList<>(courseIds);
+        return submit(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(RECOLOR)) {
+                for (int courseId : batch) {
+                    pstmt.setString(1, color);
+                    pstmt.setInt(2, courseId);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+            System.out.println("Recolored " + batch.size() + " course(s) in one batch");
+            return null;
+        });
+    }
+
+    // Completes with the courses that were not deleted, each with the reason
+    public static CompletableFuture<Map<Integer, String>> delete(Collection<Integer> courseIds) {
+        List<Integer> batch = new ArrayList<>(courseIds);
+        return submit(conn -> {
+            Map<Integer, String> refused = new LinkedHashMap<>();
+            try (PreparedStatement pstmt = conn.prepareStatement(DELETE)) {
+                Savepoint beforeBatch = conn.setSavepoint();
+                try {
+                    for (int courseId : batch) {
+                        pstmt.setInt(1, courseId);
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                    System.out.println("Deleted " + batch.size() + " course(s) in one batch");
+                    return refused;
+                } catch (SQLException e) {
+                    conn.rollback(beforeBatch);
+                    pstmt.clearBatch();
+                    System.err.println("Course delete batch failed, retrying its " + batch.size()
+                            + " course(s) one at a time: " + e.getMessage());
+                }
+
+                // Find the courses that failed the batch; other errors still fail the whole call
+                for (int courseId : batch) {
+                    Savepoint beforeCourse = conn.setSavepoint();
+                    try {
+                        pstmt.setInt(1, courseId);
+                        pstmt.executeUpdate();
+                    } catch (SQLIntegrityConstraintViolationException e) {
+                        conn.rollback(beforeCourse);
+                        refused.put(courseId, "It still has enrollments, assignments or lesson progress");
+                    }
+                }
+            }
+            System.out.println("Deleted " + (batch.size() - refused.size()) + " of " + batch.size()
+                    + " course(s), " + refused.size() + " refused");
+            return refused;
+        });
+    }
+
+    // Run work in its own transaction on the writer thread
+    private static <T> CompletableFuture<T> submit(Work<T> work) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (Connection conn = DatabaseConnection.getConnection()) {
+                if (conn == null) {
+                    throw new SQLException("No database connection");
+                }
+                conn.setAutoCommit(false);
+                try {
+                    T result = work.apply(conn);
+                    conn.commit();
+                    CourseCatalog.invalidate();
+                    return result;
+                } catch (SQLException | RuntimeException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, WRITER);
+    }
+
+    private interface Work<T> {
+        T apply(Connection conn) throws SQLException;
+    }
+
+    /**
+     * The new name, description and color of one course.
+     */
+    public static final class Change {
+        private final int courseId;
+        private final String name;
+        private final String description;
+        private final String color;
+
+        public Change(int courseId, String name, String description, String color) {
+            this.courseId = courseId;
+            this.name = name;
+            this.description = description;
+            this.color = color;
+        }
+
+        public int getCourseId() { return courseId; }
+        public String getName() { return name; }
+        public String getDescription() { return description; }
+        public String getColor() { return color; }
+    }
+}
@@ -0,0 +1,67 @@
+package services;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Keeps the completedLessons / totalLessons counters on Enrollments, and the
+ * completionPercentage derived from them, in step with lesson changes.
+ * Every method runs on the caller's connection so it joins the caller's transaction.
+ */
+public final class EnrollmentProgress {
+    // MySQL applies single-table SET clauses left to right, so this sees the counters just written
+    private static final String SET_PERCENTAGE =
+            "completionPercentage = IF(totalLessons > 0, completedLessons * 100.0 / totalLessons, 0)";
+
+    private EnrollmentProgress() {
+    }
+
+    // Enroll a student, starting from the course's current lesson count
+    public static void enroll(Connection conn, int studentId, int courseId) throws SQLException {
+        String query = "INSERT INTO Enrollments (studentID, courseID, totalLessons) " +
+                "SELECT ?, ?, COUNT(*) FROM Lessons WHERE courseID = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setInt(1, studentId);
+            pstmt.setInt(2, courseId);
+            pstmt.setInt(3, courseId);
+            pstmt.executeUpdate();
+        }
+    }
+
+    // A lesson went from not completed to completed; touches a single enrollment row
+    public static void lessonCompleted(Connection conn, int studentId, int courseId) throws SQLException {
+        String query = "UPDATE Enrollments SET completedLessons = LEAST(completedLessons + 1, totalLessons), " +
+                SET_PERCENTAGE + " WHERE studentID = ? AND courseID = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setInt(1, studentId);
+            pstmt.setInt(2, courseId);
+            pstmt.executeUpdate();
+        }
+    }
+
+    // count lessons were added to a course
+    public static void lessonsAdded(Connection conn, int courseId, int count) throws SQLException {
+        String query = "UPDATE Enrollments SET totalLessons = totalLessons + ?, " +
+                SET_PERCENTAGE + " WHERE courseID = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setInt(1, count);
+            pstmt.setInt(2, courseId);
+            pstmt.executeUpdate();
+        }
+    }
+
+    // Reset every enrollment's lesson total from the Lessons table, after bulk lesson changes
+    public static void recountAllLessons(Connection conn) throws SQLException {
+        // Multi-table SET clauses have no guaranteed order, so the percentage uses the new count directly
+        String query = "UPDATE Enrollments e " +
+                "LEFT JOIN (SELECT courseID, COUNT(*) AS lessonCount FROM Lessons GROUP BY courseID) lc " +
+                "ON lc.courseID = e.courseID " +
+                "SET e.totalLessons = COALESCE(lc.lessonCount, 0), " +
+                "e.completionPercentage = IF(COALESCE(lc.lessonCount, 0) > 0, " +
+                "e.completedLessons * 100.0 / lc.lessonCount, 0)";
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package services;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Formatted lesson lines, kept in memory so a lesson viewed again needs no query and no
+ * markdown clean-up.
+ * - Entries carry the lesson's contentVersion; a lookup with a different version misses
+ * - Least recently viewed lessons are evicted once the cached text exceeds
+ *   -Dlesson.cache.maxBytes (default 8 MB)
+ * - invalidate() drops a lesson after it is edited in this process
+ */
+public final class LessonContentCache {
+    private static final long MAX_BYTES = Long.getLong("lesson.cache.maxBytes", 8L * 1024 * 1024);
+
+    // Access-ordered, so iteration starts at the least recently used lesson; guarded by the class lock
+    private static final LinkedHashMap<Integer, Lesson> LESSONS = new LinkedHashMap<>(64, 0.75f, true);
+    private static long totalBytes;
+
+    private LessonContentCache() {
+    }
+
+    // The cached lesson, or null when it is missing or cached at another version
+    public static synchronized Lesson get(int lessonId, int version) {
+        Lesson lesson = LESSONS.get(lessonId);
+        return lesson != null && lesson.version == version ? lesson : null;
+    }
+
+    public static synchronized void put(Lesson lesson) {
+        if (lesson.bytes > MAX_BYTES) {
+            return;
+        }
+        Lesson old = LESSONS.put(lesson.lessonId, lesson);
+        if (old != null) {
+            totalBytes -= old.bytes;
+        }
+        totalBytes += lesson.bytes;
+
+        Iterator<Lesson> eldest = LESSONS.values().iterator();
+        while (totalBytes > MAX_BYTES && eldest.hasNext()) {
+            totalBytes -= eldest.next().bytes;
+            eldest.remove();
+        }
+    }
+
+    public static synchronized void invalidate(int lessonId) {
+        Lesson old = LESSONS.remove(lessonId);
+        if (old != null) {
+            totalBytes -= old.bytes;
+        }
+    }
+
+    /**
+     * A lesson ready to display.
+     */
+    public static final class Lesson {
+        private final int lessonId;
+        private final int version;
+        private final String title;
+        private final List<String> lines;
+        private final long bytes;
+
+        public Lesson(int lessonId, int version, String title, List<String> lines) {
+            this.lessonId = lessonId;
+            this.version = version;
+            this.title = title;
+            this.lines = Collections.unmodifiableList(lines);
+            // Two bytes per char plus a rough allowance for the objects themselves
+            long size = 96 + 2L * (title != null ? title.length() : 0);
+            for (String line : lines) {
+                size += 48 + 2L * line.length();
+            }
+            this.bytes = size;
+        }
+
+        public int getLessonId() { return lessonId; }
+        public int getVersion() { return version; }
+        public String getTitle() { return title; }
+        public List<String> getLines() { return lines; }
+    }
+}
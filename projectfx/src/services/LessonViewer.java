@@ -0,0 +1,68 @@
+package services;
+
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Read-only lesson text, one line per row. ListView only lays out the rows that are
+ * on screen, so a long lesson scrolls smoothly where a TextArea would lay out all of it,
+ * and lines can be appended while the rest of the lesson is still being read.
+ */
+public final class LessonViewer extends ListView<String> {
+    private static final String TEXT_COLOR = "#2c3e50";
+
+    public LessonViewer() {
+        setFocusTraversable(false);
+        setStyle(
+            "-fx-background-color: white; " +
+            "-fx-border-color: #ecf0f1; " +
+            "-fx-border-radius: 5;"
+        );
+        setCellFactory(list -> new LineCell());
+    }
+
+    // Replace the content with text, split at line breaks
+    public void setText(String text) {
+        setLines(Arrays.asList(text.split("\n", -1)));
+    }
+
+    public void setLines(List<String> lines) {
+        getItems().setAll(lines);
+        scrollTo(0);
+    }
+
+    public void appendLines(List<String> lines) {
+        getItems().addAll(lines);
+    }
+
+    // Rows look the same whether selected or not, since the viewer is read-only
+    private class LineCell extends ListCell<String> {
+        private final Label label = new Label();
+
+        LineCell() {
+            label.setWrapText(true);
+            label.setFont(Font.font("Segoe UI", 14));
+            label.setTextFill(Color.web(TEXT_COLOR));
+            label.maxWidthProperty().bind(LessonViewer.this.widthProperty().subtract(40));
+            setStyle("-fx-background-color: white; -fx-padding: 0 10 0 10;");
+        }
+
+        @Override
+        protected void updateItem(String line, boolean empty) {
+            super.updateItem(line, empty);
+            if (empty || line == null) {
+                setGraphic(null);
+            } else {
+                // An empty label would collapse, so blank lines keep a line's height
+                label.setText(line.isEmpty() ? " " : line);
+                setGraphic(label);
+            }
+        }
+    }
+}
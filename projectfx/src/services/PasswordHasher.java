@@ -0,0 +1,180 @@
+package services;
+
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * BCrypt hashing on a small dedicated worker pool, so password work never
+ * runs on the JavaFX application thread.
+ * - The cost factor comes from -Dauth.bcrypt.cost (default 10)
+ * - verify() also returns an upgraded hash when the stored one used another cost
+ * - Hash and verify latencies are tracked in hashLatency() and verifyLatency(), and logged
+ *   once when the app exits
+ */
+public final class PasswordHasher {
+    private static final int COST = Integer.getInteger("auth.bcrypt.cost", 10);
+    private static final int WORKER_THREADS = Integer.getInteger("auth.hash.threads",
+            Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() / 2)));
+    private static final int QUEUE_CAPACITY = Integer.getInteger("auth.hash.queueCapacity", 32);
+
+    private static final ThreadPoolExecutor WORKERS = createWorkers();
+    private static final LatencyStats HASH_LATENCY = new LatencyStats("hash");
+    private static final LatencyStats VERIFY_LATENCY = new LatencyStats("verify");
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(PasswordHasher::logLatency, "password-hasher-report"));
+    }
+
+    private PasswordHasher() {
+    }
+
+    // Hash a password with the configured cost factor
+    public static CompletableFuture<String> hash(String password) {
+        return submit(() -> timedHash(password));
+    }
+
+    // Check a password; a matching password stored at another cost comes back with a fresh hash
+    public static CompletableFuture<Verification> verify(String password, String storedHash) {
+        return submit(() -> {
+            long start = System.nanoTime();
+            boolean matches;
+            try {
+                matches = storedHash != null && BCrypt.checkpw(password, storedHash);
+            } catch (IllegalArgumentException e) {
+                // Not a BCrypt hash
+                matches = false;
+            } finally {
+                VERIFY_LATENCY.record(System.nanoTime() - start);
+            }
+
+            String upgradedHash = matches && needsRehash(storedHash) ? timedHash(password) : null;
+            return new Verification(matches, upgradedHash);
+        });
+    }
+
+    // True when the hash was not produced with the configured cost factor
+    public static boolean needsRehash(String storedHash) {
+        // BCrypt hashes look like $2a$10$...; the two digits are the cost
+        if (storedHash == null || storedHash.length() < 7 || !storedHash.startsWith("$2")) {
+            return true;
+        }
+        try {
+            return Integer.parseInt(storedHash.substring(4, 6)) != COST;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    public static int getCost() {
+        return COST;
+    }
+
+    public static LatencyStats hashLatency() {
+        return HASH_LATENCY;
+    }
+
+    public static LatencyStats verifyLatency() {
+        return VERIFY_LATENCY;
+    }
+
+    // Nothing is logged until a password has been hashed or checked
+    private static void logLatency() {
+        if (HASH_LATENCY.getCount() > 0 || VERIFY_LATENCY.getCount() > 0) {
+            System.out.println("Password hashing latency (cost " + COST + ") - "
+                    + HASH_LATENCY + "; " + VERIFY_LATENCY);
+        }
+    }
+
+    private static String timedHash(String password) {
+        long start = System.nanoTime();
+        try {
+            return BCrypt.hashpw(password, BCrypt.gensalt(COST));
+        } finally {
+            HASH_LATENCY.record(System.nanoTime() - start);
+        }
+    }
+
+    // A full queue fails the future instead of blocking the caller
+    private static <T> CompletableFuture<T> submit(Supplier<T> work) {
+        try {
+            return CompletableFuture.supplyAsync(work, WORKERS);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(
+                    new IllegalStateException("Password hashing is busy, please try again", e));
+        }
+    }
+
+    private static ThreadPoolExecutor createWorkers() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                WORKER_THREADS, WORKER_THREADS, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                r -> {
+                    Thread thread = new Thread(r, "password-hasher-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Outcome of {@link #verify(String, String)}. When the password matched but the
+     * stored hash used a different cost, upgradedHash holds a replacement to persist.
+     */
+    public static final class Verification {
+        private final boolean matches;
+        private final String upgradedHash;
+
+        Verification(boolean matches, String upgradedHash) {
+            this.matches = matches;
+            this.upgradedHash = upgradedHash;
+        }
+
+        public boolean matches() { return matches; }
+        public String getUpgradedHash() { return upgradedHash; }
+    }
+
+    /**
+     * Running count, mean and maximum of an operation's latency.
+     */
+    public static final class LatencyStats {
+        private final String name;
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        LatencyStats(String name) {
+            this.name = name;
+        }
+
+        void record(long nanos) {
+            count.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        public long getCount() { return count.get(); }
+
+        public double getAverageMillis() {
+            long n = count.get();
+            return n == 0 ? 0.0 : totalNanos.get() / (double) n / 1_000_000.0;
+        }
+
+        public double getMaxMillis() { return maxNanos.get() / 1_000_000.0; }
+
+        @Override
+        public String toString() {
+            return String.format("%s: count=%d, avg=%.1f ms, max=%.1f ms",
+                    name, getCount(), getAverageMillis(), getMaxMillis());
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package services;
+
+import dao.DatabaseConnection;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer for quiz answers.
+ * - record() appends answers to a local journal (fsynced) and to an in-memory buffer
+ * - flush() writes the buffer to QuizResults as one JDBC batch of upserts, and moves the
+ *   QuizSubjectStats totals by the same amount in the same transaction
+ * - A background thread also flushes every -Dquiz.answers.flushSeconds (default 5),
+ *   which retries answers a failed flush left behind
+ * - If a batch fails its answers are retried one at a time; an answer the database rejects
+ *   for good (its question or student was deleted) is logged and dropped
+ * - Answers still in the journal when the app stopped are replayed on first use
+ * The journal only ever holds answers that have not reached the database yet.
+ */
+public final class QuizAnswerWriter {
+    private static final long FLUSH_SECONDS = Long.getLong("quiz.answers.flushSeconds", 5L);
+    private static final Path JOURNAL = Paths.get(System.getProperty("quiz.answers.journal",
+            Paths.get(System.getProperty("user.home"), ".elearningplatform", "pending-answers.journal").toString()));
+
+    // Relies on the UNIQUE (questionID, studentID) key of QuizResults
+    private static final String UPSERT =
+            "INSERT INTO QuizResults (questionID, studentID, selectedOption, isCorrect) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE selectedOption = VALUES(selectedOption), isCorrect = VALUES(isCorrect), " +
+            "submissionDate = CURRENT_TIMESTAMP";
+
+    private static final String ADD_SUBJECT_STATS =
+            "INSERT INTO QuizSubjectStats (subject, attempts, correct) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE attempts = attempts + VALUES(attempts), correct = correct + VALUES(correct)";
+
+    // Latest answer per (student, question); guarded by the class lock
+    private static final Map<String, Answer> PENDING = new LinkedHashMap<>();
+    private static final ScheduledExecutorService FLUSHER = createFlusher();
+
+    static {
+        replayJournal();
+        FLUSHER.scheduleWithFixedDelay(QuizAnswerWriter::flushQuietly,
+                FLUSH_SECONDS, FLUSH_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private QuizAnswerWriter() {
+    }
+
+    // Loads the class, which replays the journal and starts the periodic flush
+    public static void start() {
+    }
+
+    /**
+     * Buffer a quiz's answers. Once this returns they are on disk and will reach the
+     * database even if the app exits before the next flush.
+     */
+    public static void record(int studentId, Collection<Answer> answers) {
+        List<Answer> batch = new ArrayList<>();
+        for (Answer answer : answers) {
+            if (answer.studentId == studentId) {
+                batch.add(answer);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        synchronized (QuizAnswerWriter.class) {
+            try {
+                appendToJournal(batch);
+            } catch (IOException e) {
+                // Still buffered in memory, so only a crash before the next flush would lose them
+                System.err.println("Could not journal quiz answers: " + e.getMessage());
+            }
+            for (Answer answer : batch) {
+                PENDING.put(answer.key(), answer);
+            }
+        }
+    }
+
+    // Write everything buffered so far on the background thread
+    public static CompletableFuture<Void> flush() {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                flushPending();
+            } catch (SQLException e) {
+                throw new IllegalStateException("Could not save quiz answers: " + e.getMessage(), e);
+            }
+        }, FLUSHER);
+    }
+
+    // Runs on the flusher thread only, so two flushes never overlap
+    private static void flushPending() throws SQLException {
+        List<Answer> batch;
+        synchronized (QuizAnswerWriter.class) {
+            if (PENDING.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(PENDING.values());
+        }
+
+        List<Answer> done = new ArrayList<>();
+        SQLException retryLater = null;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                throw new SQLException("No database connection");
+            }
+            try {
+                writeBatch(conn, batch);
+                done.addAll(batch);
+            } catch (SQLException e) {
+                System.err.println("Quiz answer batch failed, retrying its " + batch.size()
+                        + " answer(s) one at a time: " + e.getMessage());
+                // One bad answer must not hold back the others
+                for (Answer answer : batch) {
+                    try {
+                        writeBatch(conn, List.of(answer));
+                        done.add(answer);
+                    } catch (SQLException rowError) {
+                        if (isConstraintViolation(rowError)) {
+                            // Its question or student is gone, so retrying can never succeed
+                            System.err.println("Dropping quiz answer " + answer.key() + ": " + rowError.getMessage());
+                            done.add(answer);
+                        } else {
+                            retryLater = rowError;
+                        }
+                    }
+                }
+            }
+        }
+
+        Set<Integer> students = new HashSet<>();
+        synchronized (QuizAnswerWriter.class) {
+            // Answers recorded again while the batch was running stay pending
+            for (Answer answer : done) {
+                PENDING.remove(answer.key(), answer);
+                students.add(answer.studentId);
+            }
+            try {
+                rewriteJournal();
+            } catch (IOException e) {
+                // Replaying an already saved answer is harmless: the write is an upsert
+                System.err.println("Could not trim quiz answer journal: " + e.getMessage());
+            }
+        }
+        for (int studentId : students) {
+            QuizCatalog.invalidateStudent(studentId);
+        }
+        System.out.println("Saved " + done.size() + " of " + batch.size() + " quiz answer(s)");
+        if (retryLater != null) {
+            throw retryLater;
+        }
+    }
+
+    // One transaction: the answers' subject totals and their upserts, as one JDBC batch
+    private static void writeBatch(Connection conn, List<Answer> answers) throws SQLException {
+        conn.setAutoCommit(false);
+        try (PreparedStatement pstmt = conn.prepareStatement(UPSERT)) {
+            updateSubjectStats(conn, answers);
+            for (Answer answer : answers) {
+                pstmt.setInt(1, answer.questionId);
+                pstmt.setInt(2, answer.studentId);
+                pstmt.setString(3, answer.selectedOption);
+                pstmt.setBoolean(4, answer.correct);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    // executeBatch() may wrap the driver's error in a BatchUpdateException, so look at the causes too
+    private static boolean isConstraintViolation(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLIntegrityConstraintViolationException
+                    || (t instanceof SQLException && "23".equals(prefix(((SQLException) t).getSQLState())))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String prefix(String sqlState) {
+        return sqlState != null && sqlState.length() >= 2 ? sqlState.substring(0, 2) : null;
+    }
+
+    /**
+     * Work out how the batch changes each subject's totals before it is written: a first
+     * answer adds an attempt, a changed answer can only move the correct count. The
+     * existing answers are locked so a concurrent writer cannot count them twice.
+     */
+    private static void updateSubjectStats(Connection conn, List<Answer> batch) throws SQLException {
+        Map<Integer, Map<Integer, Answer>> byStudent = new HashMap<>();
+        for (Answer answer : batch) {
+            byStudent.computeIfAbsent(answer.studentId, id -> new HashMap<>()).put(answer.questionId, answer);
+        }
+
+        Map<String, int[]> deltas = new HashMap<>();
+        for (Map.Entry<Integer, Map<Integer, Answer>> student : byStudent.entrySet()) {
+            Map<Integer, Answer> answers = student.getValue();
+            String query = "SELECT qq.id, qq.subject, qr.isCorrect FROM quiz_questions qq " +
+                    "LEFT JOIN QuizResults qr ON qr.questionID = qq.id AND qr.studentID = ? " +
+                    "WHERE qq.id IN (" + String.join(",", Collections.nCopies(answers.size(), "?")) + ") " +
+                    "FOR UPDATE";
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, student.getKey());
+                int index = 2;
+                for (int questionId : answers.keySet()) {
+                    pstmt.setInt(index++, questionId);
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        Answer answer = answers.get(rs.getInt("id"));
+                        boolean wasCorrect = rs.getBoolean("isCorrect");
+                        boolean existed = !rs.wasNull();
+                        int[] delta = deltas.computeIfAbsent(rs.getString("subject"), subject -> new int[2]);
+                        delta[0] += existed ? 0 : 1;
+                        delta[1] += (answer.correct ? 1 : 0) - (wasCorrect ? 1 : 0);
+                    }
+                }
+            }
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(ADD_SUBJECT_STATS)) {
+            for (Map.Entry<String, int[]> delta : deltas.entrySet()) {
+                if (delta.getValue()[0] == 0 && delta.getValue()[1] == 0) {
+                    continue;
+                }
+                pstmt.setString(1, delta.getKey());
+                pstmt.setInt(2, delta.getValue()[0]);
+                pstmt.setInt(3, delta.getValue()[1]);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    private static void flushQuietly() {
+        try {
+            flushPending();
+        } catch (Exception e) {
+            System.err.println("Background flush of quiz answers failed, will retry: " + e.getMessage());
+        }
+    }
+
+    private static void appendToJournal(List<Answer> answers) throws IOException {
+        Files.createDirectories(JOURNAL.toAbsolutePath().getParent());
+        try (FileOutputStream out = new FileOutputStream(JOURNAL.toFile(), true)) {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            for (Answer answer : answers) {
+                writer.write(answer.toJournalLine());
+                writer.write('\n');
+            }
+            writer.flush();
+            out.getFD().sync();
+        }
+    }
+
+    // Replace the journal with what is still pending; the rename keeps it whole if we crash mid-write
+    private static void rewriteJournal() throws IOException {
+        if (PENDING.isEmpty()) {
+            Files.deleteIfExists(JOURNAL);
+            return;
+        }
+        Path temp = JOURNAL.resolveSibling(JOURNAL.getFileName() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp.toFile())) {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            for (Answer answer : PENDING.values()) {
+                writer.write(answer.toJournalLine());
+                writer.write('\n');
+            }
+            writer.flush();
+            out.getFD().sync();
+        }
+        Files.move(temp, JOURNAL, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void replayJournal() {
+        if (!Files.exists(JOURNAL)) {
+            return;
+        }
+        try {
+            int replayed = 0;
+            for (String line : Files.readAllLines(JOURNAL, StandardCharsets.UTF_8)) {
+                Answer answer = Answer.fromJournalLine(line);
+                // A torn last line from a crash mid-append is skipped
+                if (answer != null) {
+                    PENDING.put(answer.key(), answer);
+                    replayed++;
+                }
+            }
+            System.out.println("Replaying " + replayed + " unsaved quiz answer(s) from " + JOURNAL);
+        } catch (IOException e) {
+            System.err.println("Could not read quiz answer journal: " + e.getMessage());
+        }
+    }
+
+    private static ScheduledExecutorService createFlusher() {
+        return Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "quiz-answer-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * A student's answer to one question.
+     */
+    public static final class Answer {
+        private final int studentId;
+        private final int questionId;
+        private final String selectedOption;
+        private final boolean correct;
+
+        public Answer(int studentId, int questionId, String selectedOption, boolean correct) {
+            this.studentId = studentId;
+            this.questionId = questionId;
+            this.selectedOption = Objects.requireNonNull(selectedOption);
+            this.correct = correct;
+        }
+
+        public int getStudentId() { return studentId; }
+        public int getQuestionId() { return questionId; }
+        public String getSelectedOption() { return selectedOption; }
+        public boolean isCorrect() { return correct; }
+
+        private String key() {
+            return studentId + ":" + questionId;
+        }
+
+        // Tab separated; the option goes last so it may contain anything but a line break
+        private String toJournalLine() {
+            return studentId + "\t" + questionId + "\t" + correct + "\t"
+                    + selectedOption.replace('\n', ' ').replace('\r', ' ');
+        }
+
+        private static Answer fromJournalLine(String line) {
+            String[] parts = line.split("\t", 4);
+            if (parts.length != 4) {
+                return null;
+            }
+            try {
+                return new Answer(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]),
+                        parts[3], Boolean.parseBoolean(parts[2]));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package services;
+
+import dao.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Quiz subjects with their question count, first question and a student's progress,
+ * read with one aggregated query and cached per student.
+ * - invalidate() drops everything; call it after questions are added
+ * - invalidateStudent() drops one student's entry; call it after they answer questions
+ * - Only the -Dquiz.catalog.maxStudents (default 200) most recently used students are kept
+ */
+public final class QuizCatalog {
+    // A quiz counts as completed once this share of its questions has been answered
+    public static final double COMPLETION_THRESHOLD = 0.8;
+
+    // QuizResults has one row per (question, student), so COUNT of the joined rows is the answered count
+    private static final String CATALOG_QUERY =
+            "SELECT qq.subject, COUNT(*) AS questionCount, MIN(qq.id) AS firstQuestionId, " +
+            "COUNT(qr.questionID) AS answeredCount " +
+            "FROM quiz_questions qq " +
+            "LEFT JOIN QuizResults qr ON qr.questionID = qq.id AND qr.studentID = ? " +
+            "GROUP BY qq.subject " +
+            "ORDER BY qq.subject";
+
+    private static final int MAX_STUDENTS = Integer.getInteger("quiz.catalog.maxStudents", 200);
+
+    // Guarded by the class lock; in access order, so the least recently used student goes first
+    private static final Map<Integer, List<Subject>> CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<Subject>> eldest) {
+            return size() > MAX_STUDENTS;
+        }
+    };
+    // Bumped by every invalidate, so a load that raced one is not cached
+    private static long generation;
+
+    private QuizCatalog() {
+    }
+
+    // Subjects in alphabetical order; studentId <= 0 gives an answered count of zero everywhere
+    public static List<Subject> forStudent(int studentId) throws SQLException {
+        long loadGeneration;
+        synchronized (QuizCatalog.class) {
+            List<Subject> cached = CACHE.get(studentId);
+            if (cached != null) {
+                return cached;
+            }
+            loadGeneration = generation;
+        }
+
+        List<Subject> subjects = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(CATALOG_QUERY)) {
+            pstmt.setInt(1, studentId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    subjects.add(new Subject(
+                            rs.getString("subject"),
+                            rs.getInt("questionCount"),
+                            rs.getInt("firstQuestionId"),
+                            rs.getInt("answeredCount")));
+                }
+            }
+        }
+
+        subjects = Collections.unmodifiableList(subjects);
+        synchronized (QuizCatalog.class) {
+            // An invalidate while the query ran may have changed what it read
+            if (generation == loadGeneration) {
+                CACHE.put(studentId, subjects);
+            }
+        }
+        return subjects;
+    }
+
+    public static synchronized void invalidate() {
+        CACHE.clear();
+        generation++;
+    }
+
+    public static synchronized void invalidateStudent(int studentId) {
+        CACHE.remove(studentId);
+        generation++;
+    }
+
+    /**
+     * One quiz subject as seen by one student.
+     */
+    public static final class Subject {
+        private final String name;
+        private final int questionCount;
+        private final int firstQuestionId;
+        private final int answeredCount;
+
+        Subject(String name, int questionCount, int firstQuestionId, int answeredCount) {
+            this.name = name;
+            this.questionCount = questionCount;
+            this.firstQuestionId = firstQuestionId;
+            this.answeredCount = answeredCount;
+        }
+
+        public String getName() { return name; }
+        public int getQuestionCount() { return questionCount; }
+        public int getFirstQuestionId() { return firstQuestionId; }
+        public int getAnsweredCount() { return answeredCount; }
+
+        public boolean isCompleted() {
+            return answeredCount >= questionCount * COMPLETION_THRESHOLD;
+        }
+    }
+}
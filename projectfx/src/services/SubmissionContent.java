@@ -0,0 +1,92 @@
+package services;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * How assignment submission text is stored in AssignmentProgress.
+ * - The text is kept deflated in contentCompressed, and the old content column is left NULL
+ * - contentSize (characters), contentHash (SHA-256) and contentSnippet describe the text, so a
+ *   list of submissions can be shown without fetching any of them
+ * - read() also accepts rows that only have the old content column
+ */
+public final class SubmissionContent {
+    // Bound by bind(), in this order
+    public static final String COLUMNS = "contentCompressed, contentSize, contentHash, contentSnippet";
+    public static final int SNIPPET_LENGTH = 120;
+
+    private SubmissionContent() {
+    }
+
+    // Set the four COLUMNS parameters starting at index; returns the index after them
+    public static int bind(PreparedStatement pstmt, int index, String text) throws SQLException {
+        if (text == null) {
+            pstmt.setNull(index, Types.BLOB);
+            pstmt.setInt(index + 1, 0);
+            pstmt.setNull(index + 2, Types.CHAR);
+            pstmt.setNull(index + 3, Types.VARCHAR);
+        } else {
+            pstmt.setBytes(index, compress(text));
+            pstmt.setInt(index + 1, text.length());
+            pstmt.setString(index + 2, hash(text));
+            pstmt.setString(index + 3, snippet(text));
+        }
+        return index + 4;
+    }
+
+    // The submission text of a row selecting contentCompressed and content, or null
+    public static String read(ResultSet rs) throws SQLException {
+        byte[] compressed = rs.getBytes("contentCompressed");
+        return compressed != null ? decompress(compressed) : rs.getString("content");
+    }
+
+    public static byte[] compress(String text) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new DeflaterOutputStream(bytes)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            // Cannot happen when writing to memory
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static String decompress(byte[] compressed) throws SQLException {
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new SQLException("Corrupt submission content: " + e.getMessage(), e);
+        }
+    }
+
+    public static String hash(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // The start of the text on one line
+    public static String snippet(String text) {
+        String line = text.trim().replaceAll("\\s+", " ");
+        return line.length() <= SNIPPET_LENGTH ? line : line.substring(0, SNIPPET_LENGTH - 3) + "...";
+    }
+}
@@ -0,0 +1,311 @@
+package services;
+
+import dao.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-memory substring search over usernames and emails.
+ * - Built from the Users table on first use, then kept current by put(), rename() and remove()
+ * - Every username and email is broken into bigrams and trigrams; a query only looks
+ *   at users that contain all of its grams, then confirms the actual substring match
+ * - Single-character queries scan users in userID order and stop at the limit
+ * Results are in userID order, so callers can page through them with a userID cursor.
+ */
+public final class UserSearchIndex {
+    private static final int MIN_GRAM = 2;
+    private static final int MAX_GRAM = 3;
+
+    // Guarded by the class lock
+    private static TreeMap<Integer, Entry> entries;
+    private static Map<String, Postings> postings;
+    private static boolean building;
+    private static List<Runnable> pendingUpdates = new ArrayList<>();
+
+    private UserSearchIndex() {
+    }
+
+    /**
+     * Users whose username or email contains query, with userID greater than afterUserId.
+     * role limits the result to one role; null matches every role. Builds the index on
+     * first use, so call this off the FX thread.
+     */
+    public static List<Entry> search(String query, String role, int afterUserId, int limit) throws SQLException {
+        ensureLoaded();
+        String needle = normalize(query);
+        List<Entry> matches = new ArrayList<>();
+        if (limit <= 0) {
+            return matches;
+        }
+
+        synchronized (UserSearchIndex.class) {
+            if (needle.length() < MIN_GRAM) {
+                for (Entry entry : entries.tailMap(afterUserId, false).values()) {
+                    if (entry.matches(needle, role)) {
+                        matches.add(entry);
+                        if (matches.size() == limit) {
+                            break;
+                        }
+                    }
+                }
+                return matches;
+            }
+
+            // Walk the rarest gram's list and probe the others
+            List<Postings> lists = new ArrayList<>();
+            for (String gram : grams(needle, Math.min(needle.length(), MAX_GRAM))) {
+                Postings list = postings.get(gram);
+                if (list == null) {
+                    return matches;
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+
+            Postings rarest = lists.get(0);
+            for (int i = rarest.firstAfter(afterUserId); i < rarest.size; i++) {
+                int userId = rarest.ids[i];
+                boolean inAll = true;
+                for (int j = 1; j < lists.size() && inAll; j++) {
+                    inAll = lists.get(j).contains(userId);
+                }
+                if (!inAll) {
+                    continue;
+                }
+                Entry entry = entries.get(userId);
+                if (entry != null && entry.matches(needle, role)) {
+                    matches.add(entry);
+                    if (matches.size() == limit) {
+                        break;
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+
+    // Record a new or changed user
+    public static void put(int userId, String username, String email, String role) {
+        update(() -> {
+            removeEntry(userId);
+            addEntry(new Entry(userId, username, email, role));
+        });
+    }
+
+    // Change a user's username and/or email, keeping the role; null leaves a field as it is
+    public static void rename(int userId, String username, String email) {
+        update(() -> {
+            Entry old = entries.get(userId);
+            if (old == null) {
+                return;
+            }
+            removeEntry(userId);
+            addEntry(new Entry(userId,
+                    username != null ? username : old.username,
+                    email != null ? email : old.email,
+                    old.role));
+        });
+    }
+
+    public static void remove(int userId) {
+        update(() -> removeEntry(userId));
+    }
+
+    // Load every user the first time the index is needed
+    public static void ensureLoaded() throws SQLException {
+        synchronized (UserSearchIndex.class) {
+            if (entries != null) {
+                return;
+            }
+            while (building) {
+                try {
+                    UserSearchIndex.class.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while waiting for the user search index", e);
+                }
+                if (entries != null) {
+                    return;
+                }
+            }
+            building = true;
+        }
+
+        // Read outside the lock; updates made meanwhile are queued and replayed afterwards
+        TreeMap<Integer, Entry> loaded = new TreeMap<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT userID, username, email, role FROM Users")) {
+            while (rs.next()) {
+                int userId = rs.getInt("userID");
+                loaded.put(userId, new Entry(userId, rs.getString("username"),
+                        rs.getString("email"), rs.getString("role")));
+            }
+        } catch (SQLException | RuntimeException e) {
+            synchronized (UserSearchIndex.class) {
+                building = false;
+                pendingUpdates.clear();
+                UserSearchIndex.class.notifyAll();
+            }
+            throw e;
+        }
+
+        long start = System.nanoTime();
+        synchronized (UserSearchIndex.class) {
+            entries = new TreeMap<>();
+            postings = new HashMap<>();
+            for (Entry entry : loaded.values()) {
+                addEntry(entry);
+            }
+            for (Runnable pending : pendingUpdates) {
+                pending.run();
+            }
+            pendingUpdates = new ArrayList<>();
+            building = false;
+            UserSearchIndex.class.notifyAll();
+            System.out.println("User search index built: " + entries.size() + " users, "
+                    + postings.size() + " grams in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }
+    }
+
+    private static synchronized void update(Runnable change) {
+        if (building) {
+            pendingUpdates.add(change);
+        } else if (entries != null) {
+            change.run();
+        }
+        // Not loaded yet: the first build reads the change from the database
+    }
+
+    private static void addEntry(Entry entry) {
+        entries.put(entry.userId, entry);
+        for (String gram : entryGrams(entry)) {
+            postings.computeIfAbsent(gram, g -> new Postings()).add(entry.userId);
+        }
+    }
+
+    private static void removeEntry(int userId) {
+        Entry old = entries.remove(userId);
+        if (old == null) {
+            return;
+        }
+        for (String gram : entryGrams(old)) {
+            Postings list = postings.get(gram);
+            if (list != null) {
+                list.remove(userId);
+                if (list.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static Set<String> entryGrams(Entry entry) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int length = MIN_GRAM; length <= MAX_GRAM; length++) {
+            grams.addAll(grams(entry.searchUsername, length));
+            grams.addAll(grams(entry.searchEmail, length));
+        }
+        return grams;
+    }
+
+    private static Set<String> grams(String text, int length) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + length <= text.length(); i++) {
+            grams.add(text.substring(i, i + length));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A user as seen by the index.
+     */
+    public static final class Entry {
+        private final int userId;
+        private final String username;
+        private final String email;
+        private final String role;
+        private final String searchUsername;
+        private final String searchEmail;
+
+        Entry(int userId, String username, String email, String role) {
+            this.userId = userId;
+            this.username = username;
+            this.email = email;
+            this.role = role;
+            this.searchUsername = normalize(username);
+            this.searchEmail = normalize(email);
+        }
+
+        public int getUserId() { return userId; }
+        public String getUsername() { return username; }
+        public String getEmail() { return email; }
+        public String getRole() { return role; }
+
+        boolean matches(String needle, String wantedRole) {
+            if (wantedRole != null && !wantedRole.equalsIgnoreCase(role)) {
+                return false;
+            }
+            return searchUsername.contains(needle) || searchEmail.contains(needle);
+        }
+    }
+
+    /**
+     * Sorted userIDs containing one gram. New users get the highest id, so adds are
+     * almost always appends.
+     */
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int userId) {
+            int pos = Arrays.binarySearch(ids, 0, size, userId);
+            if (pos >= 0) {
+                return;
+            }
+            pos = -pos - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = userId;
+            size++;
+        }
+
+        void remove(int userId) {
+            int pos = Arrays.binarySearch(ids, 0, size, userId);
+            if (pos < 0) {
+                return;
+            }
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+        }
+
+        boolean contains(int userId) {
+            return Arrays.binarySearch(ids, 0, size, userId) >= 0;
+        }
+
+        // Index of the first id greater than userId
+        int firstAfter(int userId) {
+            int pos = Arrays.binarySearch(ids, 0, size, userId);
+            return pos >= 0 ? pos + 1 : -pos - 1;
+        }
+    }
+}